@@ -0,0 +1,52 @@
+package Benchmarks;
+
+import Modelo.Checksums;
+import Modelo.Packet;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del checksum de un paquete: al construirlo (cálculo) y al recibirlo (verificación),
+ * para cada algoritmo incluido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    @Param({"10", "256", "1460", "16384", "65536"})
+    int tamanoPayload;
+
+    @Param({"CRC32C", "ADLER32", "FLETCHER32", "SUMA"})
+    String algoritmo;
+
+    private ByteBuffer payload;
+    private Packet paquete;
+    private Checksums checksum;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] bytes = new byte[tamanoPayload];
+        new Random(42).nextBytes(bytes);
+        payload = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+        checksum = Checksums.valueOf(algoritmo);
+        paquete = new Packet(0, payload, 0, checksum);
+    }
+
+    /** Construcción de un paquete de datos sobre una vista: sólo el cálculo del checksum. */
+    @Benchmark
+    public Packet calcularChecksum() {
+        return new Packet(0, payload, 0, checksum);
+    }
+
+    @Benchmark
+    public boolean isCorrupt() {
+        return paquete.isCorrupt();
+    }
+}
@@ -0,0 +1,39 @@
+package Benchmarks;
+
+import Modelo.Cesar;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del cifrado César que aplica el Emisor antes de segmentar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CifradoBenchmark {
+
+    @Param({"1024", "65536", "1048576", "104857600"})
+    int tamanoMensaje;
+
+    private String texto;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random random = new Random(42);
+        char[] caracteres = new char[tamanoMensaje];
+        for (int i = 0; i < caracteres.length; i++) {
+            caracteres[i] = (char) (32 + random.nextInt(95));
+        }
+        texto = new String(caracteres);
+    }
+
+    @Benchmark
+    public String cifrarCesar() {
+        return Cesar.cifrar(texto, 7);
+    }
+}
@@ -0,0 +1,48 @@
+package Benchmarks;
+
+import Modelo.Packet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de preparar un paquete corrupto en {@code Canal.entregarPaquete}:
+ * el clon {@code Packet(Packet)} que se usaba antes frente a la vista con el bit invertido
+ * que usa ahora, y lo que cuesta verificar esa vista en el receptor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClonacionBenchmark {
+
+    @Param({"10", "256", "1460", "16384", "65536"})
+    int tamanoPayload;
+
+    private Packet original;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] payload = new byte[tamanoPayload];
+        new Random(42).nextBytes(payload);
+        original = new Packet(0, payload);
+    }
+
+    @Benchmark
+    public Packet clonar() {
+        return new Packet(original);
+    }
+
+    @Benchmark
+    public Packet corromperConVista() {
+        return original.conBitInvertido(tamanoPayload * 4);
+    }
+
+    @Benchmark
+    public boolean verificarVistaCorrupta() {
+        return original.conBitInvertido(tamanoPayload * 4).isCorrupt();
+    }
+}
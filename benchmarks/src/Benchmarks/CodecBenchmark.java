@@ -0,0 +1,60 @@
+package Benchmarks;
+
+import Modelo.CodecPaquete;
+import Modelo.Packet;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de la forma binaria de un paquete ({@code CodecPaquete}) sobre un buffer directo
+ * reutilizado, como en {@code CanalUdp}: codificar, decodificar, y decodificar más verificar
+ * el checksum, que es lo que hace el receptor con cada paquete que llega por la red.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"10", "256", "1460", "16384", "65536"})
+    int tamanoPayload;
+
+    private Packet original;
+    private ByteBuffer destino;
+    private ByteBuffer codificado;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] payload = new byte[tamanoPayload];
+        new Random(42).nextBytes(payload);
+        original = new Packet(0, payload);
+        destino = ByteBuffer.allocateDirect(CodecPaquete.tamanoCodificado(original));
+        codificado = ByteBuffer.allocateDirect(CodecPaquete.tamanoCodificado(original));
+        CodecPaquete.codificar(original, codificado);
+        codificado.flip();
+    }
+
+    @Benchmark
+    public ByteBuffer codificar() {
+        destino.clear();
+        CodecPaquete.codificar(original, destino);
+        return destino;
+    }
+
+    @Benchmark
+    public Packet decodificar() {
+        codificado.rewind();
+        return CodecPaquete.decodificar(codificado);
+    }
+
+    @Benchmark
+    public boolean decodificarYVerificar() {
+        codificado.rewind();
+        return CodecPaquete.decodificar(codificado).isCorrupt();
+    }
+}
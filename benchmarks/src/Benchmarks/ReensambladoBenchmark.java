@@ -0,0 +1,70 @@
+package Benchmarks;
+
+import Modelo.ObservadorReceptor;
+import Modelo.Packet;
+import Modelo.ProtocoloReceptor;
+import Modelo.Trama;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste del lado receptor: {@code recibirPaquete}, {@code revisarBuffer} y
+ * {@code ensamblarMensajeFinal} para una trama completa.
+ * Los paquetes llegan en orden o barajados dentro de ventanas de 3, como con el Emisor.
+ * El receptor no está sintonizado a ningún canal, así que los ACKs no cuentan.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ReensambladoBenchmark {
+    private static final int VENTANA = 3;
+
+    @Param({"1024", "65536", "1048576", "104857600"})
+    int tamanoMensaje;
+
+    @Param({"10", "256", "1460", "16384", "65536"})
+    int tamanoPayload;
+
+    @Param({"true", "false"})
+    boolean desordenado;
+
+    private List<Packet> paquetes;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        byte[] mensaje = new byte[tamanoMensaje];
+        Random random = new Random(42);
+        random.nextBytes(mensaje);
+        paquetes = new ArrayList<>(new Trama(mensaje, tamanoPayload).getPackets());
+
+        if (desordenado) {
+            // El HEADER (posición 0) siempre llega primero
+            for (int i = 1; i < paquetes.size(); i += VENTANA) {
+                Collections.shuffle(paquetes.subList(i, Math.min(i + VENTANA, paquetes.size())), random);
+            }
+        }
+    }
+
+    @Benchmark
+    public void recibirTrama(Blackhole bh) {
+        ProtocoloReceptor receptor = new ProtocoloReceptor();
+        receptor.setObservador(new ObservadorReceptor() {
+            @Override
+            public void mensajeRecibido(byte[] datos) {
+                bh.consume(datos);
+            }
+        });
+        for (Packet paquete : paquetes) {
+            receptor.recibirPaquete(paquete);
+        }
+    }
+}
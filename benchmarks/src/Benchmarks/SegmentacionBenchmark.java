@@ -0,0 +1,43 @@
+package Benchmarks;
+
+import Modelo.Packet;
+import Modelo.Trama;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de segmentar: de un mensaje completo a todos sus paquetes con HEADER.
+ * La lista de la {@link Trama} es perezosa, así que se recorre entera para crearlos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SegmentacionBenchmark {
+
+    @Param({"1024", "65536", "1048576", "104857600"})
+    int tamanoMensaje;
+
+    @Param({"10", "256", "1460", "16384", "65536"})
+    int tamanoPayload;
+
+    private byte[] mensaje;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        mensaje = new byte[tamanoMensaje];
+        new Random(42).nextBytes(mensaje);
+    }
+
+    @Benchmark
+    public void segmentar(Blackhole bh) {
+        for (Packet paquete : new Trama(mensaje, tamanoPayload).getPackets()) {
+            bh.consume(paquete);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package Controlador;
+
+import Modelo.ObservadorCanal;
+import Modelo.Packet;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dibuja en un panel los paquetes que cruzan un canal.
+ * Es un simple observador: la entrega de los paquetes no espera a la animación.
+ * <p>
+ * Nada se dibuja desde el hilo del canal. {@link #paqueteEnViaje} sólo anota el viaje (cuándo
+ * empieza, cuándo acaba y de qué tipo es) en una cola circular sin locks ni objetos nuevos; un
+ * {@link AnimationTimer} la vacía una vez por frame en un arreglo reutilizable de viajes activos
+ * y los pinta todos sobre un único {@link Canvas}. Si hay demasiados para verlos uno por uno, se
+ * pasa a una vista de densidad: cuántos paquetes hay en cada tramo del canal. Si la animación no
+ * da abasto, se pierden viajes de la animación, nunca paquetes de la simulación.
+ */
+public class AnimadorCanal implements ObservadorCanal {
+
+    /** Viajes anotados que el frame siguiente aún no recogió; si se llena, se descartan. */
+    private static final int CAPACIDAD_COLA = 4096;
+    /** Viajes que se siguen a la vez. */
+    private static final int MAXIMO_ACTIVOS = 8192;
+    /** A partir de aquí no se dibuja cada paquete sino la densidad. */
+    private static final int MAXIMO_INDIVIDUALES = 300;
+    private static final int TRAMOS_DENSIDAD = 64;
+    private static final int TONOS_DENSIDAD = 16;
+    private static final double RADIO = 14;
+    private static final double RADIO_MINIMO = 4;
+    private static final double MARGEN = 20;
+
+    private static final byte DATOS = 0;
+    private static final byte CORRUPTO = 1;
+    private static final byte ACK = 2;
+    private static final Color[] COLORES = {
+            Color.rgb(97, 190, 253), // Azul (Datos OK)
+            Color.rgb(255, 87, 87),  // Rojo (CORRUPTO)
+            Color.rgb(74, 255, 166)  // Verde (ACK)
+    };
+    /** Cada color con opacidad creciente, para no crear colores en cada frame. */
+    private static final Color[][] TONOS = new Color[COLORES.length][TONOS_DENSIDAD];
+
+    static {
+        for (int t = 0; t < COLORES.length; t++) {
+            for (int n = 0; n < TONOS_DENSIDAD; n++) {
+                TONOS[t][n] = COLORES[t].deriveColor(0, 1, 1, 0.15 + 0.85 * (n + 1) / TONOS_DENSIDAD);
+            }
+        }
+    }
+
+    private final Canvas lienzo;
+    private final Random random = new Random();
+    private final AnimationTimer temporizador;
+
+    // --- Cola de viajes anotados (la llenan los hilos de los canales) ---
+    private final AtomicLong colaAnotados = new AtomicLong();
+    /** Como en la cola de la bitácora: {@code pos} libre, {@code pos + 1} con un viaje listo. */
+    private final AtomicLongArray turnos = new AtomicLongArray(CAPACIDAD_COLA);
+    private final long[] anotadoInicio = new long[CAPACIDAD_COLA];
+    private final long[] anotadoFin = new long[CAPACIDAD_COLA];
+    private final byte[] anotadoTipo = new byte[CAPACIDAD_COLA];
+    private final LongAdder descartados = new LongAdder();
+    private volatile boolean limpiar = false;
+
+    // --- Viajes activos (sólo el hilo de JavaFX) ---
+    private long cabezaAnotados = 0;
+    private int activos = 0;
+    private final long[] inicio = new long[MAXIMO_ACTIVOS];
+    private final long[] fin = new long[MAXIMO_ACTIVOS];
+    private final byte[] tipo = new byte[MAXIMO_ACTIVOS];
+    private final double[] alturaRelativa = new double[MAXIMO_ACTIVOS];
+    private final int[][] densidad = new int[COLORES.length][TRAMOS_DENSIDAD];
+    /** Viajes que empezaron y terminaron entre dos frames, o que no cupieron. */
+    private long sinDibujar = 0;
+    private boolean lienzoVacio = true;
+
+    /**
+     * Crea el lienzo dentro de {@code panelDeAnimacion} y empieza a animar. Debe llamarse
+     * desde el hilo de JavaFX.
+     * @param panelDeAnimacion El panel (prestado por el Receptor) donde se dibujará la animación.
+     */
+    public AnimadorCanal(Pane panelDeAnimacion) {
+        this.lienzo = new Canvas();
+        lienzo.widthProperty().bind(panelDeAnimacion.widthProperty());
+        lienzo.heightProperty().bind(panelDeAnimacion.heightProperty());
+        panelDeAnimacion.getChildren().add(lienzo);
+        for (int i = 0; i < CAPACIDAD_COLA; i++) {
+            turnos.set(i, i);
+        }
+        this.temporizador = new AnimationTimer() {
+            @Override
+            public void handle(long ahora) {
+                dibujar(ahora);
+            }
+        };
+        temporizador.start();
+    }
+
+    /**
+     * Anota el viaje sin tocar la escena; puede llamarse desde cualquier hilo.
+     * La duración se toma como tiempo de pared, como la del reloj que mueve los canales.
+     */
+    @Override
+    public void paqueteEnViaje(Packet paquete, boolean corrupto, long duracionNanos) {
+        byte tipoPaquete = paquete.isAck() ? ACK : corrupto ? CORRUPTO : DATOS;
+        long ahora = System.nanoTime();
+
+        long posicion = colaAnotados.get();
+        int casilla;
+        while (true) {
+            casilla = (int) (posicion & (CAPACIDAD_COLA - 1));
+            long diferencia = turnos.get(casilla) - posicion;
+            if (diferencia == 0) {
+                if (colaAnotados.compareAndSet(posicion, posicion + 1)) break;
+                posicion = colaAnotados.get();
+            } else if (diferencia < 0) {
+                descartados.increment(); // La animación va atrasada: este viaje no se verá
+                return;
+            } else {
+                posicion = colaAnotados.get();
+            }
+        }
+        anotadoInicio[casilla] = ahora;
+        anotadoFin[casilla] = ahora + Math.max(1, duracionNanos);
+        anotadoTipo[casilla] = tipoPaquete;
+        turnos.lazySet(casilla, posicion + 1);
+    }
+
+    @Override
+    public void receptorDesconectado() {
+        limpiar = true;
+    }
+
+    /** Detiene la animación; el lienzo queda en blanco. */
+    public void detener() {
+        temporizador.stop();
+        lienzo.getGraphicsContext2D().clearRect(0, 0, lienzo.getWidth(), lienzo.getHeight());
+    }
+
+    // --- Hilo de JavaFX ---
+
+    private void dibujar(long ahora) {
+        if (limpiar) {
+            limpiar = false;
+            activos = 0;
+        }
+        recogerAnotados(ahora);
+        retirarLlegados(ahora);
+
+        if (activos == 0 && lienzoVacio) {
+            return; // Canal en reposo: nada que borrar ni que pintar
+        }
+        lienzoVacio = activos == 0;
+
+        GraphicsContext g = lienzo.getGraphicsContext2D();
+        double ancho = lienzo.getWidth();
+        double alto = lienzo.getHeight();
+        g.clearRect(0, 0, ancho, alto);
+        if (activos <= MAXIMO_INDIVIDUALES) {
+            dibujarIndividuales(g, ahora, ancho, alto);
+        } else {
+            dibujarDensidad(g, ahora, ancho, alto);
+        }
+    }
+
+    private void recogerAnotados(long ahora) {
+        while (true) {
+            int casilla = (int) (cabezaAnotados & (CAPACIDAD_COLA - 1));
+            if (turnos.get(casilla) != cabezaAnotados + 1) break;
+            if (anotadoFin[casilla] <= ahora || activos == MAXIMO_ACTIVOS) {
+                sinDibujar++;
+            } else {
+                inicio[activos] = anotadoInicio[casilla];
+                fin[activos] = anotadoFin[casilla];
+                tipo[activos] = anotadoTipo[casilla];
+                alturaRelativa[activos] = (random.nextInt(80) - 40) / 216.0; // ±40 px en el panel original
+                activos++;
+            }
+            turnos.lazySet(casilla, cabezaAnotados + CAPACIDAD_COLA);
+            cabezaAnotados++;
+        }
+    }
+
+    /** Quita los viajes terminados pasando el último a su hueco: el arreglo no se reordena ni crece. */
+    private void retirarLlegados(long ahora) {
+        for (int i = activos - 1; i >= 0; i--) {
+            if (fin[i] <= ahora) {
+                int ultimo = --activos;
+                inicio[i] = inicio[ultimo];
+                fin[i] = fin[ultimo];
+                tipo[i] = tipo[ultimo];
+                alturaRelativa[i] = alturaRelativa[ultimo];
+            }
+        }
+    }
+
+    /** @return Cuánto recorrió el viaje {@code i}, de 0 a 1. */
+    private double avance(int i, long ahora) {
+        return Math.min(1.0, Math.max(0.0, (double) (ahora - inicio[i]) / (fin[i] - inicio[i])));
+    }
+
+    /** @return La x del viaje {@code i}: los datos van a la derecha y los ACKs vuelven. */
+    private double posicionX(int i, long ahora, double ancho) {
+        double recorrido = (ancho - 2 * MARGEN) * avance(i, ahora);
+        return tipo[i] == ACK ? ancho - MARGEN - recorrido : MARGEN + recorrido;
+    }
+
+    private void dibujarIndividuales(GraphicsContext g, long ahora, double ancho, double alto) {
+        // Más pequeños cuanto más se amontonan
+        double radio = Math.max(RADIO_MINIMO, RADIO * Math.min(1.0, Math.sqrt(50.0 / Math.max(1, activos))));
+        g.setStroke(Color.BLACK);
+        g.setLineWidth(1);
+        for (byte t = 0; t < COLORES.length; t++) {
+            g.setFill(COLORES[t]);
+            for (int i = 0; i < activos; i++) {
+                if (tipo[i] != t) continue;
+                double x = posicionX(i, ahora, ancho);
+                double y = alto / 2 + alturaRelativa[i] * alto;
+                g.fillOval(x - radio, y - radio, 2 * radio, 2 * radio);
+                g.strokeOval(x - radio, y - radio, 2 * radio, 2 * radio);
+            }
+        }
+    }
+
+    /**
+     * Vista agregada: una franja por tipo de paquete, partida en tramos cuya opacidad crece con
+     * los paquetes que hay en ellos.
+     */
+    private void dibujarDensidad(GraphicsContext g, long ahora, double ancho, double alto) {
+        for (int[] fila : densidad) {
+            Arrays.fill(fila, 0);
+        }
+        int maximo = 1;
+        double util = ancho - 2 * MARGEN;
+        for (int i = 0; i < activos; i++) {
+            int tramo = (int) Math.min(TRAMOS_DENSIDAD - 1, (posicionX(i, ahora, ancho) - MARGEN) / util * TRAMOS_DENSIDAD);
+            int cuenta = ++densidad[tipo[i]][Math.max(0, tramo)];
+            if (cuenta > maximo) maximo = cuenta;
+        }
+
+        double altoFranja = (alto - 2 * MARGEN) / COLORES.length;
+        double anchoTramo = util / TRAMOS_DENSIDAD;
+        for (int t = 0; t < COLORES.length; t++) {
+            double y = MARGEN + t * altoFranja;
+            for (int tramo = 0; tramo < TRAMOS_DENSIDAD; tramo++) {
+                int cuenta = densidad[t][tramo];
+                if (cuenta == 0) continue;
+                g.setFill(TONOS[t][(int) ((long) (cuenta - 1) * TONOS_DENSIDAD / maximo)]);
+                g.fillRect(MARGEN + tramo * anchoTramo, y, Math.ceil(anchoTramo), altoFranja - 2);
+            }
+        }
+        g.setFill(Color.BLACK);
+        g.fillText(activos + " paquetes en vuelo (" + (sinDibujar + descartados.sum()) + " sin dibujar)", MARGEN, alto - 6);
+    }
+}
@@ -1,8 +1,15 @@
 package Controlador;
 
+import Modelo.Bitacora;
 import Modelo.Canal;
+import Modelo.Cesar;
+import Modelo.ColaMensajes;
 import Modelo.GestorDeCanales;
-import Modelo.Packet;
+import Modelo.ObservadorReceptor;
+import Modelo.ProtocoloReceptor;
+import Modelo.RegistroMetricas;
+import Modelo.SumideroTexto;
+import javafx.animation.AnimationTimer;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
 import javafx.scene.control.ProgressBar;
@@ -10,11 +17,21 @@ import javafx.scene.control.Slider;
 import javafx.scene.layout.Pane;
 
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.TreeMap;
-
-public class Receptor {
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Controlador de la ventana del Receptor.
+ * Muestra el progreso del {@link ProtocoloReceptor} y presta su panel para la animación del canal.
+ * <p>
+ * Como en el {@link Emisor}, el protocolo corre en el hilo de la simulación y sólo publica su
+ * estado: el progreso en un {@link AtomicLong} (sin crear objetos por paquete) y los cambios de
+ * fase en un {@link AtomicReference}. Los controles se actualizan una vez por frame, con lo
+ * último publicado, por muchos paquetes que hayan llegado entre medias.
+ * <p>
+ * Por una conexión persistente del Emisor llegan varios mensajes seguidos; se muestra el último.
+ */
+public class Receptor implements ObservadorReceptor {
     @FXML Slider sliderCanal;
     @FXML Pane anchorPane;
     @FXML Pane animationPane;
@@ -24,155 +41,123 @@ public class Receptor {
     @FXML private Label lblMensajeRecibido;
     @FXML private Label lblEstado;
 
-    private Canal canalActual;
+    private final ProtocoloReceptor protocolo = new ProtocoloReceptor();
+    /** El texto cifrado, decodificado a medida que llegan los paquetes en orden (hilo de la simulación). */
+    private final StringBuilder textoRecibido = new StringBuilder();
+    private AnimadorCanal animador;
+
+    /**
+     * En qué punto está la trama; cada cambio es un objeto nuevo.
+     * @param mensajes Cuántos mensajes llegaron por la conexión en curso; 0 con tramas sueltas.
+     */
+    private record Estado(boolean recibiendo, String textoCifrado, long mensajes) {
+        static final Estado ESPERANDO = new Estado(false, null, 0);
+    }
 
-    // --- Estado de Recepción ---
-    private int totalPaquetesEsperados = 0;
-    private int proximoPaqueteEsperado = 0;
-    private final Map<Integer, Packet> bufferRecepcion = new HashMap<>();
-    private final Map<Integer, byte[]> payloadOrdenado = new TreeMap<>();
+    // --- Estado publicado por el hilo de la simulación ---
+    /** Paquetes recibidos en los 32 bits altos y total en los bajos. */
+    private final AtomicLong progreso = new AtomicLong();
+    private final AtomicReference<Estado> estado = new AtomicReference<>(Estado.ESPERANDO);
+    /** Mensajes de la conexión en curso (hilo de la simulación). */
+    private long mensajesConexion = 0;
+
+    // --- Lo último mostrado (hilo de JavaFX) ---
+    private Estado estadoMostrado;
+    private long progresoMostrado = -1;
+
+    private final AnimationTimer refresco = new AnimationTimer() {
+        @Override
+        public void handle(long ahora) {
+            refrescar();
+        }
+    };
 
     @FXML
     public void initialize() {
         barraDeProgreso.setStyle("-fx-progress-color: #28a745;");
+        animador = new AnimadorCanal(animationPane);
+        protocolo.setObservador(this);
+        RegistroMetricas.publicar(protocolo, "gui");
+        protocolo.setSumidero(new SumideroTexto(StandardCharsets.UTF_8, textoRecibido));
         sliderCanal.valueProperty().addListener((obs, v, n) -> sintonizarCanal(n.intValue()));
         sintonizarCanal((int) sliderCanal.getValue());
-        // Inicializa la UI
-        resetearEstadoRecepcion();
+        refresco.start();
     }
 
     private void sintonizarCanal(int id) {
-        if (canalActual != null) {
-            canalActual.desconectarReceptor();
-        }
-        canalActual = GestorDeCanales.getInstance().getCanal(id);
-        canalActual.conectarReceptor(this, animationPane);
-        System.out.println("Receptor sintonizado en Canal " + id);
+        GestorDeCanales gestor = GestorDeCanales.getInstance();
+        gestor.ejecutar(() -> {
+            Canal anterior = protocolo.getCanal();
+            if (anterior != null) {
+                anterior.quitarObservador(animador);
+            }
+            protocolo.sintonizar(gestor.getCanal(id));
+            protocolo.getCanal().agregarObservador(animador);
+            Bitacora.info("Receptor sintonizado en Canal {}", id);
 
-        resetearEstadoRecepcion();
+            progreso.set(0);
+            estado.set(Estado.ESPERANDO);
+        });
     }
 
-    private void resetearEstadoRecepcion() {
-        totalPaquetesEsperados = 0;
-        proximoPaqueteEsperado = 0;
-        bufferRecepcion.clear();
-        payloadOrdenado.clear();
-        if (barraDeProgreso != null) barraDeProgreso.setProgress(0.0);
-        if (lblMensajeRecibido != null) lblMensajeRecibido.setText("---");
-        if (lblEstado != null) lblEstado.setText("Esperando...");
+    @Override
+    public void tramaIniciada(int totalPaquetes) {
+        textoRecibido.setLength(0);
+        mensajesConexion = 0;
+        // Una conexión no tiene total: la barra se llena con cada mensaje
+        progreso.set(totalPaquetes == ColaMensajes.CONEXION_ABIERTA ? 0 : totalPaquetes & 0xFFFFFFFFL);
+        estado.set(new Estado(true, null, 0));
     }
 
-    /**
-     * MÉTODO PRINCIPAL DE RECEPCIÓN
-     * Llamado por la clase Canal.
-     */
-    public void recibirPaquete(Packet paquete) {
-        if (paquete.isAck()) return;
-
-        if (paquete.isCorrupt()) {
-            System.out.println("RECEPTOR: Paquete " + paquete.getSequenceNumber() + " corrupto. Descartando.");
-            return;
-        }
-
-        if (paquete.isHeader()) {
-            resetearEstadoRecepcion();
-            totalPaquetesEsperados = paquete.getTotalPacketsFromHeader();
-            if (lblEstado != null) lblEstado.setText("Recibiendo trama (0/" + totalPaquetesEsperados + ")");
-            enviarAck(paquete.getSequenceNumber()); // Enviar ACK para -1
-            return;
-        }
-
-        if (totalPaquetesEsperados == 0) return;
-
-        int seq = paquete.getSequenceNumber();
-        enviarAck(seq);
-
-        if (seq < proximoPaqueteEsperado || payloadOrdenado.containsKey(seq)) {
-            // Duplicado, ignorar
-        }
-        else if (seq == proximoPaqueteEsperado) {
-            payloadOrdenado.put(seq, paquete.getPayload());
-            proximoPaqueteEsperado++;
-            revisarBuffer();
-        }
-        else { // seq > proximoPaqueteEsperado
-            // Fuera de orden
-            bufferRecepcion.put(seq, paquete);
-        }
-
-        actualizarProgreso();
-    }
-
-    private void revisarBuffer() {
-        while (bufferRecepcion.containsKey(proximoPaqueteEsperado)) {
-            Packet paqueteDelBuffer = bufferRecepcion.remove(proximoPaqueteEsperado);
-            payloadOrdenado.put(paqueteDelBuffer.getSequenceNumber(), paqueteDelBuffer.getPayload());
-            proximoPaqueteEsperado++;
-        }
-
-        if (payloadOrdenado.size() == totalPaquetesEsperados) {
-            ensamblarMensajeFinal();
-        }
+    @Override
+    public void progreso(int paquetesRecibidos, int totalPaquetes) {
+        if (totalPaquetes == ColaMensajes.CONEXION_ABIERTA) return;
+        progreso.set(((long) paquetesRecibidos << 32) | (totalPaquetes & 0xFFFFFFFFL));
     }
 
-    private void ensamblarMensajeFinal() {
-        if (lblEstado != null) lblEstado.setText("Trama completa. Ensamblando...");
-
-        int tamanoTotal = payloadOrdenado.values().stream().mapToInt(b -> b.length).sum();
-        java.nio.ByteBuffer bufferFinal = java.nio.ByteBuffer.allocate(tamanoTotal);
-        for (byte[] payload : payloadOrdenado.values()) {
-            bufferFinal.put(payload);
-        }
-
-        String mensajeCifrado = new String(bufferFinal.array(), StandardCharsets.UTF_8).trim();
-
-        int claveDescifrado = (int) sliderDescifrado.getValue();
-
-        // Descifra el mensaje
-        String mensajeFinal = descifrarCesar(mensajeCifrado, claveDescifrado);
-
-        lblMensajeRecibido.setText(mensajeFinal);
-        if (lblEstado != null) lblEstado.setText("¡Mensaje Recibido!");
+    /** Con el {@link SumideroTexto} sólo llegan aquí los mensajes de una conexión persistente. */
+    @Override
+    public void mensajeRecibido(byte[] datos) {
+        mensajesConexion++;
+        progreso.set((1L << 32) | 1);
+        estado.set(new Estado(true, new String(datos, StandardCharsets.UTF_8).trim(), mensajesConexion));
     }
 
-    private void actualizarProgreso() {
-        if (totalPaquetesEsperados == 0) return;
-        double progreso = (double) payloadOrdenado.size() / totalPaquetesEsperados;
-        barraDeProgreso.setProgress(progreso);
-        if (lblEstado != null) lblEstado.setText("Recibiendo trama (" + payloadOrdenado.size() + "/" + totalPaquetesEsperados + ")");
+    @Override
+    public void tramaCompletada(long bytes) {
+        estado.set(new Estado(false, textoRecibido.toString().trim(), 0));
     }
 
-    private void enviarAck(int seqNum) {
-        if (canalActual != null) {
-            // Usa el constructor de ACK (isAck = true)
-            // (Asegúrate que tu constructor de Packet sea 'public Packet(int seq, boolean isAck)')
-            canalActual.enviarPaquete(new Packet(seqNum, true));
+    /** Lleva el estado publicado a los controles; en el hilo de JavaFX, una vez por frame. */
+    private void refrescar() {
+        Estado actual = estado.get();
+        long avance = progreso.get();
+        if (actual == estadoMostrado && avance == progresoMostrado) {
+            return;
         }
-    }
-
-    /**
-     * Descifra un texto César. Es la misma función que cifrar,
-     * pero con un desplazamiento negativo.
-     */
-    private String descifrarCesar(String textoCifrado, int desplazamiento) {
-        // Descifrar es lo mismo que cifrar con la clave opuesta
-        int desplazamientoOpuesto = -desplazamiento;
-
-        StringBuilder textoPlano = new StringBuilder();
-        final int asciiInicio = 32;
-        final int asciiFinal = 126;
-        final int rango = asciiFinal - asciiInicio + 1; // 95 caracteres
-
-        for (char c : textoCifrado.toCharArray()) {
-            if (c >= asciiInicio && c <= asciiFinal) {
-                int indiceActual = c - asciiInicio;
-                int indiceNuevo = (indiceActual + desplazamientoOpuesto % rango + rango) % rango;
-                char nuevoCaracter = (char) (asciiInicio + indiceNuevo);
-                textoPlano.append(nuevoCaracter);
+        int recibidos = (int) (avance >>> 32);
+        int total = (int) avance;
+
+        if (actual != estadoMostrado) {
+            estadoMostrado = actual;
+            if (actual.textoCifrado() != null) {
+                // Descifra el mensaje con la clave elegida ahora
+                int claveDescifrado = (int) sliderDescifrado.getValue();
+                lblMensajeRecibido.setText(Cesar.descifrar(actual.textoCifrado(), claveDescifrado));
+                if (lblEstado != null) {
+                    lblEstado.setText(actual.mensajes() > 0 ? "¡Mensaje " + actual.mensajes() + " Recibido!" : "¡Mensaje Recibido!");
+                }
             } else {
-                textoPlano.append(c); // Añadir caracteres no cifrables (como padding nulo)
+                if (lblMensajeRecibido != null) lblMensajeRecibido.setText("---");
+                if (lblEstado != null) lblEstado.setText("Esperando...");
             }
         }
-        return textoPlano.toString();
+        if (avance != progresoMostrado) {
+            progresoMostrado = avance;
+            barraDeProgreso.setProgress(total == 0 ? 0.0 : (double) recibidos / total);
+        }
+        if (actual.recibiendo() && lblEstado != null && recibidos < total) {
+            lblEstado.setText("Recibiendo trama (" + recibidos + "/" + total + ")");
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,3 +1,4 @@
+import Modelo.GestorDeCanales;
 import javafx.geometry.Rectangle2D;
 import javafx.stage.Screen;
 import javafx.application.Application;
@@ -16,6 +17,9 @@ public class Main extends Application {
 
     @Override
     public void start(Stage emisor) throws Exception {
+        // La simulación avanza con el reloj de pared, en su propio hilo, mientras la GUI esté abierta
+        GestorDeCanales.getInstance().iniciarReloj();
+
         Parent rootEmisor = FXMLLoader.load(Objects.requireNonNull(Main.class.getResource("Vista/EmisorPage.fxml")));
         Scene sceneEmisor = new Scene(rootEmisor);
         Image iconEmisor = new Image("Vista/Iconos/iconEmisor.png");
@@ -0,0 +1,38 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Estrategia de checksum de los paquetes.
+ * Las implementaciones incluidas están en {@link Checksums}; cualquier otra puede
+ * pasarse a {@link Trama} para que la usen todos sus paquetes.
+ */
+public interface AlgoritmoChecksum {
+
+    /** El algoritmo que se usa cuando no se indica otro. */
+    AlgoritmoChecksum PREDETERMINADO = Checksums.CRC32C;
+
+    /**
+     * Calcula el checksum de los bytes entre {@code position} y {@code limit}.
+     * No debe copiar los datos ni modificar la posición de {@code datos}.
+     */
+    int calcular(ByteBuffer datos);
+
+    /**
+     * Calcula el checksum de {@code datos} como si tuvieran invertidos los bits indicados,
+     * sin modificarlos. Lo usa {@link Packet} para verificar paquetes corrompidos por el canal.
+     * <p>
+     * Esta implementación materializa una copia; las de {@link Checksums} aplican
+     * las inversiones al vuelo.
+     *
+     * @param bitsInvertidos Posiciones de bit (relativas a {@code position}), en orden ascendente.
+     */
+    default int calcular(ByteBuffer datos, int[] bitsInvertidos) {
+        byte[] copia = new byte[datos.remaining()];
+        datos.get(datos.position(), copia);
+        for (int bit : bitsInvertidos) {
+            copia[bit >>> 3] ^= (byte) (1 << (bit & 7));
+        }
+        return calcular(ByteBuffer.wrap(copia));
+    }
+}
@@ -0,0 +1,338 @@
+package Modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Barrido de parámetros sin interfaz: expande una rejilla de control de congestión, ventana, tamaño
+ * de payload, timeout, pérdida y corrupción del canal en escenarios, corre cada uno (y cada repetición) como una
+ * {@link Simulacion} en un {@link SimulacionParalela}, y escribe una fila por ejecución en un CSV.
+ * Cada ejecución tiene su propia semilla ({@link Simulacion#semillaPara}), así que el archivo es
+ * el mismo con cualquier número de hilos.
+ * <pre>
+ *   java -cp target/classes Modelo.BarridoParametros control=predeterminado,cubic,fija ventana=8,64 payload=10,1400 rto=0,2500 perdida=0,0.1,0.25 corrupcion=0,0.25 repeticiones=3
+ * </pre>
+ * Los ejes que no se indiquen toman el valor de la GUI: {@code control=predeterminado} es el
+ * control de congestión del {@link ProtocoloEmisor} y {@code rto=0} su timeout adaptativo. La
+ * ventana sólo se barre con {@code control=fija}; las demás filas la dejan en 0.
+ * Un timeout fijo debe quedar por encima del RTT del canal (más de 1100 ms en el original): por
+ * debajo, cada paquete se retransmite antes de que llegue su ACK y no hay muestras de RTT; el
+ * barrido lo avisa. La columna {@code estado} separa las ejecuciones que no terminaron porque el
+ * Emisor abortó de las que se quedaron bloqueadas ({@link ResultadoSimulacion.Estado}).
+ * Otros parámetros: {@code bytes} (tamaño del mensaje), {@code semilla}, {@code hilos} y
+ * {@code salida} (por defecto {@value #SALIDA_PREDETERMINADA}).
+ */
+public class BarridoParametros {
+    private static final String SALIDA_PREDETERMINADA = "barrido.csv";
+    private static final int BYTES_PREDETERMINADOS = 20_000;
+    /** El de la GUI ({@code Controlador.Emisor}). */
+    private static final int TAMANO_PAYLOAD_GUI = 10;
+    /** Los del {@link ModeloCanal#original()}. */
+    private static final double PERDIDA_ORIGINAL = 0.25;
+    private static final double CORRUPCION_ORIGINAL = 0.25;
+
+    private static final String CABECERA_CSV = "escenario,repeticion,semilla,control,ventana,payload,rto_ms,perdida,corrupcion,"
+            + "completada,estado,tiempo_ms,goodput_bps,rtt_p50_ms,rtt_p90_ms,rtt_p99_ms,enviados,retransmisiones,ratio_retransmision";
+
+    /** Control de congestión de los Emisores de un escenario. */
+    public enum Control {
+        /** El de {@link ProtocoloEmisor#controlPredeterminado()}, el que usa la GUI. */
+        PREDETERMINADO,
+        RENO,
+        CUBIC,
+        /** {@link ControlCongestion#fija(int)} con la ventana del escenario. */
+        FIJA;
+
+        ControlCongestion crear(int ventana) {
+            return switch (this) {
+                case PREDETERMINADO -> ProtocoloEmisor.controlPredeterminado();
+                case RENO -> ControlCongestion.reno();
+                case CUBIC -> ControlCongestion.cubic();
+                case FIJA -> ControlCongestion.fija(ventana);
+            };
+        }
+    }
+
+    /**
+     * Un punto de la rejilla en una de sus repeticiones.
+     * @param numero Posición en el barrido; identifica la ejecución y deriva su semilla.
+     * @param ventana La ventana fija, o 0 si el control no es {@link Control#FIJA}.
+     * @param rtoMs Timeout fijo, o 0 para el adaptativo.
+     */
+    public record Escenario(int numero, Control control, int ventana, int tamanoPayload, long rtoMs,
+                            double perdida, double corrupcion, int repeticion, long semilla) {}
+
+    /** Un escenario y lo que salió de él. */
+    public record Fila(Escenario escenario, ResultadoSimulacion resultado) {}
+
+    private final byte[] cargaUtil;
+    private final long semillaBase;
+    private Control[] controles = {Control.PREDETERMINADO};
+    private int[] ventanas = {ProtocoloEmisor.VENTANA_PREDETERMINADA};
+    private int[] tamanosPayload = {TAMANO_PAYLOAD_GUI};
+    private long[] rtosMs = {0};
+    private double[] perdidas = {PERDIDA_ORIGINAL};
+    private double[] corrupciones = {CORRUPCION_ORIGINAL};
+    private int repeticiones = 1;
+
+    /**
+     * @param cargaUtil El mensaje que envía cada ejecución.
+     * @param semillaBase De ella se deriva la semilla de cada ejecución.
+     */
+    public BarridoParametros(byte[] cargaUtil, long semillaBase) {
+        this.cargaUtil = cargaUtil;
+        this.semillaBase = semillaBase;
+    }
+
+    public void setControles(Control... controles) {
+        exigirValores(controles.length);
+        this.controles = controles.clone();
+    }
+
+    /**
+     * @param ventanas Ventanas fijas, entre 1 y {@link ProtocoloEmisor#VENTANA_MAXIMA}; sólo se
+     *                 usan en los escenarios con {@link Control#FIJA}.
+     */
+    public void setVentanas(int... ventanas) {
+        for (int ventana : ventanas) {
+            if (ventana < 1 || ventana > ProtocoloEmisor.VENTANA_MAXIMA) {
+                throw new IllegalArgumentException("Ventana fuera de rango: " + ventana);
+            }
+        }
+        exigirValores(ventanas.length);
+        this.ventanas = ventanas.clone();
+    }
+
+    public void setTamanosPayload(int... tamanosPayload) {
+        for (int tamano : tamanosPayload) {
+            if (tamano <= 0) {
+                throw new IllegalArgumentException("El tamaño de payload debe ser positivo: " + tamano);
+            }
+        }
+        exigirValores(tamanosPayload.length);
+        this.tamanosPayload = tamanosPayload.clone();
+    }
+
+    /** @param rtosMs Timeouts fijos en milisegundos; 0 para el adaptativo del {@link ProtocoloEmisor}. */
+    public void setRtosMs(long... rtosMs) {
+        for (long rto : rtosMs) {
+            if (rto < 0) {
+                throw new IllegalArgumentException("Timeout negativo: " + rto);
+            }
+        }
+        exigirValores(rtosMs.length);
+        this.rtosMs = rtosMs.clone();
+    }
+
+    /** @param perdidas Probabilidades de pérdida independiente de cada paquete. */
+    public void setPerdidas(double... perdidas) {
+        validarProbabilidades(perdidas);
+        exigirValores(perdidas.length);
+        this.perdidas = perdidas.clone();
+    }
+
+    /** @param corrupciones Probabilidades de corrupción de cada paquete de datos. */
+    public void setCorrupciones(double... corrupciones) {
+        validarProbabilidades(corrupciones);
+        exigirValores(corrupciones.length);
+        this.corrupciones = corrupciones.clone();
+    }
+
+    /** @param repeticiones Ejecuciones de cada punto de la rejilla, cada una con otra semilla. */
+    public void setRepeticiones(int repeticiones) {
+        if (repeticiones < 1) {
+            throw new IllegalArgumentException("Repeticiones debe ser al menos 1: " + repeticiones);
+        }
+        this.repeticiones = repeticiones;
+    }
+
+    /**
+     * @return Todas las combinaciones de la rejilla por cada repetición, con el control variando
+     *         más despacio y la repetición más deprisa.
+     */
+    public List<Escenario> getEscenarios() {
+        List<Escenario> escenarios = new ArrayList<>();
+        for (Control control : controles) {
+            for (int ventana : control == Control.FIJA ? ventanas : new int[]{0}) {
+                for (int tamanoPayload : tamanosPayload) {
+                    for (long rtoMs : rtosMs) {
+                        for (double perdida : perdidas) {
+                            for (double corrupcion : corrupciones) {
+                                for (int repeticion = 0; repeticion < repeticiones; repeticion++) {
+                                    int numero = escenarios.size();
+                                    escenarios.add(new Escenario(numero, control, ventana, tamanoPayload, rtoMs,
+                                            perdida, corrupcion, repeticion, Simulacion.semillaPara(semillaBase, numero)));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return escenarios;
+    }
+
+    /**
+     * Corre todos los escenarios y espera a que terminen.
+     * @param paralelismo Cuántas simulaciones avanzan a la vez.
+     * @return Una fila por escenario, en el orden de {@link #getEscenarios()}.
+     */
+    public List<Fila> ejecutar(int paralelismo) {
+        avisarTimeoutsCortos();
+        if (!Arrays.asList(controles).contains(Control.FIJA)
+                && !Arrays.equals(ventanas, new int[]{ProtocoloEmisor.VENTANA_PREDETERMINADA})) {
+            Bitacora.aviso("BARRIDO: sin control=fija no se usan las ventanas {}.", Arrays.toString(ventanas));
+        }
+        List<Escenario> escenarios = getEscenarios();
+        SimulacionParalela paralela = new SimulacionParalela(paralelismo);
+        for (Escenario escenario : escenarios) {
+            paralela.agregar(crearSimulacion(escenario));
+        }
+        Map<Integer, ResultadoSimulacion> resultados = paralela.ejecutar();
+
+        List<Fila> filas = new ArrayList<>(escenarios.size());
+        for (Escenario escenario : escenarios) {
+            filas.add(new Fila(escenario, resultados.get(escenario.numero())));
+        }
+        return filas;
+    }
+
+    private Simulacion crearSimulacion(Escenario escenario) {
+        // La frecuencia sólo identifica la ejecución en los resultados
+        Simulacion simulacion = new Simulacion(escenario.numero(), cargaUtil, escenario.tamanoPayload(), escenario.semilla());
+        simulacion.setFabricaControl(() -> escenario.control().crear(escenario.ventana()));
+        long rtoNanos = TimeUnit.MILLISECONDS.toNanos(escenario.rtoMs());
+        simulacion.setFabricaEstimador(rtoNanos == 0
+                ? ProtocoloEmisor::estimadorPredeterminado
+                : () -> EstimadorRTT.fijo(rtoNanos));
+        simulacion.setFabricaModelo(() -> modeloPara(escenario.perdida(), escenario.corrupcion()));
+        return simulacion;
+    }
+
+    private static ModeloEnlace modeloPara(double perdida, double corrupcion) {
+        return ModeloCanal.original()
+                .conPerdida(ModeloPerdida.bernoulli(perdida))
+                .conCorrupcion(corrupcion);
+    }
+
+    /**
+     * Avisa de los timeouts fijos que no alcanzan el RTT mínimo del canal: sus filas medirían
+     * retransmisiones espurias, no el canal.
+     */
+    private void avisarTimeoutsCortos() {
+        long rttMinimoNanos = modeloPara(0, 0).getRttMinimoNanos();
+        for (long rtoMs : rtosMs) {
+            if (rtoMs > 0 && TimeUnit.MILLISECONDS.toNanos(rtoMs) < rttMinimoNanos) {
+                Bitacora.aviso("BARRIDO: rto={} ms está por debajo del RTT mínimo del canal ({} ms); "
+                        + "todo paquete se retransmitirá antes de su ACK.", rtoMs, rttMinimoNanos / 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Escribe las filas como CSV (coma, punto decimal, cabecera en la primera línea), que
+     * cualquier herramienta de análisis lee columna a columna. Los tiempos van en milisegundos;
+     * los percentiles de RTT son -1 si no hubo muestras.
+     */
+    public static void escribirCsv(List<Fila> filas, Writer salida) throws IOException {
+        salida.write(CABECERA_CSV);
+        salida.write('\n');
+        for (Fila fila : filas) {
+            Escenario e = fila.escenario();
+            ResultadoSimulacion r = fila.resultado();
+            salida.write(String.format(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%d,%s,%s,%b,%s,%.3f,%.1f,%.3f,%.3f,%.3f,%d,%d,%.4f%n",
+                    e.numero(), e.repeticion(), e.semilla(), e.control().name().toLowerCase(Locale.ROOT), e.ventana(), e.tamanoPayload(), e.rtoMs(),
+                    e.perdida(), e.corrupcion(), r.isCompletada(), r.getEstado().name().toLowerCase(Locale.ROOT),
+                    r.getTiempoVirtualNanos() / 1e6,
+                    r.getGoodputBytesPorSegundo(), milisegundos(r.getRttP50Nanos()), milisegundos(r.getRttP90Nanos()),
+                    milisegundos(r.getRttP99Nanos()), r.getPaquetesEnviados(), r.getRetransmisiones(),
+                    r.getRatioRetransmision()));
+        }
+    }
+
+    private static double milisegundos(long nanos) {
+        return nanos < 0 ? -1 : nanos / 1e6;
+    }
+
+    private static void validarProbabilidades(double[] probabilidades) {
+        for (double p : probabilidades) {
+            if (!(p >= 0 && p <= 1)) {
+                throw new IllegalArgumentException("Probabilidad fuera de [0, 1]: " + p);
+            }
+        }
+    }
+
+    private static void exigirValores(int longitud) {
+        if (longitud == 0) {
+            throw new IllegalArgumentException("Cada eje del barrido necesita al menos un valor");
+        }
+    }
+
+    public static void main(String[] args) {
+        int bytes = BYTES_PREDETERMINADOS;
+        long semilla = 42;
+        int hilos = Runtime.getRuntime().availableProcessors();
+        Path salida = Path.of(SALIDA_PREDETERMINADA);
+        List<String[]> ejes = new ArrayList<>();
+        for (String argumento : args) {
+            int igual = argumento.indexOf('=');
+            if (igual <= 0) uso("Argumento sin clave=valor: " + argumento);
+            String clave = argumento.substring(0, igual);
+            String valor = argumento.substring(igual + 1);
+            switch (clave) {
+                case "bytes" -> bytes = Integer.parseInt(valor);
+                case "semilla" -> semilla = Long.parseLong(valor);
+                case "hilos" -> hilos = Integer.parseInt(valor);
+                case "salida" -> salida = Path.of(valor);
+                case "control", "ventana", "payload", "rto", "perdida", "corrupcion", "repeticiones" -> ejes.add(new String[]{clave, valor});
+                default -> uso("Parámetro desconocido: " + clave);
+            }
+        }
+
+        byte[] datos = new byte[bytes];
+        new Random(1).nextBytes(datos);
+        BarridoParametros barrido = new BarridoParametros(datos, semilla);
+        for (String[] eje : ejes) {
+            String[] valores = eje[1].split(",");
+            switch (eje[0]) {
+                case "control" -> barrido.setControles(Arrays.stream(valores)
+                        .map(valor -> Control.valueOf(valor.toUpperCase(Locale.ROOT))).toArray(Control[]::new));
+                case "ventana" -> barrido.setVentanas(Arrays.stream(valores).mapToInt(Integer::parseInt).toArray());
+                case "payload" -> barrido.setTamanosPayload(Arrays.stream(valores).mapToInt(Integer::parseInt).toArray());
+                case "rto" -> barrido.setRtosMs(Arrays.stream(valores).mapToLong(Long::parseLong).toArray());
+                case "perdida" -> barrido.setPerdidas(Arrays.stream(valores).mapToDouble(Double::parseDouble).toArray());
+                case "corrupcion" -> barrido.setCorrupciones(Arrays.stream(valores).mapToDouble(Double::parseDouble).toArray());
+                default -> barrido.setRepeticiones(Integer.parseInt(eje[1]));
+            }
+        }
+
+        long inicio = System.nanoTime();
+        List<Fila> filas = barrido.ejecutar(hilos);
+        try (BufferedWriter escritor = Files.newBufferedWriter(salida, StandardCharsets.UTF_8)) {
+            escribirCsv(filas, escritor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.err.println(filas.size() + " ejecuciones en " + (System.nanoTime() - inicio) / 1_000_000
+                + " ms con " + hilos + " hilos -> " + salida);
+    }
+
+    private static void uso(String error) {
+        System.err.println(error);
+        System.err.println("Uso: BarridoParametros [control=predeterminado,reno,cubic,fija] [ventana=8,64] [payload=10,1400] [rto=0,2500] [perdida=0,0.25]"
+                + " [corrupcion=0,0.25] [repeticiones=3] [bytes=20000] [semilla=42] [hilos=N] [salida=barrido.csv]");
+        System.exit(2);
+    }
+}
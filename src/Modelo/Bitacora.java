@@ -0,0 +1,260 @@
+package Modelo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bitácora asíncrona del simulador, en lugar de {@code System.out.println} en el camino de
+ * cada paquete.
+ * <p>
+ * Los mensajes llevan huecos {@code {}} que se rellenan con los argumentos, p. ej.
+ * {@code Bitacora.depuracion("CANAL {}: Entregando Paquete {} al Receptor.", frecuencia, seq)}.
+ * Si el nivel está desactivado, la llamada sólo compara dos enteros: no concatena, no formatea
+ * y, con argumentos numéricos, tampoco crea objetos. Si está activo, el mensaje se anota sin
+ * formatear en una cola circular de tamaño fijo y un hilo propio lo formatea y lo escribe en
+ * {@code System.out}, por lotes. Quien registra nunca espera a la consola: si la cola está llena,
+ * el mensaje se descarta y se cuenta en {@link #getDescartados()}.
+ * <p>
+ * El nivel inicial se lee de la propiedad {@code -Dsimulador.log=DEPURACION} (por defecto
+ * {@link Nivel#INFO}: sin mensajes por paquete).
+ */
+public final class Bitacora {
+
+    /** Niveles de menor a mayor gravedad. */
+    public enum Nivel {
+        /** Lo que pasa con cada paquete. */
+        DEPURACION,
+        /** Conexiones y tramas. */
+        INFO,
+        /** Algo falló pero se sigue. */
+        AVISO,
+        ERROR,
+        /** Desactiva la bitácora. */
+        NINGUNO
+    }
+
+    private static final int CAPACIDAD = 1 << 14;
+    private static final int MASCARA = CAPACIDAD - 1;
+    private static final int MAXIMO_ARGUMENTOS = 3;
+    /** Bytes de texto a partir de los cuales el hilo escribe sin esperar a vaciar la cola. */
+    private static final int TAMANO_LOTE = 16 * 1024;
+    private static final long ESPERA_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    /** Argumento que indica "el valor está en el {@code long} de la misma posición". */
+    private static final Object NUMERO = new Object();
+
+    private static volatile int umbral = nivelInicial().ordinal();
+
+    // --- Cola circular de varios productores y un consumidor ---
+    private static final Registro[] anillo = new Registro[CAPACIDAD];
+    /** Siguiente posición a reservar por los productores. */
+    private static final AtomicLong cola = new AtomicLong();
+    /** Siguiente posición a leer; sólo la escribe el hilo de la bitácora. */
+    private static volatile long cabeza = 0;
+    private static final LongAdder descartados = new LongAdder();
+
+    static {
+        for (int i = 0; i < CAPACIDAD; i++) {
+            anillo[i] = new Registro(i);
+        }
+        Thread.ofPlatform().daemon().name("Bitacora").start(Bitacora::escribir);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> vaciar(TimeUnit.SECONDS.toNanos(1))));
+    }
+
+    /**
+     * Una casilla de la cola. {@code secuencia} dice de quién es el turno: vale {@code posicion}
+     * cuando está libre para el productor de esa posición y {@code posicion + 1} cuando tiene
+     * un mensaje listo para el consumidor (como en la cola acotada de D. Vyukov).
+     */
+    private static final class Registro {
+        volatile long secuencia;
+        String formato;
+        final Object[] objetos = new Object[MAXIMO_ARGUMENTOS];
+        final long[] numeros = new long[MAXIMO_ARGUMENTOS];
+
+        Registro(long secuencia) {
+            this.secuencia = secuencia;
+        }
+    }
+
+    private Bitacora() {
+    }
+
+    private static Nivel nivelInicial() {
+        String propiedad = System.getProperty("simulador.log");
+        if (propiedad != null) {
+            try {
+                return Nivel.valueOf(propiedad.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.err.println("simulador.log: nivel desconocido " + propiedad + "; se usa INFO");
+            }
+        }
+        return Nivel.INFO;
+    }
+
+    public static void setNivel(Nivel nivel) {
+        umbral = nivel.ordinal();
+    }
+
+    public static Nivel getNivel() {
+        return Nivel.values()[umbral];
+    }
+
+    /** @return true si los mensajes de {@code nivel} se escriben; para no calcular argumentos caros. */
+    public static boolean isActivo(Nivel nivel) {
+        return nivel.ordinal() >= umbral;
+    }
+
+    /** @return Mensajes perdidos porque la cola estaba llena. */
+    public static long getDescartados() {
+        return descartados.sum();
+    }
+
+    // --- DEPURACION ---
+
+    public static void depuracion(String mensaje) {
+        if (isActivo(Nivel.DEPURACION)) anotar(mensaje, null, 0, null, 0, null, 0);
+    }
+
+    public static void depuracion(String formato, long a) {
+        if (isActivo(Nivel.DEPURACION)) anotar(formato, NUMERO, a, null, 0, null, 0);
+    }
+
+    public static void depuracion(String formato, long a, long b) {
+        if (isActivo(Nivel.DEPURACION)) anotar(formato, NUMERO, a, NUMERO, b, null, 0);
+    }
+
+    public static void depuracion(String formato, long a, long b, long c) {
+        if (isActivo(Nivel.DEPURACION)) anotar(formato, NUMERO, a, NUMERO, b, NUMERO, c);
+    }
+
+    public static void depuracion(String formato, long a, Object b) {
+        if (isActivo(Nivel.DEPURACION)) anotar(formato, NUMERO, a, b, 0, null, 0);
+    }
+
+    // --- INFO ---
+
+    public static void info(String mensaje) {
+        if (isActivo(Nivel.INFO)) anotar(mensaje, null, 0, null, 0, null, 0);
+    }
+
+    public static void info(String formato, long a) {
+        if (isActivo(Nivel.INFO)) anotar(formato, NUMERO, a, null, 0, null, 0);
+    }
+
+    public static void info(String formato, long a, long b) {
+        if (isActivo(Nivel.INFO)) anotar(formato, NUMERO, a, NUMERO, b, null, 0);
+    }
+
+    public static void info(String formato, Object a) {
+        if (isActivo(Nivel.INFO)) anotar(formato, a, 0, null, 0, null, 0);
+    }
+
+    // --- AVISO y ERROR (poco frecuentes) ---
+
+    public static void aviso(String formato, Object a) {
+        if (isActivo(Nivel.AVISO)) anotar(formato, a, 0, null, 0, null, 0);
+    }
+
+    public static void aviso(String formato, Object a, Object b) {
+        if (isActivo(Nivel.AVISO)) anotar(formato, a, 0, b, 0, null, 0);
+    }
+
+    public static void error(String formato, Object a) {
+        if (isActivo(Nivel.ERROR)) anotar(formato, a, 0, null, 0, null, 0);
+    }
+
+    public static void error(String formato, Object a, Object b) {
+        if (isActivo(Nivel.ERROR)) anotar(formato, a, 0, b, 0, null, 0);
+    }
+
+    /**
+     * Reserva una casilla y anota el mensaje sin formatearlo. No bloquea: si no hay casilla
+     * libre, descarta el mensaje. Los objetos deben ser inmutables (se leen en otro hilo).
+     */
+    private static void anotar(String formato, Object a, long na, Object b, long nb, Object c, long nc) {
+        long posicion = cola.get();
+        Registro registro;
+        while (true) {
+            registro = anillo[(int) posicion & MASCARA];
+            long diferencia = registro.secuencia - posicion;
+            if (diferencia == 0) {
+                if (cola.compareAndSet(posicion, posicion + 1)) break;
+                posicion = cola.get();
+            } else if (diferencia < 0) {
+                // La casilla aún tiene el mensaje de la vuelta anterior: cola llena
+                descartados.increment();
+                return;
+            } else {
+                posicion = cola.get();
+            }
+        }
+        registro.formato = formato;
+        registro.objetos[0] = a;
+        registro.numeros[0] = na;
+        registro.objetos[1] = b;
+        registro.numeros[1] = nb;
+        registro.objetos[2] = c;
+        registro.numeros[2] = nc;
+        registro.secuencia = posicion + 1; // Publica el mensaje
+    }
+
+    /**
+     * Bucle del hilo de la bitácora: formatea los mensajes en orden y los escribe por lotes.
+     */
+    private static void escribir() {
+        StringBuilder lote = new StringBuilder(TAMANO_LOTE * 2);
+        long siguiente = cabeza;
+        while (true) {
+            Registro registro = anillo[(int) siguiente & MASCARA];
+            if (registro.secuencia == siguiente + 1) {
+                formatear(registro, lote);
+                registro.formato = null;
+                registro.objetos[0] = registro.objetos[1] = registro.objetos[2] = null;
+                registro.secuencia = siguiente + CAPACIDAD; // Libre para la vuelta siguiente
+                siguiente++;
+                if (lote.length() < TAMANO_LOTE) continue;
+            }
+            if (lote.length() > 0) {
+                System.out.print(lote);
+                System.out.flush();
+                lote.setLength(0);
+            }
+            cabeza = siguiente;
+            if (anillo[(int) siguiente & MASCARA].secuencia != siguiente + 1) {
+                LockSupport.parkNanos(ESPERA_NANOS);
+            }
+        }
+    }
+
+    private static void formatear(Registro registro, StringBuilder destino) {
+        String formato = registro.formato;
+        int desde = 0;
+        for (int i = 0; i < MAXIMO_ARGUMENTOS; i++) {
+            int hueco = formato.indexOf("{}", desde);
+            if (hueco < 0) break;
+            destino.append(formato, desde, hueco);
+            Object objeto = registro.objetos[i];
+            if (objeto == NUMERO) {
+                destino.append(registro.numeros[i]);
+            } else {
+                destino.append(objeto);
+            }
+            desde = hueco + 2;
+        }
+        destino.append(formato, desde, formato.length()).append(System.lineSeparator());
+    }
+
+    /**
+     * Espera a que se escriba todo lo registrado hasta ahora, como mucho {@code maximoNanos}.
+     * Útil antes de terminar un programa o de imprimir algo directamente en la consola.
+     */
+    public static void vaciar(long maximoNanos) {
+        long objetivo = cola.get();
+        long limite = System.nanoTime() + maximoNanos;
+        while (cabeza < objetivo && System.nanoTime() < limite) {
+            LockSupport.parkNanos(ESPERA_NANOS / 10);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package Modelo;
+
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buzón de un extremo (un Emisor o un Receptor) en el modo de tiempo real con hilos virtuales.
+ * Es un {@link Planificador} con el reloj de pared cuyos eventos esperan en una {@link DelayQueue}
+ * y se ejecutan, al vencer, en un hilo virtual propio que se bloquea en ella. Ahí llegan los
+ * paquetes que le entrega un {@link CanalVirtual} y ahí vencen los timeouts de su protocolo, así
+ * que el protocolo sigue corriendo en un solo hilo y sin locks.
+ * <p>
+ * Un hilo virtual bloqueado no ocupa un hilo del sistema: miles de buzones caben en una JVM.
+ * {@link #programar} puede llamarse desde cualquier hilo.
+ */
+public class BuzonVirtual implements Planificador, AutoCloseable {
+    /** Origen común de {@link #ahora()}, para que todos los buzones compartan reloj. */
+    private static final long ORIGEN = System.nanoTime();
+
+    private final DelayQueue<Pendiente> cola = new DelayQueue<>();
+    private final AtomicLong contadorEventos = new AtomicLong();
+    private final Thread hilo;
+    private volatile boolean cerrado = false;
+
+    /** Un {@link Evento} en la cola, con lo que {@link DelayQueue} necesita para ordenarlo. */
+    private record Pendiente(Evento evento) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unidad) {
+            return unidad.convert(evento.getTiempo() - (System.nanoTime() - ORIGEN), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed otro) {
+            return evento.compareTo(((Pendiente) otro).evento);
+        }
+    }
+
+    /**
+     * @param nombre Nombre del hilo virtual, p. ej. {@code "emisor-3"}.
+     */
+    public BuzonVirtual(String nombre) {
+        this.hilo = Thread.ofVirtual().name(nombre).start(this::atender);
+    }
+
+    @Override
+    public long ahora() {
+        return System.nanoTime() - ORIGEN;
+    }
+
+    @Override
+    public Evento programar(long retardoNanos, Runnable accion) {
+        Evento evento = new Evento(ahora() + Math.max(0, retardoNanos), contadorEventos.getAndIncrement(), accion);
+        cola.put(new Pendiente(evento));
+        return evento;
+    }
+
+    /** @return Eventos esperando en el buzón (incluidos los cancelados que aún no vencieron). */
+    public int getPendientes() {
+        return cola.size();
+    }
+
+    private void atender() {
+        while (!cerrado) {
+            Evento evento;
+            try {
+                evento = cola.take().evento();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (evento.isCancelado()) continue;
+            try {
+                evento.ejecutar();
+            } catch (RuntimeException e) {
+                Bitacora.error("BUZON {}: Error en un evento. {}", hilo.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Detiene el hilo del buzón; los eventos pendientes ya no se ejecutan.
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        hilo.interrupt();
+    }
+}
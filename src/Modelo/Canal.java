@@ -1,210 +1,380 @@
 package Modelo;
 
-import Controlador.Emisor;
-import Controlador.Receptor;
-import javafx.animation.PauseTransition;
-import javafx.animation.TranslateTransition;
-import javafx.application.Platform;
-import javafx.scene.layout.Pane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.util.Duration;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Canal es el motor de simulación.
- * Gestiona la pérdida, latencia (desorden) y animación de paquetes.
+ * Programa la pérdida, latencia (desorden) y corrupción de paquetes que decide su {@link ModeloCanal}.
+ * El tiempo lo lleva su {@link Planificador}; la animación es sólo un {@link ObservadorCanal}.
+ * Varias parejas Emisor/Receptor pueden compartir la frecuencia, cada una en su flujo: el canal
+ * entrega cada paquete a los extremos de {@link Packet#getFlujo()}.
  */
 public class Canal {
 
     // --- Conexiones ---
     private final int frecuencia;
-    private Emisor emisorConectado;
-    private Receptor receptorConectado;
+    /**
+     * Extremos conectados, por flujo ({@link Packet#getFlujo()}): varias parejas pueden compartir
+     * la frecuencia. Se copian al cambiar, así que entregar un paquete sólo lee un arreglo volátil
+     * (en un CanalVirtual cada extremo se conecta y recibe desde su propio hilo).
+     */
+    private volatile ProtocoloEmisor[] emisores = new ProtocoloEmisor[1];
+    private volatile ProtocoloReceptor[] receptores = new ProtocoloReceptor[1];
+    /**
+     * Próximo número de trama de cada flujo (ver {@link #reservarTrama(int)}). Es del canal y no
+     * del Emisor para que otro Emisor que tome el flujo no repita los números del anterior.
+     */
+    private int[] proximaTrama = new int[1];
 
-    /** El "lienzo" (prestado por el Receptor) donde se dibujará la animación. */
-    private Pane panelDeAnimacion;
+    /** Reloj y cola de eventos que hacen avanzar este canal. */
+    private final Planificador planificador;
+    /** Quienes dibujan o registran los paquetes en viaje (opcionales). */
+    private final List<ObservadorCanal> observadores = new CopyOnWriteArrayList<>();
 
     // --- Parámetros de Simulación ---
-    private final Random random = new Random();
-    /** Probabilidad de 0.0 (0%) a 1.0 (100%) de que un paquete se pierda. */
-    private static final double PROBABILIDAD_PERDIDA = 0.25;
-    /** Probabilidad de que un paquete de DATOS o HEADER se corrompa. */
-    private static final double PROBABILIDAD_CORRUPCION = 0.25;
-    /** Delay mínimo antes de que un paquete "aparezca" en el canal. */
-    private static final int LATENCIA_MIN_MS = 100;
-    /** Delay máximo antes de que un paquete "aparezca" en el canal. */
-    private static final int LATENCIA_MAX_MS = 600;
-    /** Cuánto tarda (fijo) un paquete en cruzar la pantalla. */
-    private static final int DURACION_VIAJE_MS = 450;
+    private final Random random;
+    /** Pérdida, latencia, capacidad y ruido del enlace. */
+    private volatile ModeloCanal modelo;
+    private final MetricasCanal metricas;
 
     public Canal(int frecuencia) {
+        this(frecuencia, new PlanificadorVirtual());
+    }
+
+    public Canal(int frecuencia, Planificador planificador) {
+        this(frecuencia, planificador, new Random());
+    }
+
+    /**
+     * @param random Fuente de azar propia del canal. Con una semilla fija la simulación
+     *               es reproducible, sin importar en qué hilo se ejecute.
+     */
+    public Canal(int frecuencia, Planificador planificador, Random random) {
+        this(frecuencia, planificador, random, ModeloCanal.original());
+    }
+
+    /**
+     * @param modelo Comportamiento del enlace; es de este canal y no debe compartirse.
+     */
+    public Canal(int frecuencia, Planificador planificador, Random random, ModeloCanal modelo) {
         this.frecuencia = frecuencia;
-        System.out.println("CANAL " + frecuencia + ": Creado.");
+        this.planificador = planificador;
+        this.random = random;
+        this.modelo = modelo;
+        this.metricas = new MetricasCanal(frecuencia);
+        Bitacora.info("CANAL {}: Creado.", frecuencia);
     }
 
     public int getFrecuencia() {
         return this.frecuencia;
     }
 
+    public Planificador getPlanificador() {
+        return this.planificador;
+    }
+
+    /**
+     * @return Donde corren los eventos del Emisor (sus timeouts y los ACKs que recibe). En este
+     *         canal es {@link #getPlanificador()}; un {@link CanalVirtual} da a cada extremo el suyo.
+     */
+    public Planificador getPlanificadorEmisor() {
+        return this.planificador;
+    }
+
+    /** @return Donde corren los eventos del Receptor; ver {@link #getPlanificadorEmisor()}. */
+    public Planificador getPlanificadorReceptor() {
+        return this.planificador;
+    }
+
+    public MetricasCanal getMetricas() {
+        return this.metricas;
+    }
+
+    public ModeloCanal getModelo() {
+        return this.modelo;
+    }
+
+    /**
+     * Cambia el comportamiento del enlace para los paquetes que entren desde ahora.
+     */
+    public void setModelo(ModeloCanal modelo) {
+        this.modelo = modelo;
+    }
+
 
     // --- Métodos de Conexión ---
-    public void conectarEmisor(Emisor emisor) {
-        this.emisorConectado = emisor;
-        System.out.println("CANAL " + frecuencia + ": Emisor conectado.");
+
+    /**
+     * Conecta {@code emisor} al flujo {@link ProtocoloEmisor#getFlujo()}. Si el flujo ya tenía
+     * Emisor, lo reemplaza (y lo avisa): para convivir, cada pareja necesita su flujo.
+     */
+    public synchronized void conectarEmisor(ProtocoloEmisor emisor) {
+        int flujo = emisor.getFlujo();
+        ProtocoloEmisor anterior = getEmisor(flujo);
+        if (anterior != null && anterior != emisor) {
+            Bitacora.aviso("CANAL {}: Otro Emisor reemplaza al del flujo {}.", frecuencia, flujo);
+        }
+        emisores = conAsiento(emisores, flujo, emisor);
+        Bitacora.info("CANAL {}: Emisor conectado (flujo {}).", frecuencia, flujo);
     }
 
-    public void desconectarEmisor() {
-        this.emisorConectado = null;
-        System.out.println("CANAL " + frecuencia + ": Emisor desconectado.");
+    /**
+     * Desconecta {@code emisor} de su flujo, si sigue conectado (no a quien lo reemplazó).
+     */
+    public synchronized void desconectarEmisor(ProtocoloEmisor emisor) {
+        int flujo = emisor.getFlujo();
+        if (getEmisor(flujo) != emisor) return;
+        emisores = conAsiento(emisores, flujo, null);
+        Bitacora.info("CANAL {}: Emisor desconectado (flujo {}).", frecuencia, flujo);
     }
 
-    public void conectarReceptor(Receptor receptor, Pane panel) {
-        this.receptorConectado = receptor;
-        this.panelDeAnimacion = panel;
-        System.out.println("CANAL " + frecuencia + ": Receptor conectado.");
+    /** Como {@link #conectarEmisor}, con {@link ProtocoloReceptor#getFlujo()}. */
+    public synchronized void conectarReceptor(ProtocoloReceptor receptor) {
+        int flujo = receptor.getFlujo();
+        ProtocoloReceptor anterior = getReceptor(flujo);
+        if (anterior != null && anterior != receptor) {
+            Bitacora.aviso("CANAL {}: Otro Receptor reemplaza al del flujo {}.", frecuencia, flujo);
+        }
+        receptores = conAsiento(receptores, flujo, receptor);
+        Bitacora.info("CANAL {}: Receptor conectado (flujo {}).", frecuencia, flujo);
     }
 
-    public void desconectarReceptor() {
-        this.receptorConectado = null;
-        if (this.panelDeAnimacion != null) {
-            this.panelDeAnimacion.getChildren().clear();
+    /** Como {@link #desconectarEmisor}. */
+    public synchronized void desconectarReceptor(ProtocoloReceptor receptor) {
+        int flujo = receptor.getFlujo();
+        if (getReceptor(flujo) != receptor) return;
+        receptores = conAsiento(receptores, flujo, null);
+        for (ObservadorCanal observador : observadores) {
+            observador.receptorDesconectado();
         }
-        this.panelDeAnimacion = null;
-        System.out.println("CANAL " + frecuencia + ": Receptor desconectado.");
+        Bitacora.info("CANAL {}: Receptor desconectado (flujo {}).", frecuencia, flujo);
     }
 
-    // --- Motor de Simulación ---
-    public boolean enviarPaquete(Packet paquete) {
+    /** @return El Emisor conectado al flujo, o null. */
+    public ProtocoloEmisor getEmisor(int flujo) {
+        ProtocoloEmisor[] tabla = emisores;
+        return flujo < tabla.length ? tabla[flujo] : null;
+    }
+
+    /** @return El Receptor conectado al flujo, o null. */
+    public ProtocoloReceptor getReceptor(int flujo) {
+        ProtocoloReceptor[] tabla = receptores;
+        return flujo < tabla.length ? tabla[flujo] : null;
+    }
+
+    /**
+     * @return Un número de trama que no se ha usado en {@code flujo} de este canal: el Receptor
+     *         descarta lo que lleva otro número, como los reenvíos retrasados de la anterior.
+     */
+    public synchronized int reservarTrama(int flujo) {
+        if (flujo >= proximaTrama.length) {
+            proximaTrama = Arrays.copyOf(proximaTrama, flujo + 1);
+        }
+        return proximaTrama[flujo]++;
+    }
+
+    /** @return Una copia de {@code tabla} con {@code extremo} en {@code flujo}, agrandada si hace falta. */
+    private static <T> T[] conAsiento(T[] tabla, int flujo, T extremo) {
+        T[] copia = Arrays.copyOf(tabla, Math.max(tabla.length, flujo + 1));
+        copia[flujo] = extremo;
+        return copia;
+    }
+
+    /**
+     * Entrega en el acto un paquete que llegó de otro proceso a su destinatario local, si lo hay.
+     * Lo usan los canales que no simulan el viaje, como {@link CanalUdp}.
+     */
+    protected void entregarDirecto(Packet paquete) {
+        metricas.registrarEntregado(paquete.getLongitudSinRelleno());
         if (paquete.isAck()) {
-            if (emisorConectado == null) {
-                System.out.println("CANAL " + frecuencia + ": ACK " + paquete.getSequenceNumber() + " perdido (Emisor desconectado).");
-                return false;
-            }
+            ProtocoloEmisor emisor = getEmisor(paquete.getFlujo());
+            if (emisor != null) emisor.recibirAck(paquete);
         } else {
-            if (receptorConectado == null || panelDeAnimacion == null) {
-                System.out.println("CANAL " + frecuencia + ": Paquete " + paquete.getSequenceNumber() + " RECHAZADO (Receptor desconectado).");
-                return false;
-            }
+            ProtocoloReceptor receptor = getReceptor(paquete.getFlujo());
+            if (receptor != null) receptor.recibirPaquete(paquete);
+        }
+    }
+
+    public void agregarObservador(ObservadorCanal observador) {
+        observadores.add(observador);
+    }
+
+    public void quitarObservador(ObservadorCanal observador) {
+        observadores.remove(observador);
+    }
+
+    // --- Motor de Simulación ---
+    public boolean enviarPaquete(Packet paquete) {
+        if (!destinatarioConectado(paquete)) {
+            return false;
         }
 
-        if (random.nextDouble() < PROBABILIDAD_PERDIDA) {
-            System.out.println("CANAL " + frecuencia + ": ¡PAQUETE " + paquete.getSequenceNumber() + " PERDIDO! (simulado)");
+        metricas.registrarAdmitido();
+        ColaDrr reparto = paquete.isAck() ? null : modelo.getRepartoDatos();
+        if (reparto != null) {
+            encolarReparto(reparto, paquete);
             return true;
         }
 
-        int latencia = LATENCIA_MIN_MS + random.nextInt(LATENCIA_MAX_MS - LATENCIA_MIN_MS);
-        PauseTransition delay = new PauseTransition(Duration.millis(latencia));
+        admitir(paquete);
+        return true;
+    }
 
-        delay.setOnFinished(e -> {
-            iniciarAnimacion(paquete);
-        });
-        delay.play();
+    /** El modelo decide si {@code paquete} se pierde o cuándo empieza a cruzar. */
+    private void admitir(Packet paquete) {
+        long espera = modelo.admitir(paquete, planificador.ahora(), random);
+        if (espera == ModeloCanal.PERDIDO) {
+            registrarPerdida(paquete);
+            return;
+        }
 
-        return true;
+        planificador.programar(espera, () -> iniciarViaje(paquete));
     }
 
     /**
-     * Helper privado para crear y ejecutar la animación visual.
+     * Deja {@code paquete} en la cola de su flujo y, si el transmisor estaba libre, lo arranca.
      */
-    private void iniciarAnimacion(Packet paquete) {
-        // La decisión de corrupción se toma ANTES de dibujar
-        final boolean seCorrompera = !paquete.isAck() && random.nextDouble() < PROBABILIDAD_CORRUPCION;
+    private void encolarReparto(ColaDrr reparto, Packet paquete) {
+        if (!reparto.encolar(paquete)) {
+            registrarPerdida(paquete);
+            return;
+        }
+        if (reparto.ocupar()) {
+            // Cada reparto lleva su transmisor: si el modelo cambió, el del anterior termina lo
+            // suyo y se detiene, y si vuelve, no arranca un segundo
+            transmitirSiguiente(reparto);
+        }
+    }
 
-        Platform.runLater(() -> {
-            if (panelDeAnimacion == null) return;
+    /**
+     * Saca por el enlace el paquete al que le toca turno: tarda lo que su serialización y
+     * después sigue como cualquier otro (pérdida, latencia, viaje).
+     */
+    private void transmitirSiguiente(ColaDrr reparto) {
+        Packet paquete = reparto.siguiente();
+        if (paquete == null) {
+            reparto.liberar();
+            return;
+        }
+        planificador.programar(reparto.serializacion(paquete), () -> {
+            admitir(paquete);
+            transmitirSiguiente(reparto);
+        });
+    }
 
-            // 1. Elegir color basado en el estado
-            Color colorPaquete;
-            if (paquete.isAck()) {
-                colorPaquete = Color.rgb(74, 255, 166); // Verde (ACK)
-            } else if (seCorrompera) {
-                colorPaquete = Color.rgb(255, 87, 87); // Rojo (CORRUPTO)
-            } else {
-                colorPaquete = Color.rgb(97, 190, 253); // Azul (Datos OK)
+    /**
+     * @return false (y lo anota) si no hay nadie conectado al otro lado para recibir {@code paquete}.
+     */
+    protected boolean destinatarioConectado(Packet paquete) {
+        if (paquete.isAck()) {
+            if (getEmisor(paquete.getFlujo()) == null) {
+                Bitacora.depuracion("CANAL {}: ACK {} perdido (Emisor desconectado).", frecuencia, paquete.getSequenceNumber());
+                return false;
             }
-
-            Circle visual = new Circle(14, colorPaquete);
-            visual.setStroke(Color.BLACK);
-
-            double startX, endX;
-            if (paquete.isAck()) {
-                startX = panelDeAnimacion.getWidth() - 20;
-                endX = 20;
-            } else {
-                startX = 20;
-                endX = panelDeAnimacion.getWidth() - 20;
+        } else {
+            if (getReceptor(paquete.getFlujo()) == null) {
+                Bitacora.depuracion("CANAL {}: Paquete {} RECHAZADO (Receptor desconectado).", frecuencia, paquete.getSequenceNumber());
+                return false;
             }
+        }
+        return true;
+    }
 
-            visual.setLayoutX(startX);
-            visual.setLayoutY(panelDeAnimacion.getHeight() / 2 + random.nextInt(80) - 40);
+    /**
+     * Anota un paquete que el modelo decidió perder: bitácora, métricas y evento JFR.
+     */
+    protected void registrarPerdida(Packet paquete) {
+        Bitacora.depuracion("CANAL {}: ¡PAQUETE {} PERDIDO! (simulado)", frecuencia, paquete.getSequenceNumber());
+        metricas.registrarPerdido();
+        EventoJfrPerdida evento = new EventoJfrPerdida();
+        if (evento.shouldCommit()) {
+            evento.frecuencia = frecuencia;
+            evento.secuencia = paquete.getSequenceNumber();
+            evento.ack = paquete.isAck();
+            evento.commit();
+        }
+    }
 
-            panelDeAnimacion.getChildren().add(visual);
+    /**
+     * Avisa a los observadores de que {@code paquete} empieza a cruzar el canal.
+     */
+    protected void notificarEnViaje(Packet paquete, boolean corrupto, long duracionViaje) {
+        for (ObservadorCanal observador : observadores) {
+            observador.paqueteEnViaje(paquete, corrupto, duracionViaje);
+        }
+    }
 
-            TranslateTransition tt = new TranslateTransition(Duration.millis(DURACION_VIAJE_MS), visual);
-            tt.setToX(endX - startX);
+    /**
+     * Helper privado que pone el paquete "en el cable" tras la latencia.
+     */
+    private void iniciarViaje(Packet paquete) {
+        // La decisión de corrupción se toma ANTES de que los observadores lo dibujen
+        final boolean seCorrompera = !paquete.isAck() && modelo.corromper(paquete, random);
+        final long duracionViaje = modelo.duracionViaje(paquete);
+        if (seCorrompera) {
+            metricas.registrarCorrompido();
+        }
 
-            tt.setOnFinished(event -> {
-                if (panelDeAnimacion != null) {
-                    panelDeAnimacion.getChildren().remove(visual);
-                }
-                entregarPaquete(paquete, seCorrompera);
-            });
+        notificarEnViaje(paquete, seCorrompera, duracionViaje);
 
-            tt.play();
-        });
+        planificador.programar(duracionViaje, () -> entregarPaquete(paquete, seCorrompera));
     }
 
     /**
      * Simula ruido volteando un bit aleatorio en el payload.
-     * ADVERTENCIA: Esto modifica el objeto Packet.
+     * No copia ni modifica el paquete original: devuelve una vista con el bit invertido.
      */
-    private void corromperPaquete(Packet p) {
-        byte[] payload = p.getPayload();
-        if (payload != null && payload.length > 0) {
-            int byteIndex = random.nextInt(payload.length);
-            int bitIndex = random.nextInt(8);
-            payload[byteIndex] = (byte) (payload[byteIndex] ^ (1 << bitIndex));
-            System.out.println("CANAL " + frecuencia + ": Bit-flip en byte " + byteIndex);
+    protected Packet corromperPaquete(Packet p) {
+        int bytesReales = p.getLongitudSinRelleno();
+        if (bytesReales == 0) {
+            return p;
         }
+        int byteIndex = random.nextInt(bytesReales);
+        int bitIndex = random.nextInt(8);
+        Bitacora.depuracion("CANAL {}: Bit-flip en byte {}", frecuencia, byteIndex);
+        return p.conBitInvertido(byteIndex * 8 + bitIndex);
     }
 
     /**
      * Helper privado para entregar lógicamente el paquete al destinatario.
      * @param paqueteOriginal El paquete *original* (limpio) del Emisor.
-     * @param seCorrompera La decisión tomada en iniciarAnimacion.
+     * @param seCorrompera La decisión tomada en iniciarViaje.
      */
-    private void entregarPaquete(Packet paqueteOriginal, boolean seCorrompera) { // <-- MODIFICADO
+    private void entregarPaquete(Packet paqueteOriginal, boolean seCorrompera) {
 
-        // --- LÓGICA DE CLONACIÓN ---
+        // --- LÓGICA DE CORRUPCIÓN ---
         Packet paqueteADeliverar;
         if (seCorrompera) {
-            System.out.println("CANAL " + frecuencia + ": ¡PAQUETE " + paqueteOriginal.getSequenceNumber() + " CORRUPTO! (simulado)");
-            // 1. Crea un clon
-            paqueteADeliverar = new Packet(paqueteOriginal);
-            // 2. Corrompe el clon
-            corromperPaquete(paqueteADeliverar);
+            Bitacora.depuracion("CANAL {}: ¡PAQUETE {} CORRUPTO! (simulado)", frecuencia, paqueteOriginal.getSequenceNumber());
+            // Vista corrupta sobre el mismo buffer; el original del Emisor queda intacto
+            paqueteADeliverar = corromperPaquete(paqueteOriginal);
         } else {
-            // 3. El paquete está limpio, se entrega el original
+            // El paquete está limpio, se entrega el original
             paqueteADeliverar = paqueteOriginal;
         }
         // -------------------------
 
+        metricas.registrarEntregado(paqueteADeliverar.getLongitudSinRelleno());
         if (paqueteADeliverar.isAck()) {
-            if (emisorConectado != null) {
-                System.out.println("CANAL " + frecuencia + ": Entregando ACK " + paqueteADeliverar.getSequenceNumber() + " al Emisor.");
-                emisorConectado.recibirAck(paqueteADeliverar);
+            ProtocoloEmisor emisor = getEmisor(paqueteADeliverar.getFlujo());
+            if (emisor != null) {
+                Bitacora.depuracion("CANAL {}: Entregando ACK {} al Emisor.", frecuencia, paqueteADeliverar.getSequenceNumber());
+                emisor.recibirAck(paqueteADeliverar);
             }
         } else {
-            if (receptorConectado != null) {
+            ProtocoloReceptor receptor = getReceptor(paqueteADeliverar.getFlujo());
+            if (receptor != null) {
                 if (paqueteADeliverar.isHeader()) {
-                    System.out.println("CANAL " + frecuencia + ": Entregando HEADER al Receptor.");
+                    Bitacora.depuracion("CANAL {}: Entregando HEADER al Receptor.", frecuencia);
                 } else {
-                    System.out.println("CANAL " + frecuencia + ": Entregando Paquete " + paqueteADeliverar.getSequenceNumber() + " al Receptor.");
+                    Bitacora.depuracion("CANAL {}: Entregando Paquete {} al Receptor.", frecuencia, paqueteADeliverar.getSequenceNumber());
                 }
-                // Entrega el clon corrupto o el original limpio
-                receptorConectado.recibirPaquete(paqueteADeliverar);
+                // Entrega la vista corrupta o el original limpio
+                receptor.recibirPaquete(paqueteADeliverar);
             }
         }
     }
-}
\ No newline at end of file
+}
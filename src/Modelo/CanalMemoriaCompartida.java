@@ -0,0 +1,237 @@
+package Modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Canal entre dos JVMs de la misma máquina a través de un archivo proyectado en memoria
+ * (p. ej. en {@code /dev/shm}), sin sockets ni llamadas al sistema por paquete.
+ * <p>
+ * El archivo tiene dos colas circulares de un productor y un consumidor: una lleva los datos
+ * del Emisor al Receptor y la otra los ACKs de vuelta. Cada cola tiene dos índices de 64 bits
+ * que sólo crecen: {@code cola}, que escribe el productor al publicar, y {@code cabeza}, que
+ * escribe el consumidor al liberar. Cada uno vive en su propia línea de caché y se lee con
+ * semántica acquire y se escribe con release, así que no hacen falta locks: quien ve el índice
+ * nuevo ve también los bytes escritos antes.
+ * <p>
+ * Cada registro es un {@code int} con su longitud seguido del paquete en {@link CodecPaquete},
+ * alineado a 8 bytes. Si un registro no cabe antes del final, se marca el resto con longitud
+ * -1 y se escribe al principio. Si la cola está llena, el paquete se descarta, como un
+ * datagrama perdido: el protocolo lo retransmitirá.
+ * <p>
+ * Un hilo propio sondea la cola de entrada (girando un momento y luego durmiendo unos
+ * microsegundos) y pasa cada tramo nuevo al {@link PlanificadorTiempoReal}, que entrega los
+ * paquetes y sólo entonces libera su espacio: los payloads apuntan directamente a la cola.
+ */
+public class CanalMemoriaCompartida extends Canal implements Closeable {
+
+    /** Qué lado del canal es este proceso. */
+    public enum Extremo {
+        /** Escribe datos y lee ACKs. */
+        EMISOR,
+        /** Escribe ACKs y lee datos. */
+        RECEPTOR
+    }
+
+    /** Bytes de cada cola si no se indican. */
+    public static final int CAPACIDAD_PREDETERMINADA = 4 << 20;
+
+    private static final int MAGIA = 0x54454C43; // "TELC"
+    private static final int TAMANO_LINEA = 64;
+    /** Cabecera del archivo: magia y capacidad. */
+    private static final int TAMANO_CABECERA = TAMANO_LINEA;
+    /** Índices de una cola: {@code cola} y {@code cabeza}, cada uno en su línea. */
+    private static final int TAMANO_INDICES = 2 * TAMANO_LINEA;
+    private static final int DESPLAZAMIENTO_COLA = 0;
+    private static final int DESPLAZAMIENTO_CABEZA = TAMANO_LINEA;
+    /** Longitud que marca el salto al principio de la cola. */
+    private static final int SALTO = -1;
+    private static final int GIROS_ANTES_DE_DORMIR = 10_000;
+    private static final long ESPERA_NANOS = 20_000;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final MappedByteBuffer memoria;
+    private final int capacidad;
+    private final long mascara;
+    /** Inicio (índices) de la cola en la que escribe este extremo. */
+    private final int salida;
+    /** Inicio (índices) de la cola que lee este extremo. */
+    private final int entrada;
+    /** Se arranca en {@link #abrir}, cuando el canal ya está construido. */
+    private Thread hiloSondeo;
+    private volatile boolean cerrado = false;
+
+    // --- Estadísticas (del hilo del planificador) ---
+    private long paquetesEnviados = 0;
+    private long paquetesDescartados = 0;
+    private long paquetesRecibidos = 0;
+
+    public static CanalMemoriaCompartida abrir(int frecuencia, PlanificadorTiempoReal planificador, Path archivo,
+                                               Extremo extremo) throws IOException {
+        return abrir(frecuencia, planificador, archivo, extremo, CAPACIDAD_PREDETERMINADA);
+    }
+
+    /**
+     * Abre el archivo compartido, creándolo si no existe. Ambos extremos deben usar la misma
+     * capacidad, y conviene que el archivo sea nuevo en cada sesión: si no, el primer extremo
+     * en llegar recibe lo que hubiera quedado en su cola.
+     * Después arranca el hilo que sondea la cola de entrada.
+     * @param capacidad Bytes de cada cola (se redondea a potencia de 2).
+     */
+    public static CanalMemoriaCompartida abrir(int frecuencia, PlanificadorTiempoReal planificador, Path archivo,
+                                               Extremo extremo, int capacidad) throws IOException {
+        CanalMemoriaCompartida canal = new CanalMemoriaCompartida(frecuencia, planificador, archivo, extremo, capacidad);
+        canal.hiloSondeo = Thread.ofPlatform()
+                .daemon()
+                .name("CanalMemoriaCompartida-" + extremo)
+                .start(canal::sondear);
+        return canal;
+    }
+
+    private CanalMemoriaCompartida(int frecuencia, PlanificadorTiempoReal planificador, Path archivo,
+                                   Extremo extremo, int capacidad) throws IOException {
+        super(frecuencia, planificador);
+        if (capacidad < 4096 || capacidad > 1 << 30) {
+            throw new IllegalArgumentException("Capacidad de cola inválida: " + capacidad);
+        }
+        this.capacidad = Integer.highestOneBit(capacidad - 1) << 1;
+        this.mascara = this.capacidad - 1;
+        long tamano = TAMANO_CABECERA + 2L * (TAMANO_INDICES + this.capacidad);
+
+        try (FileChannel archivoCanal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // La proyección sigue siendo válida después de cerrar el FileChannel
+            this.memoria = archivoCanal.map(FileChannel.MapMode.READ_WRITE, 0, tamano);
+        }
+        memoria.order(ByteOrder.nativeOrder());
+        if (memoria.getInt(0) == 0) {
+            memoria.putInt(4, this.capacidad);
+            memoria.putInt(0, MAGIA);
+        } else if (memoria.getInt(0) != MAGIA || memoria.getInt(4) != this.capacidad) {
+            throw new IOException("El archivo " + archivo + " no es un canal con colas de " + this.capacidad + " bytes");
+        }
+
+        int colaDatos = TAMANO_CABECERA;
+        int colaAcks = TAMANO_CABECERA + TAMANO_INDICES + this.capacidad;
+        this.salida = extremo == Extremo.EMISOR ? colaDatos : colaAcks;
+        this.entrada = extremo == Extremo.EMISOR ? colaAcks : colaDatos;
+    }
+
+    /**
+     * Publica el paquete en la cola de salida. Debe llamarse desde el hilo del planificador.
+     * @return Siempre true; si la cola estaba llena el paquete se pierde.
+     */
+    @Override
+    public boolean enviarPaquete(Packet paquete) {
+        int longitud = CodecPaquete.tamanoCodificado(paquete);
+        int registro = alinear(Integer.BYTES + longitud);
+        if (registro > capacidad / 2) {
+            throw new IllegalArgumentException("El paquete " + paquete.getSequenceNumber() + " ocupa " + longitud
+                    + " bytes; la cola admite hasta " + (capacidad / 2 - Integer.BYTES));
+        }
+
+        long cola = (long) LONG.get(memoria, salida + DESPLAZAMIENTO_COLA); // Sólo la escribe este hilo
+        long cabeza = (long) LONG.getAcquire(memoria, salida + DESPLAZAMIENTO_CABEZA);
+        int posicion = (int) (cola & mascara);
+        int hastaElFinal = capacidad - posicion;
+        int necesario = registro <= hastaElFinal ? registro : hastaElFinal + registro;
+        getMetricas().registrarAdmitido();
+        if (cola + necesario - cabeza > capacidad) {
+            paquetesDescartados++;
+            getMetricas().registrarPerdido();
+            return true;
+        }
+
+        int datos = salida + TAMANO_INDICES;
+        if (registro > hastaElFinal) {
+            memoria.putInt(datos + posicion, SALTO);
+            cola += hastaElFinal;
+            posicion = 0;
+        }
+        memoria.putInt(datos + posicion, longitud);
+        CodecPaquete.codificar(paquete, memoria.slice(datos + posicion + Integer.BYTES, longitud));
+        LONG.setRelease(memoria, salida + DESPLAZAMIENTO_COLA, cola + registro);
+        paquetesEnviados++;
+        return true;
+    }
+
+    /**
+     * Bucle del hilo de sondeo: pasa al planificador cada tramo recién publicado.
+     */
+    private void sondear() {
+        long visto = (long) LONG.getAcquire(memoria, entrada + DESPLAZAMIENTO_CABEZA);
+        int giros = 0;
+        while (!cerrado) {
+            long cola = (long) LONG.getAcquire(memoria, entrada + DESPLAZAMIENTO_COLA);
+            if (cola != visto) {
+                long desde = visto;
+                getPlanificador().programar(0, () -> entregar(desde, cola));
+                visto = cola;
+                giros = 0;
+            } else if (giros < GIROS_ANTES_DE_DORMIR) {
+                giros++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(ESPERA_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Entrega los registros entre {@code desde} y {@code hasta} y libera su espacio.
+     */
+    private void entregar(long desde, long hasta) {
+        int datos = entrada + TAMANO_INDICES;
+        long indice = desde;
+        try {
+            while (indice < hasta) {
+                int posicion = (int) (indice & mascara);
+                int longitud = memoria.getInt(datos + posicion);
+                if (longitud == SALTO) {
+                    indice += capacidad - posicion;
+                    continue;
+                }
+                Packet paquete = CodecPaquete.decodificar(memoria.slice(datos + posicion + Integer.BYTES, longitud));
+                paquetesRecibidos++;
+                entregarDirecto(paquete);
+                indice += alinear(Integer.BYTES + longitud);
+            }
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            Bitacora.aviso("CANAL {}: Registro mal formado en la cola. {}", getFrecuencia(), e.getMessage());
+        }
+        // Procesados (o descartados): el productor ya puede reutilizar su espacio
+        LONG.setRelease(memoria, entrada + DESPLAZAMIENTO_CABEZA, hasta);
+    }
+
+    private static int alinear(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    /**
+     * Detiene el hilo de sondeo. El archivo queda en disco (o en {@code /dev/shm}).
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        try {
+            hiloSondeo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getPaquetesEnviados() { return paquetesEnviados; }
+    /** @return Paquetes perdidos porque la cola de salida estaba llena. */
+    public long getPaquetesDescartados() { return paquetesDescartados; }
+    public long getPaquetesRecibidos() { return paquetesRecibidos; }
+}
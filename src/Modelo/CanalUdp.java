@@ -0,0 +1,194 @@
+package Modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Canal que lleva los paquetes por UDP ({@link DatagramChannel}) en lugar de simularlos, para
+ * que Emisor y Receptor corran en JVMs distintas. No inventa pérdidas, retardos ni ruido: los
+ * que haya son los de la red. Cada extremo crea el suyo, con las direcciones cruzadas, y conecta
+ * sólo su protocolo.
+ * <p>
+ * Los paquetes se codifican con {@link CodecPaquete} en buffers directos de un {@link PoolBuffers}.
+ * Los que se envían durante un mismo evento (p. ej. toda una ventana) se juntan en un datagrama,
+ * mientras quepan, y salen con una sola llamada al sistema cuando el evento termina.
+ * <p>
+ * Un hilo propio lee los datagramas y los pasa al hilo del {@link PlanificadorTiempoReal}, que
+ * es el único que toca el protocolo. Los paquetes entregados apuntan al buffer del datagrama, que
+ * se recicla en cuanto el protocolo los procesa: el Receptor copia lo que necesita guardar.
+ */
+public class CanalUdp extends Canal implements Closeable {
+    /** El mayor payload UDP sobre IPv4. En una red real conviene no pasar del MTU (1472). */
+    public static final int TAMANO_MAXIMO_DATAGRAMA = 65_507;
+    private static final int BUFFERS_EN_POOL = 64;
+
+    private final DatagramChannel canal;
+    private final PoolBuffers pool;
+    /** Se arranca en {@link #abrir}, cuando el canal ya está construido. */
+    private Thread hiloRecepcion;
+    private volatile boolean cerrado = false;
+
+    /** Datagrama que se está armando; sólo lo toca el hilo del planificador. */
+    private ByteBuffer lote;
+    private boolean vaciadoProgramado = false;
+
+    // --- Estadísticas (del hilo del planificador) ---
+    private long paquetesEnviados = 0;
+    private long datagramasEnviados = 0;
+    private long bytesEnviados = 0;
+    private long paquetesRecibidos = 0;
+    private long datagramasRecibidos = 0;
+
+    public static CanalUdp abrir(int frecuencia, PlanificadorTiempoReal planificador,
+                                 InetSocketAddress local, InetSocketAddress remoto) throws IOException {
+        return abrir(frecuencia, planificador, local, remoto, TAMANO_MAXIMO_DATAGRAMA);
+    }
+
+    /**
+     * Abre el socket y arranca el hilo de recepción.
+     * @param local Dirección en la que se escucha.
+     * @param remoto Dirección del otro extremo; sólo se aceptan datagramas suyos.
+     * @param tamanoDatagrama Máximo de bytes por datagrama; cada paquete codificado debe caber.
+     */
+    public static CanalUdp abrir(int frecuencia, PlanificadorTiempoReal planificador, InetSocketAddress local,
+                                 InetSocketAddress remoto, int tamanoDatagrama) throws IOException {
+        CanalUdp canal = new CanalUdp(frecuencia, planificador, local, remoto, tamanoDatagrama);
+        canal.hiloRecepcion = Thread.ofPlatform()
+                .daemon()
+                .name("CanalUdp-" + local.getPort())
+                .start(canal::recibirDatagramas);
+        return canal;
+    }
+
+    private CanalUdp(int frecuencia, PlanificadorTiempoReal planificador, InetSocketAddress local,
+                     InetSocketAddress remoto, int tamanoDatagrama) throws IOException {
+        super(frecuencia, planificador);
+        if (tamanoDatagrama <= CodecPaquete.TAMANO_MAXIMO_CABECERA || tamanoDatagrama > TAMANO_MAXIMO_DATAGRAMA) {
+            throw new IllegalArgumentException("Tamaño de datagrama inválido: " + tamanoDatagrama);
+        }
+        this.pool = new PoolBuffers(tamanoDatagrama, BUFFERS_EN_POOL);
+        this.canal = DatagramChannel.open();
+        try {
+            canal.bind(local);
+            canal.connect(remoto);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Encola el paquete en el datagrama en armado. Debe llamarse desde el hilo del planificador.
+     * @return Siempre true: como en UDP, no se sabe si alguien escucha al otro lado.
+     */
+    @Override
+    public boolean enviarPaquete(Packet paquete) {
+        int tamano = CodecPaquete.tamanoCodificado(paquete);
+        if (tamano > pool.getCapacidad()) {
+            throw new IllegalArgumentException("El paquete " + paquete.getSequenceNumber() + " ocupa " + tamano
+                    + " bytes y el datagrama admite " + pool.getCapacidad() + "; use un payload menor");
+        }
+        if (lote != null && lote.remaining() < tamano) {
+            vaciarLote();
+        }
+        if (lote == null) {
+            lote = pool.tomar();
+        }
+        CodecPaquete.codificar(paquete, lote);
+        paquetesEnviados++;
+        getMetricas().registrarAdmitido();
+
+        if (!vaciadoProgramado) {
+            // Sale al terminar el evento actual, junto con lo que éste envíe después
+            vaciadoProgramado = true;
+            getPlanificador().programar(0, () -> {
+                vaciadoProgramado = false;
+                vaciarLote();
+            });
+        }
+        return true;
+    }
+
+    private void vaciarLote() {
+        if (lote == null) return;
+        lote.flip();
+        try {
+            bytesEnviados += canal.write(lote);
+            datagramasEnviados++;
+        } catch (PortUnreachableException e) {
+            // Nadie escucha todavía: para el protocolo es un datagrama perdido
+        } catch (IOException e) {
+            if (!cerrado) {
+                Bitacora.aviso("CANAL {}: Error al enviar un datagrama: {}", getFrecuencia(), e.getMessage());
+            }
+        }
+        pool.devolver(lote);
+        lote = null;
+    }
+
+    /**
+     * Bucle del hilo de recepción: lee datagramas y los pasa al planificador.
+     */
+    private void recibirDatagramas() {
+        while (!cerrado) {
+            ByteBuffer datagrama = pool.tomar();
+            try {
+                canal.read(datagrama);
+            } catch (PortUnreachableException e) {
+                pool.devolver(datagrama);
+                continue;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                pool.devolver(datagrama);
+                if (cerrado) return;
+                Bitacora.aviso("CANAL {}: Error al recibir un datagrama: {}", getFrecuencia(), e.getMessage());
+                continue;
+            }
+            datagrama.flip();
+            getPlanificador().programar(0, () -> entregarDatagrama(datagrama));
+        }
+    }
+
+    private void entregarDatagrama(ByteBuffer datagrama) {
+        datagramasRecibidos++;
+        try {
+            while (datagrama.hasRemaining()) {
+                Packet paquete = CodecPaquete.decodificar(datagrama);
+                paquetesRecibidos++;
+                entregarDirecto(paquete);
+            }
+        } catch (IllegalArgumentException e) {
+            // Lo que quede del datagrama no se puede delimitar: se descarta, como un paquete perdido
+            Bitacora.aviso("CANAL {}: Datagrama descartado. {}", getFrecuencia(), e.getMessage());
+        } finally {
+            pool.devolver(datagrama);
+        }
+    }
+
+    /**
+     * Cierra el socket y termina el hilo de recepción. Lo que quedara sin enviar se pierde.
+     */
+    @Override
+    public void close() throws IOException {
+        cerrado = true;
+        canal.close();
+        try {
+            hiloRecepcion.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getPaquetesEnviados() { return paquetesEnviados; }
+    /** @return Llamadas al sistema de envío; con {@link #getPaquetesEnviados()} da el tamaño medio del lote. */
+    public long getDatagramasEnviados() { return datagramasEnviados; }
+    public long getBytesEnviados() { return bytesEnviados; }
+    public long getPaquetesRecibidos() { return paquetesRecibidos; }
+    public long getDatagramasRecibidos() { return datagramasRecibidos; }
+}
@@ -0,0 +1,92 @@
+package Modelo;
+
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Canal en tiempo real cuyo Emisor y Receptor corren cada uno en su propio hilo virtual, con un
+ * {@link BuzonVirtual} como bandeja de entrada. Simula lo mismo que {@link Canal} (pérdida,
+ * latencia, corrupción, con el mismo {@link ModeloCanal}), pero el retardo de cada paquete lo
+ * cumple la {@link java.util.concurrent.DelayQueue} del buzón de destino: nadie tiene que avanzar
+ * un reloj. Los timeouts de cada extremo vencen en su propio buzón.
+ * <p>
+ * Como los dos extremos envían desde hilos distintos, las decisiones del modelo y del azar se
+ * toman bajo un lock (un {@link ReentrantLock}, que no fija el hilo virtual a su portador). El
+ * resultado no es reproducible con una semilla, como en cualquier canal de tiempo real.
+ * El reparto justo entre flujos ({@link ModeloCanal#getRepartoDatos()}) sólo lo aplica
+ * {@link Canal}: aquí cada paquete va derecho al buzón de su destinatario.
+ */
+public class CanalVirtual extends Canal {
+    private final BuzonVirtual buzonEmisor;
+    private final BuzonVirtual buzonReceptor;
+    private final Random random;
+    /** Protege el modelo y el azar, que comparten los dos extremos. */
+    private final ReentrantLock decisiones = new ReentrantLock();
+
+    public CanalVirtual(int frecuencia, BuzonVirtual buzonEmisor, BuzonVirtual buzonReceptor) {
+        this(frecuencia, buzonEmisor, buzonReceptor, ModeloCanal.original(), new Random());
+    }
+
+    /**
+     * @param modelo Comportamiento del enlace; es de este canal y no debe compartirse.
+     */
+    public CanalVirtual(int frecuencia, BuzonVirtual buzonEmisor, BuzonVirtual buzonReceptor,
+                        ModeloCanal modelo, Random random) {
+        super(frecuencia, buzonEmisor, random, modelo);
+        this.buzonEmisor = buzonEmisor;
+        this.buzonReceptor = buzonReceptor;
+        this.random = random;
+    }
+
+    @Override
+    public Planificador getPlanificadorEmisor() {
+        return buzonEmisor;
+    }
+
+    @Override
+    public Planificador getPlanificadorReceptor() {
+        return buzonReceptor;
+    }
+
+    /**
+     * Decide en el acto qué le pasa al paquete y lo deja en el buzón de su destinatario: los
+     * datos en el del Receptor, los ACKs en el del Emisor. El destinatario lo recibe en su hilo.
+     */
+    @Override
+    public boolean enviarPaquete(Packet paquete) {
+        if (!destinatarioConectado(paquete)) {
+            return false;
+        }
+
+        final long espera;
+        final long duracionViaje;
+        final boolean seCorrompera;
+        final Packet entregado;
+        decisiones.lock();
+        try {
+            getMetricas().registrarAdmitido();
+            ModeloCanal modelo = getModelo();
+            espera = modelo.admitir(paquete, buzonEmisor.ahora(), random);
+            if (espera == ModeloCanal.PERDIDO) {
+                registrarPerdida(paquete);
+                return true;
+            }
+            seCorrompera = !paquete.isAck() && modelo.corromper(paquete, random);
+            if (seCorrompera) {
+                getMetricas().registrarCorrompido();
+                Bitacora.depuracion("CANAL {}: ¡PAQUETE {} CORRUPTO! (simulado)", getFrecuencia(), paquete.getSequenceNumber());
+            }
+            entregado = seCorrompera ? corromperPaquete(paquete) : paquete;
+            duracionViaje = modelo.duracionViaje(paquete);
+        } finally {
+            decisiones.unlock();
+        }
+
+        BuzonVirtual destino = paquete.isAck() ? buzonEmisor : buzonReceptor;
+        destino.programar(espera, () -> {
+            notificarEnViaje(paquete, seCorrompera, duracionViaje);
+            destino.programar(duracionViaje, () -> entregarDirecto(entregado));
+        });
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package Modelo;
+
+/**
+ * Cifrado César sobre los caracteres ASCII imprimibles (del 32 al 126).
+ * Los demás caracteres (acentos, relleno nulo...) se dejan intactos.
+ */
+public final class Cesar {
+    private static final int ASCII_INICIO = 32;
+    private static final int ASCII_FINAL = 126;
+    private static final int RANGO = ASCII_FINAL - ASCII_INICIO + 1; // 95 caracteres
+
+    private Cesar() {}
+
+    /**
+     * Cifra un texto usando el Cifrado César.
+     */
+    public static String cifrar(String texto, int desplazamiento) {
+        StringBuilder textoCifrado = new StringBuilder(texto.length());
+
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= ASCII_INICIO && c <= ASCII_FINAL) {
+                int indiceActual = c - ASCII_INICIO;
+                int indiceNuevo = (indiceActual + desplazamiento % RANGO + RANGO) % RANGO;
+                textoCifrado.append((char) (ASCII_INICIO + indiceNuevo));
+            } else {
+                textoCifrado.append(c);
+            }
+        }
+        return textoCifrado.toString();
+    }
+
+    /**
+     * Descifra un texto César. Descifrar es lo mismo que cifrar con la clave opuesta.
+     */
+    public static String descifrar(String textoCifrado, int desplazamiento) {
+        return cifrar(textoCifrado, -desplazamiento);
+    }
+}
@@ -0,0 +1,145 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Algoritmos de checksum incluidos.
+ * Todos verifican paquetes corrompidos aplicando las inversiones de bit al vuelo,
+ * sin copiar el payload.
+ */
+public enum Checksums implements AlgoritmoChecksum {
+
+    /**
+     * CRC-32C (Castagnoli). La JVM lo acelera con instrucciones de hardware (SSE4.2 / ARMv8),
+     * detecta todos los errores de 1, 2 y 3 bits y los intercambios de bytes.
+     */
+    CRC32C {
+        @Override
+        public int calcular(ByteBuffer datos) {
+            CRC32C crc = new CRC32C();
+            crc.update(datos.duplicate()); // duplicate(): no toca la posición del llamador
+            return (int) crc.getValue();
+        }
+
+        @Override
+        public int calcular(ByteBuffer datos, int[] bitsInvertidos) {
+            return calcularPorTramos(new CRC32C(), datos, bitsInvertidos);
+        }
+    },
+
+    /** Adler-32 de {@code java.util.zip}; más barato que CRC32C sin aceleración. */
+    ADLER32 {
+        @Override
+        public int calcular(ByteBuffer datos) {
+            Adler32 adler = new Adler32();
+            adler.update(datos.duplicate());
+            return (int) adler.getValue();
+        }
+
+        @Override
+        public int calcular(ByteBuffer datos, int[] bitsInvertidos) {
+            return calcularPorTramos(new Adler32(), datos, bitsInvertidos);
+        }
+    },
+
+    /**
+     * Fletcher-32 (variante por bytes) en Java puro. Para payloads diminutos (unas decenas
+     * de bytes) evita la llamada nativa de los otros algoritmos y sigue detectando bytes
+     * intercambiados, cosa que la suma simple no hace.
+     */
+    FLETCHER32 {
+        @Override
+        public int calcular(ByteBuffer datos) {
+            return calcular(datos, SIN_INVERSIONES);
+        }
+
+        @Override
+        public int calcular(ByteBuffer datos, int[] bitsInvertidos) {
+            int suma1 = 0xFFFF;
+            int suma2 = 0xFFFF;
+            int inicio = datos.position();
+            int limite = datos.limit();
+            int siguiente = 0;
+            int i = inicio;
+            while (i < limite) {
+                // Se reduce cada 2048 bytes, mucho antes de que suma2 pueda desbordar un int
+                int fin = Math.min(limite, i + 2048);
+                for (; i < fin; i++) {
+                    int b = datos.get(i) & 0xFF;
+                    while (siguiente < bitsInvertidos.length && (bitsInvertidos[siguiente] >>> 3) == i - inicio) {
+                        b ^= 1 << (bitsInvertidos[siguiente++] & 7);
+                    }
+                    suma1 += b;
+                    suma2 += suma1;
+                }
+                suma1 = (suma1 & 0xFFFF) + (suma1 >>> 16);
+                suma2 = (suma2 & 0xFFFF) + (suma2 >>> 16);
+            }
+            suma1 = (suma1 & 0xFFFF) + (suma1 >>> 16);
+            suma2 = (suma2 & 0xFFFF) + (suma2 >>> 16);
+            return (suma2 << 16) | suma1;
+        }
+    },
+
+    /**
+     * La suma de bytes original. Sólo se conserva para comparar:
+     * no detecta bytes intercambiados ni muchos errores dobles.
+     */
+    SUMA {
+        @Override
+        public int calcular(ByteBuffer datos) {
+            int sum = 0;
+            for (int i = datos.position(); i < datos.limit(); i++) {
+                sum += datos.get(i);
+            }
+            return sum;
+        }
+
+        @Override
+        public int calcular(ByteBuffer datos, int[] bitsInvertidos) {
+            int sum = calcular(datos);
+            // Cada inversión sólo cambia el valor de su byte: se corrige la suma byte a byte
+            int i = 0;
+            while (i < bitsInvertidos.length) {
+                int indice = bitsInvertidos[i] >>> 3;
+                int mascara = 0;
+                while (i < bitsInvertidos.length && (bitsInvertidos[i] >>> 3) == indice) {
+                    mascara ^= 1 << (bitsInvertidos[i++] & 7);
+                }
+                byte original = datos.get(datos.position() + indice);
+                sum += (byte) (original ^ mascara) - original;
+            }
+            return sum;
+        }
+    };
+
+    private static final int[] SIN_INVERSIONES = new int[0];
+
+    /**
+     * Alimenta {@code checksum} con los tramos intactos del buffer y, entre ellos,
+     * con cada byte afectado ya invertido.
+     */
+    private static int calcularPorTramos(Checksum checksum, ByteBuffer datos, int[] bitsInvertidos) {
+        ByteBuffer tramo = datos.duplicate();
+        int inicio = datos.position();
+        int cursor = inicio;
+        int i = 0;
+        while (i < bitsInvertidos.length) {
+            int indice = inicio + (bitsInvertidos[i] >>> 3);
+            int mascara = 0;
+            while (i < bitsInvertidos.length && inicio + (bitsInvertidos[i] >>> 3) == indice) {
+                mascara ^= 1 << (bitsInvertidos[i++] & 7);
+            }
+            tramo.limit(indice).position(cursor);
+            checksum.update(tramo);
+            checksum.update(datos.get(indice) ^ mascara);
+            cursor = indice + 1;
+        }
+        tramo.limit(datos.limit()).position(cursor);
+        checksum.update(tramo);
+        return (int) checksum.getValue();
+    }
+}
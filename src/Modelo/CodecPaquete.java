@@ -0,0 +1,190 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Forma binaria de un {@link Packet}, para mandarlo fuera del proceso (p. ej. por {@link CanalUdp}).
+ * <pre>
+ *   flags    1 byte   bit 0: ACK, bit 1: HEADER, bit 2: lleva relleno, bit 3: lleva flujo,
+ *                     bits 4-5: algoritmo de checksum (ordinal de {@link Checksums}), bit 6: lleva trama
+ *   seq      varint   con zigzag, porque el HEADER y el primer ACK usan -1
+ *   flujo    varint   sólo si el flag lo indica (el flujo 0 no ocupa nada)
+ *   trama    varint   sólo si el flag lo indica (la trama 0 tampoco)
+ *   longitud varint   bytes del payload, o palabras de 64 bits del SACK en un ACK
+ *   relleno  varint   sólo si el flag lo indica
+ *   checksum 4 bytes  el original del emisor, tal cual: el receptor detecta el ruido
+ *   payload           los bytes reales, o el mapa SACK en un ACK
+ * </pre>
+ * Varios paquetes pueden ir seguidos en un mismo buffer: cada uno dice cuánto mide.
+ * Ni codificar ni decodificar copian el payload a un arreglo intermedio.
+ */
+public final class CodecPaquete {
+    private static final int FLAG_ACK = 1;
+    private static final int FLAG_HEADER = 1 << 1;
+    private static final int FLAG_RELLENO = 1 << 2;
+    private static final int FLAG_FLUJO = 1 << 3;
+    private static final int DESPLAZAMIENTO_ALGORITMO = 4;
+    private static final int MASCARA_ALGORITMO = 0b11;
+    private static final int FLAG_TRAMA = 1 << 6;
+
+    /**
+     * Se inicializa la interfaz antes que la enumeración: si {@link Checksums} se inicializara
+     * primero (p. ej. porque el primer paquete del proceso llega por la red), al inicializar su
+     * interfaz {@link AlgoritmoChecksum#PREDETERMINADO} quedaría en null.
+     */
+    private static final AlgoritmoChecksum PREDETERMINADO = AlgoritmoChecksum.PREDETERMINADO;
+    private static final Checksums[] ALGORITMOS = Checksums.values();
+
+    /** Bytes de un paquete codificado que no son payload, en el peor caso. */
+    public static final int TAMANO_MAXIMO_CABECERA = 1 + 5 + 3 + 5 + 5 + 5 + 4;
+
+    private CodecPaquete() {
+    }
+
+    /**
+     * @return Cuántos bytes ocupa {@code paquete} codificado.
+     */
+    public static int tamanoCodificado(Packet paquete) {
+        int longitud = longitudCampo(paquete);
+        int tamano = 1 + tamanoVarint(zigzag(paquete.getSequenceNumber())) + tamanoVarint(longitud) + 4;
+        if (paquete.getRelleno() > 0) {
+            tamano += tamanoVarint(paquete.getRelleno());
+        }
+        if (paquete.getFlujo() != 0) {
+            tamano += tamanoVarint(paquete.getFlujo());
+        }
+        if (paquete.getTrama() != 0) {
+            tamano += tamanoVarint(paquete.getTrama());
+        }
+        return tamano + (paquete.isAck() ? longitud * Long.BYTES : longitud);
+    }
+
+    /**
+     * Escribe {@code paquete} en {@code destino} a partir de su posición, y la avanza.
+     * @throws IllegalArgumentException Si no cabe o si su checksum no es uno de {@link Checksums}.
+     */
+    public static void codificar(Packet paquete, ByteBuffer destino) {
+        int tamano = tamanoCodificado(paquete);
+        if (destino.remaining() < tamano) {
+            throw new IllegalArgumentException("El paquete " + paquete.getSequenceNumber() + " ocupa "
+                    + tamano + " bytes y sólo quedan " + destino.remaining());
+        }
+        if (!(paquete.getAlgoritmoChecksum() instanceof Checksums algoritmo)) {
+            throw new IllegalArgumentException("Checksum sin forma binaria: " + paquete.getAlgoritmoChecksum());
+        }
+
+        int flags = algoritmo.ordinal() << DESPLAZAMIENTO_ALGORITMO;
+        if (paquete.isAck()) flags |= FLAG_ACK;
+        if (paquete.isHeader()) flags |= FLAG_HEADER;
+        if (paquete.getRelleno() > 0) flags |= FLAG_RELLENO;
+        if (paquete.getFlujo() != 0) flags |= FLAG_FLUJO;
+        if (paquete.getTrama() != 0) flags |= FLAG_TRAMA;
+
+        destino.put((byte) flags);
+        escribirVarint(destino, zigzag(paquete.getSequenceNumber()));
+        if (paquete.getFlujo() != 0) {
+            escribirVarint(destino, paquete.getFlujo());
+        }
+        if (paquete.getTrama() != 0) {
+            escribirVarint(destino, paquete.getTrama());
+        }
+        escribirVarint(destino, longitudCampo(paquete));
+        if (paquete.getRelleno() > 0) {
+            escribirVarint(destino, paquete.getRelleno());
+        }
+        destino.putInt(paquete.getChecksum());
+        if (paquete.isAck()) {
+            for (long palabra : paquete.getSack()) {
+                destino.putLong(palabra);
+            }
+        } else {
+            paquete.escribirPayload(destino);
+        }
+    }
+
+    /**
+     * Lee un paquete de {@code origen} a partir de su posición, y la avanza hasta el siguiente.
+     * <p>
+     * El payload del paquete es una vista de sólo lectura sobre {@code origen}, no una copia:
+     * mientras se use el paquete, el buffer no debe reutilizarse.
+     * @throws IllegalArgumentException Si los bytes no forman un paquete completo.
+     */
+    public static Packet decodificar(ByteBuffer origen) {
+        if (!origen.hasRemaining()) {
+            throw new IllegalArgumentException("Paquete mal formado: buffer vacío");
+        }
+        int flags = origen.get() & 0xFF;
+        int seq = dezigzag(leerVarint(origen));
+        int flujo = (flags & FLAG_FLUJO) != 0 ? leerVarint(origen) : 0;
+        int trama = (flags & FLAG_TRAMA) != 0 ? leerVarint(origen) : 0;
+        int longitud = leerVarint(origen);
+        int relleno = (flags & FLAG_RELLENO) != 0 ? leerVarint(origen) : 0;
+        if (origen.remaining() < 4) {
+            throw new IllegalArgumentException("Paquete mal formado: falta el checksum");
+        }
+        int checksum = origen.getInt();
+        AlgoritmoChecksum algoritmo = ALGORITMOS[(flags >>> DESPLAZAMIENTO_ALGORITMO) & MASCARA_ALGORITMO];
+        boolean ack = (flags & FLAG_ACK) != 0;
+
+        long bytes = ack ? (long) longitud * Long.BYTES : longitud;
+        if (flujo < 0 || flujo > Packet.MAXIMO_FLUJO) {
+            throw new IllegalArgumentException("Paquete mal formado: flujo " + flujo);
+        }
+        if (longitud < 0 || relleno < 0 || origen.remaining() < bytes) {
+            throw new IllegalArgumentException("Paquete mal formado: anuncia " + bytes
+                    + " bytes y quedan " + origen.remaining());
+        }
+        if (ack) {
+            long[] sack = longitud == 0 ? Packet.SIN_SACK : new long[longitud];
+            for (int i = 0; i < longitud; i++) {
+                sack[i] = origen.getLong();
+            }
+            return new Packet(flujo, trama, seq, true, false, null, 0, sack, checksum, algoritmo);
+        }
+        ByteBuffer payload = origen.slice(origen.position(), longitud).asReadOnlyBuffer();
+        origen.position(origen.position() + longitud);
+        return new Packet(flujo, trama, seq, false, (flags & FLAG_HEADER) != 0, payload, relleno, Packet.SIN_SACK, checksum, algoritmo);
+    }
+
+    private static int longitudCampo(Packet paquete) {
+        return paquete.isAck() ? paquete.getSack().length : paquete.getLongitudSinRelleno();
+    }
+
+    // --- Varints (LEB128 sin signo, 7 bits por byte) ---
+
+    private static int zigzag(int valor) {
+        return (valor << 1) ^ (valor >> 31);
+    }
+
+    private static int dezigzag(int valor) {
+        return (valor >>> 1) ^ -(valor & 1);
+    }
+
+    private static int tamanoVarint(int valor) {
+        // 1 byte por cada 7 bits significativos; 0 ocupa uno
+        return (31 - Integer.numberOfLeadingZeros(valor | 1)) / 7 + 1;
+    }
+
+    private static void escribirVarint(ByteBuffer destino, int valor) {
+        while ((valor & ~0x7F) != 0) {
+            destino.put((byte) ((valor & 0x7F) | 0x80));
+            valor >>>= 7;
+        }
+        destino.put((byte) valor);
+    }
+
+    private static int leerVarint(ByteBuffer origen) {
+        int valor = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            if (!origen.hasRemaining()) {
+                throw new IllegalArgumentException("Paquete mal formado: varint incompleto");
+            }
+            int b = origen.get();
+            valor |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("Paquete mal formado: varint demasiado largo");
+    }
+}
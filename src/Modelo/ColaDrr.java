@@ -0,0 +1,168 @@
+package Modelo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Cuello de botella que reparte la capacidad entre los flujos de un canal con Deficit Round
+ * Robin (Shreedhar y Varghese, 1995). Cada flujo tiene su propia cola finita; el transmisor las
+ * recorre por turnos y en cada turno le da a un flujo {@code cuantoBytes} más de crédito, del que
+ * gasta lo que ocupan los paquetes que envía. Así un flujo con ventana grande no le quita el
+ * enlace a los demás: a la larga, todos los flujos con datos pendientes sacan los mismos bytes.
+ * <p>
+ * A diferencia de {@link ColaEnlace}, aquí sí se guardan los paquetes: en qué orden salen depende
+ * de lo que llegue después. El {@link Canal} pide el {@link #siguiente()} cada vez que el
+ * transmisor queda libre. No es thread-safe: se usa desde el hilo del planificador.
+ */
+public class ColaDrr {
+
+    /** Estado de un flujo en el planificador. */
+    private static final class Flujo {
+        final ArrayDeque<Packet> cola = new ArrayDeque<>();
+        long bytesEnCola = 0;
+        /** Crédito que le queda en su turno. */
+        long deficit = 0;
+        boolean activo = false;
+
+        // --- Estadísticas ---
+        long bytesServidos = 0;
+        long descartados = 0;
+    }
+
+    private final long bitsPorSegundo;
+    private final long capacidadBytesPorFlujo;
+    private final int cuantoBytes;
+
+    /** Por identificador de flujo; crece con el mayor que se haya visto. */
+    private Flujo[] flujos = new Flujo[1];
+    /** Flujos con paquetes esperando, en el orden de la ronda. */
+    private final ArrayDeque<Flujo> activos = new ArrayDeque<>();
+    /**
+     * Si el transmisor de esta cola está sacando un paquete. Va con la cola y no con quien la usa:
+     * si el canal cambia de modelo y luego vuelve a éste, su transmisor sigue siendo uno solo.
+     */
+    private boolean ocupada = false;
+
+    /**
+     * @param capacidadBytesPorFlujo Bytes que caben en la cola de cada flujo.
+     * @param cuantoBytes Crédito por turno; con al menos un paquete máximo, cada turno envía algo.
+     */
+    public ColaDrr(long bitsPorSegundo, long capacidadBytesPorFlujo, int cuantoBytes) {
+        if (bitsPorSegundo <= 0 || capacidadBytesPorFlujo < 0 || cuantoBytes <= 0) {
+            throw new IllegalArgumentException("Reparto inválido: " + bitsPorSegundo + " bps, cola de "
+                    + capacidadBytesPorFlujo + " bytes por flujo, cuanto de " + cuantoBytes);
+        }
+        this.bitsPorSegundo = bitsPorSegundo;
+        this.capacidadBytesPorFlujo = capacidadBytesPorFlujo;
+        this.cuantoBytes = cuantoBytes;
+    }
+
+    /**
+     * Un paquete llega a la cola de su flujo.
+     * @return false si la cola del flujo está llena y se descarta.
+     */
+    public boolean encolar(Packet paquete) {
+        Flujo flujo = flujo(paquete.getFlujo());
+        int bytes = CodecPaquete.tamanoCodificado(paquete);
+        if (flujo.bytesEnCola > 0 && flujo.bytesEnCola + bytes > capacidadBytesPorFlujo) {
+            flujo.descartados++;
+            return false;
+        }
+        flujo.cola.addLast(paquete);
+        flujo.bytesEnCola += bytes;
+        if (!flujo.activo) {
+            flujo.activo = true;
+            flujo.deficit = cuantoBytes;
+            activos.addLast(flujo);
+        }
+        return true;
+    }
+
+    /**
+     * Saca el próximo paquete a transmitir según el turno.
+     * @return El paquete, o null si no hay ninguno esperando.
+     */
+    public Packet siguiente() {
+        while (!activos.isEmpty()) {
+            Flujo flujo = activos.peekFirst();
+            int bytes = CodecPaquete.tamanoCodificado(flujo.cola.peekFirst());
+            if (flujo.deficit < bytes) {
+                // No le alcanza en este turno: al final de la ronda, con un cuanto más
+                activos.pollFirst();
+                flujo.deficit += cuantoBytes;
+                activos.addLast(flujo);
+                continue;
+            }
+            Packet paquete = flujo.cola.pollFirst();
+            flujo.deficit -= bytes;
+            flujo.bytesEnCola -= bytes;
+            flujo.bytesServidos += bytes;
+            if (flujo.cola.isEmpty()) {
+                // Un flujo que se vacía no guarda crédito para después
+                activos.pollFirst();
+                flujo.activo = false;
+                flujo.deficit = 0;
+            }
+            return paquete;
+        }
+        return null;
+    }
+
+    /**
+     * Reserva el transmisor para empezar a sacar paquetes.
+     * @return false si ya estaba ocupado: quien lo tiene seguirá con lo que se encole.
+     */
+    public boolean ocupar() {
+        if (ocupada) return false;
+        ocupada = true;
+        return true;
+    }
+
+    /** El transmisor terminó: no queda nada que sacar. */
+    public void liberar() {
+        ocupada = false;
+    }
+
+    public boolean isOcupada() { return ocupada; }
+
+    /**
+     * @return Cuánto tarda en serializarse {@code paquete}.
+     */
+    public long serializacion(Packet paquete) {
+        return (CodecPaquete.tamanoCodificado(paquete) * 8L * 1_000_000_000L + bitsPorSegundo - 1) / bitsPorSegundo;
+    }
+
+    private Flujo flujo(int id) {
+        if (id >= flujos.length) {
+            flujos = Arrays.copyOf(flujos, Math.max(id + 1, flujos.length * 2));
+        }
+        Flujo flujo = flujos[id];
+        if (flujo == null) {
+            flujo = flujos[id] = new Flujo();
+        }
+        return flujo;
+    }
+
+    /**
+     * Descarta lo que haya en las colas. Si el transmisor estaba ocupado lo sigue estando hasta
+     * que termine el paquete en curso y no encuentre {@link #siguiente()}.
+     */
+    public void reiniciar() {
+        for (Flujo flujo : flujos) {
+            if (flujo == null) continue;
+            flujo.cola.clear();
+            flujo.bytesEnCola = 0;
+            flujo.deficit = 0;
+            flujo.activo = false;
+        }
+        activos.clear();
+    }
+
+    public long getBitsPorSegundo() { return bitsPorSegundo; }
+    public long getCapacidadBytesPorFlujo() { return capacidadBytesPorFlujo; }
+    public int getCuantoBytes() { return cuantoBytes; }
+    /** @return Bytes codificados que el flujo ya sacó por el enlace. */
+    public long getBytesServidos(int flujo) { return flujo < flujos.length && flujos[flujo] != null ? flujos[flujo].bytesServidos : 0; }
+    /** @return Paquetes del flujo descartados por tener su cola llena. */
+    public long getDescartados(int flujo) { return flujo < flujos.length && flujos[flujo] != null ? flujos[flujo].descartados : 0; }
+}
@@ -0,0 +1,139 @@
+package Modelo;
+
+import java.util.Random;
+
+/**
+ * Cuello de botella de un sentido del enlace: un transmisor de {@code bitsPorSegundo} con una
+ * cola FIFO finita delante. Cada paquete espera a que salgan los anteriores y luego tarda
+ * {@code 8 * bytes / bitsPorSegundo} en serializarse; si la cola no tiene sitio, se descarta.
+ * <p>
+ * La cola no guarda los paquetes: como es FIFO y el enlace no se detiene, basta con saber
+ * cuándo termina de salir lo ya encolado para conocer su ocupación en cualquier instante.
+ */
+public class ColaEnlace {
+
+    /** Qué hace la cola cuando se llena. */
+    public enum Descarte {
+        /** Descarta lo que no cabe (tail-drop). */
+        COLA,
+        /**
+         * Random Early Detection (Floyd y Jacobson, 1993): empieza a descartar al azar antes de
+         * llenarse, según la ocupación promedio, para avisar pronto a los emisores sin que la
+         * cola quede siempre llena.
+         */
+        RED
+    }
+
+    /** Peso de cada muestra en la ocupación promedio de RED. */
+    private static final double PESO_RED = 0.002;
+    /** Probabilidad de descarte de RED al llegar al umbral máximo. */
+    private static final double PROBABILIDAD_MAXIMA_RED = 0.1;
+
+    private final long bitsPorSegundo;
+    private final long capacidadBytes;
+    private final Descarte descarte;
+    private final double umbralMinimo;
+    private final double umbralMaximo;
+
+    /** Instante en que termina de serializarse lo que ya está en la cola. */
+    private long libreDesde = 0;
+    /** Ocupación promedio (bytes) para RED. */
+    private double promedio = 0;
+    /** Paquetes aceptados desde el último descarte de RED, o -1 por debajo del umbral. */
+    private int desdeUltimoDescarte = -1;
+
+    // --- Estadísticas ---
+    private long aceptados = 0;
+    private long descartados = 0;
+
+    /**
+     * @param capacidadBytes Bytes que caben en la cola, incluido lo que queda por serializar del
+     *                       paquete en curso. Con RED, los umbrales son un cuarto y tres cuartos de ella.
+     */
+    public ColaEnlace(long bitsPorSegundo, long capacidadBytes, Descarte descarte) {
+        if (bitsPorSegundo <= 0 || capacidadBytes < 0) {
+            throw new IllegalArgumentException("Enlace inválido: " + bitsPorSegundo + " bps, cola de " + capacidadBytes + " bytes");
+        }
+        this.bitsPorSegundo = bitsPorSegundo;
+        this.capacidadBytes = capacidadBytes;
+        this.descarte = descarte;
+        this.umbralMinimo = capacidadBytes / 4.0;
+        this.umbralMaximo = capacidadBytes * 3 / 4.0;
+    }
+
+    /**
+     * Un paquete de {@code bytes} llega a la cola en {@code ahora}.
+     * @return {@link ModeloCanal#PERDIDO} si se descarta, o cuánto falta para que termine de salir.
+     */
+    public long encolar(int bytes, long ahora, Random random) {
+        long ocupacion = ocupacion(ahora);
+        if (descarte == Descarte.RED && descartarTemprano(ocupacion, bytes, ahora, random)) {
+            descartados++;
+            return ModeloCanal.PERDIDO;
+        }
+        if (ocupacion > 0 && ocupacion + bytes > capacidadBytes) {
+            // Con el enlace libre el paquete pasa directo al transmisor, aunque sea más grande que la cola
+            descartados++;
+            return ModeloCanal.PERDIDO;
+        }
+        libreDesde = Math.max(ahora, libreDesde) + serializacion(bytes);
+        aceptados++;
+        return libreDesde - ahora;
+    }
+
+    /**
+     * @return Bytes que aún no terminan de salir en {@code ahora}.
+     */
+    public long ocupacion(long ahora) {
+        if (libreDesde <= ahora) return 0;
+        return (long) Math.ceil((libreDesde - ahora) * (double) bitsPorSegundo / 8e9);
+    }
+
+    /**
+     * @return Cuánto tarda en serializarse un paquete de {@code bytes}.
+     */
+    public long serializacion(int bytes) {
+        return (bytes * 8L * 1_000_000_000L + bitsPorSegundo - 1) / bitsPorSegundo;
+    }
+
+    private boolean descartarTemprano(long ocupacion, int bytes, long ahora, Random random) {
+        if (ocupacion == 0 && libreDesde < ahora) {
+            // Mientras estuvo vacía, el promedio decae como si hubieran pasado paquetes sin cola
+            double paquetesOciosos = (ahora - libreDesde) / (double) serializacion(bytes);
+            promedio *= Math.pow(1 - PESO_RED, paquetesOciosos);
+        } else {
+            promedio = (1 - PESO_RED) * promedio + PESO_RED * ocupacion;
+        }
+
+        if (promedio < umbralMinimo) {
+            desdeUltimoDescarte = -1;
+            return false;
+        }
+        if (promedio >= umbralMaximo) {
+            desdeUltimoDescarte = 0;
+            return true;
+        }
+        desdeUltimoDescarte++;
+        double pb = PROBABILIDAD_MAXIMA_RED * (promedio - umbralMinimo) / (umbralMaximo - umbralMinimo);
+        // Reparte los descartes de forma más uniforme que una probabilidad fija
+        double pa = desdeUltimoDescarte * pb >= 1 ? 1 : pb / (1 - desdeUltimoDescarte * pb);
+        if (random.nextDouble() < pa) {
+            desdeUltimoDescarte = 0;
+            return true;
+        }
+        return false;
+    }
+
+    /** Vacía la cola y olvida el promedio. */
+    public void reiniciar() {
+        libreDesde = 0;
+        promedio = 0;
+        desdeUltimoDescarte = -1;
+    }
+
+    public long getBitsPorSegundo() { return bitsPorSegundo; }
+    public long getCapacidadBytes() { return capacidadBytes; }
+    public Descarte getDescarte() { return descarte; }
+    public long getAceptados() { return aceptados; }
+    public long getDescartados() { return descartados; }
+}
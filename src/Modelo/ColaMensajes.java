@@ -0,0 +1,142 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Lo que envía una conexión persistente del {@link ProtocoloEmisor}: un HEADER que no anuncia
+ * fin ({@link #CONEXION_ABIERTA}) y después los mensajes que se vayan encolando, uno tras otro,
+ * en la misma numeración de paquetes. Así sólo el primer mensaje espera al handshake; los
+ * demás entran en la ventana deslizante en cuanto se encolan.
+ * <p>
+ * Los mensajes se delimitan dentro de los datos: cada uno va precedido de su longitud en
+ * {@value #BYTES_LONGITUD} bytes (big-endian), y del otro lado {@link SumideroMensajes} los separa.
+ * Cada mensaje empieza en un paquete nuevo.
+ * <p>
+ * Como {@link Trama#getPackets()}, es una lista con el HEADER en la posición 0 y el paquete
+ * {@code seq} en la {@code seq + 1}, pero crece al encolar y olvida los paquetes ya confirmados
+ * (pedirlos es un error). No es thread-safe: se usa desde el hilo del emisor.
+ */
+public class ColaMensajes extends AbstractList<Packet> implements RandomAccess {
+    /** Total de paquetes que anuncia el HEADER de una conexión persistente. */
+    public static final int CONEXION_ABIERTA = Integer.MAX_VALUE;
+    public static final int BYTES_LONGITUD = 4;
+    /** Paquetes confirmados que se acumulan antes de soltarlos de la lista. */
+    private static final int COMPACTAR_CADA = 256;
+
+    private final int tamanoPayload;
+    private final AlgoritmoChecksum algoritmo;
+    private final Packet header;
+    /** Paquetes aún sin confirmar; el primero es la secuencia {@link #primero}. */
+    private final ArrayList<Packet> paquetes = new ArrayList<>();
+    private int primero = 0;
+    /** Secuencia del próximo paquete que se cree. */
+    private int siguiente = 0;
+    /** Secuencia siguiente al último paquete de cada mensaje sin confirmar, en orden. */
+    private int[] finMensajes = new int[16];
+    private int cabezaMensajes = 0;
+    private int pendientesMensajes = 0;
+    private long mensajesEncolados = 0;
+    private boolean cerrada = false;
+
+    public ColaMensajes(int tamanoPayload, AlgoritmoChecksum algoritmo) {
+        if (tamanoPayload <= 0) {
+            throw new IllegalArgumentException("El tamaño de payload debe ser positivo: " + tamanoPayload);
+        }
+        this.tamanoPayload = tamanoPayload;
+        this.algoritmo = algoritmo;
+        this.header = new Packet(CONEXION_ABIERTA, tamanoPayload, -1, algoritmo);
+    }
+
+    /**
+     * @return true si un mensaje de {@code bytes} bytes aún cabe en la numeración de la conexión:
+     *         las secuencias no dan la vuelta (ver {@link Secuencias}) y el Receptor sólo acepta
+     *         las menores que {@link #CONEXION_ABIERTA}.
+     */
+    public boolean admite(int bytes) {
+        long paquetesNecesarios = ((long) BYTES_LONGITUD + bytes + tamanoPayload - 1) / tamanoPayload;
+        return siguiente + paquetesNecesarios < CONEXION_ABIERTA;
+    }
+
+    /**
+     * Pone {@code mensaje} al final de la cola, con su longitud delante, segmentado en paquetes.
+     * Se copia: quien llama puede reutilizar el arreglo.
+     * @throws IllegalStateException Si la cola ya se cerró o el mensaje no cabe ({@link #admite(int)}).
+     */
+    public void agregar(byte[] mensaje) {
+        if (cerrada) {
+            throw new IllegalStateException("La conexión ya no admite mensajes");
+        }
+        if (!admite(mensaje.length)) {
+            throw new IllegalStateException("La conexión agotó sus números de secuencia en " + siguiente);
+        }
+        ByteBuffer entramado = ByteBuffer.allocate(BYTES_LONGITUD + mensaje.length)
+                .putInt(mensaje.length).put(mensaje).flip().asReadOnlyBuffer();
+        for (int desde = 0; desde < entramado.limit(); desde += tamanoPayload) {
+            int bytes = Math.min(tamanoPayload, entramado.limit() - desde);
+            paquetes.add(new Packet(siguiente++, entramado.slice(desde, bytes), 0, algoritmo));
+        }
+        if (pendientesMensajes == finMensajes.length) {
+            int[] mayor = new int[finMensajes.length * 2];
+            for (int i = 0; i < pendientesMensajes; i++) {
+                mayor[i] = finMensajes[(cabezaMensajes + i) & (finMensajes.length - 1)];
+            }
+            finMensajes = mayor;
+            cabezaMensajes = 0;
+        }
+        finMensajes[(cabezaMensajes + pendientesMensajes++) & (finMensajes.length - 1)] = siguiente;
+        mensajesEncolados++;
+    }
+
+    /**
+     * Todos los paquetes anteriores a {@code base} llegaron: suelta los que sobran.
+     * @return Cuántos mensajes quedaron confirmados enteros con esto.
+     */
+    public int confirmar(int base) {
+        if (base - primero >= COMPACTAR_CADA) {
+            paquetes.subList(0, base - primero).clear();
+            primero = base;
+        }
+        int confirmados = 0;
+        while (pendientesMensajes > 0 && !Secuencias.anterior(base, finMensajes[cabezaMensajes])) {
+            cabezaMensajes = (cabezaMensajes + 1) & (finMensajes.length - 1);
+            pendientesMensajes--;
+            confirmados++;
+        }
+        return confirmados;
+    }
+
+    /** No se encolarán más mensajes: la conexión termina cuando se confirme lo que hay. */
+    public void cerrar() {
+        cerrada = true;
+    }
+
+    public boolean isCerrada() { return cerrada; }
+    public int getTamanoPayload() { return tamanoPayload; }
+    public long getMensajesEncolados() { return mensajesEncolados; }
+    /** @return Mensajes encolados cuyo último paquete aún no se confirma. */
+    public int getMensajesPendientes() { return pendientesMensajes; }
+
+    @Override
+    public Packet get(int indice) {
+        if (indice == 0) return header;
+        int seq = indice - 1;
+        if (seq < primero || seq >= siguiente) {
+            throw new IndexOutOfBoundsException("Paquete " + seq + " fuera de la cola [" + primero + ", " + siguiente + ")");
+        }
+        return paquetes.get(seq - primero);
+    }
+
+    @Override
+    public int size() {
+        return siguiente + 1;
+    }
+
+    /** @return Los paquetes de datos que siguen en la cola, del más antiguo al más nuevo. */
+    public List<Packet> getPendientes() {
+        return java.util.Collections.unmodifiableList(paquetes);
+    }
+}
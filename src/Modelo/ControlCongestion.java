@@ -0,0 +1,58 @@
+package Modelo;
+
+/**
+ * Algoritmo de control de congestión del {@link ProtocoloEmisor}: decide cuántos paquetes
+ * puede haber en vuelo (la ventana de congestión, cwnd).
+ * <p>
+ * Las implementaciones guardan estado de la conexión, así que cada emisor necesita la suya.
+ * Se crean con {@link #fija(int)}, {@link #reno()} o {@link #cubic()}.
+ */
+public interface ControlCongestion {
+
+    /** Ventana con la que empieza una conexión (RFC 5681 permite hasta 4 paquetes). */
+    int VENTANA_INICIAL = 3;
+
+    /** Ventana constante: el comportamiento original del Emisor con {@code fija(3)}. */
+    static ControlCongestion fija(int paquetes) {
+        return new VentanaFija(paquetes);
+    }
+
+    /** Arranque lento más AIMD (Reno, RFC 5681). */
+    static ControlCongestion reno() {
+        return new ControlReno();
+    }
+
+    /** Crecimiento cúbico respecto al tiempo desde la última pérdida (CUBIC, RFC 8312). */
+    static ControlCongestion cubic() {
+        return new ControlCubic();
+    }
+
+    /** @return Cuántos paquetes pueden estar enviados y sin confirmar; al menos 1. */
+    int getVentana();
+
+    /**
+     * La ventana del emisor avanzó.
+     * @param paquetes Cuántos paquetes nuevos quedaron confirmados.
+     * @param ahoraNanos Instante del planificador.
+     * @param srttNanos RTT suavizado, o -1 si aún no se ha medido.
+     */
+    void alConfirmar(int paquetes, long ahoraNanos, long srttNanos);
+
+    /**
+     * Venció el timeout de un paquete. El emisor lo llama una sola vez por episodio de pérdida
+     * (no por cada paquete de la misma ventana que venza).
+     * @param enVuelo Paquetes sin confirmar en ese momento.
+     */
+    void alTimeout(int enVuelo, long ahoraNanos);
+
+    /**
+     * Se detectó una pérdida por ACKs duplicados (retransmisión rápida): la red sigue
+     * entregando paquetes, así que la reducción es menor que en un timeout. También se
+     * llama una sola vez por episodio.
+     * @param enVuelo Paquetes en la red en ese momento (sin contar los ya confirmados por SACK).
+     */
+    void alPerdidaRapida(int enVuelo, long ahoraNanos);
+
+    /** Vuelve al estado de una conexión nueva. */
+    void reiniciar();
+}
@@ -0,0 +1,104 @@
+package Modelo;
+
+/**
+ * CUBIC (RFC 8312): tras una pérdida, la ventana sigue
+ * <pre>
+ *   W(t) = C (t - K)^3 + Wmax,   K = cbrt(Wmax (1 - β) / C)
+ * </pre>
+ * con {@code t} el tiempo desde la pérdida, así que vuelve rápido hasta cerca de la ventana
+ * donde se perdió, se queda plana alrededor de ella y después sondea hacia arriba. El
+ * crecimiento no depende del RTT; para no quedarse por debajo de Reno en RTT cortos se usa el
+ * máximo con la estimación "amigable con TCP". Antes de la primera pérdida, arranque lento.
+ */
+public final class ControlCubic implements ControlCongestion {
+    private static final double C = 0.4;
+    private static final double BETA = 0.7;
+    private static final int SSTHRESH_MINIMO = 2;
+
+    private double ventana;
+    private double ssthresh;
+    /** Ventana en la última pérdida. */
+    private double ventanaMaxima;
+    /** Inicio de la época actual (la primera confirmación tras una pérdida), o -1. */
+    private long inicioEpocaNanos;
+    private double k;
+    /** Estimación de la ventana que tendría Reno en la misma época. */
+    private double ventanaReno;
+
+    public ControlCubic() {
+        reiniciar();
+    }
+
+    @Override
+    public int getVentana() {
+        return Math.max(1, (int) ventana);
+    }
+
+    @Override
+    public void alConfirmar(int paquetes, long ahoraNanos, long srttNanos) {
+        while (paquetes > 0 && ventana < ssthresh) {
+            ventana += 1;       // Arranque lento
+            paquetes--;
+        }
+        if (paquetes <= 0 || ventana < ssthresh) return;
+
+        if (inicioEpocaNanos < 0) {
+            inicioEpocaNanos = ahoraNanos;
+            if (ventana < ventanaMaxima) {
+                k = Math.cbrt((ventanaMaxima - ventana) / C);
+            } else {
+                k = 0;
+                ventanaMaxima = ventana;
+            }
+            ventanaReno = ventana;
+        }
+
+        // El objetivo se evalúa un RTT por delante, como en RFC 8312
+        double rtt = srttNanos > 0 ? srttNanos / 1e9 : 0;
+        double t = (ahoraNanos - inicioEpocaNanos) / 1e9 + rtt;
+        double objetivo = C * Math.pow(t - k, 3) + ventanaMaxima;
+
+        ventanaReno += paquetes * (3 * (1 - BETA) / (1 + BETA)) / ventana;
+        if (ventanaReno > objetivo) {
+            objetivo = ventanaReno;
+        }
+
+        if (objetivo > ventana) {
+            // Se acerca al objetivo a lo sumo a la mitad por paquete confirmado
+            ventana += paquetes * Math.min(objetivo - ventana, ventana / 2) / ventana;
+        } else {
+            ventana += paquetes * 0.01 / ventana;
+        }
+    }
+
+    @Override
+    public void alTimeout(int enVuelo, long ahoraNanos) {
+        ventanaMaxima = Math.max(ventana, enVuelo);
+        ssthresh = Math.max(ventanaMaxima * BETA, SSTHRESH_MINIMO);
+        ventana = 1;
+        inicioEpocaNanos = -1;
+    }
+
+    @Override
+    public void alPerdidaRapida(int enVuelo, long ahoraNanos) {
+        ventanaMaxima = ventana;
+        ventana = Math.max(ventana * BETA, SSTHRESH_MINIMO);
+        ssthresh = ventana;
+        inicioEpocaNanos = -1;
+    }
+
+    @Override
+    public void reiniciar() {
+        ventana = VENTANA_INICIAL;
+        ssthresh = Double.MAX_VALUE;
+        ventanaMaxima = 0;
+        inicioEpocaNanos = -1;
+        k = 0;
+        ventanaReno = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ControlCubic{ventana=" + getVentana() + ", wmax=" + (int) ventanaMaxima + "}";
+    }
+}
@@ -0,0 +1,61 @@
+package Modelo;
+
+/**
+ * Reno (RFC 5681): arranque lento hasta {@code ssthresh} (la ventana crece un paquete por
+ * cada paquete confirmado, es decir, se duplica por RTT) y después crecimiento aditivo de un
+ * paquete por RTT. Un timeout deja {@code ssthresh} en la mitad de lo que había en vuelo y
+ * la ventana en 1; una pérdida detectada por ACKs duplicados deja la ventana en {@code ssthresh}
+ * (recuperación rápida), sin volver al arranque lento.
+ */
+public final class ControlReno implements ControlCongestion {
+    private static final int SSTHRESH_MINIMO = 2;
+
+    private double ventana;
+    private double ssthresh;
+
+    public ControlReno() {
+        reiniciar();
+    }
+
+    @Override
+    public int getVentana() {
+        return Math.max(1, (int) ventana);
+    }
+
+    @Override
+    public void alConfirmar(int paquetes, long ahoraNanos, long srttNanos) {
+        for (int i = 0; i < paquetes; i++) {
+            if (ventana < ssthresh) {
+                ventana += 1;                  // Arranque lento
+            } else {
+                ventana += 1.0 / ventana;      // Evitación de congestión: +1 por RTT
+            }
+        }
+    }
+
+    @Override
+    public void alTimeout(int enVuelo, long ahoraNanos) {
+        ssthresh = Math.max(enVuelo / 2.0, SSTHRESH_MINIMO);
+        ventana = 1;
+    }
+
+    @Override
+    public void alPerdidaRapida(int enVuelo, long ahoraNanos) {
+        ssthresh = Math.max(enVuelo / 2.0, SSTHRESH_MINIMO);
+        ventana = ssthresh;
+    }
+
+    @Override
+    public void reiniciar() {
+        ventana = VENTANA_INICIAL;
+        ssthresh = Double.MAX_VALUE;
+    }
+
+    public double getSsthresh() { return ssthresh; }
+
+    @Override
+    public String toString() {
+        return "ControlReno{ventana=" + getVentana()
+                + ", ssthresh=" + (ssthresh == Double.MAX_VALUE ? "∞" : String.valueOf((int) ssthresh)) + "}";
+    }
+}
@@ -0,0 +1,109 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Muchas transferencias a la vez en tiempo real, cada Emisor y cada Receptor en su propio hilo
+ * virtual ({@link CanalVirtual}). Los hilos pasan casi todo el tiempo bloqueados en su buzón
+ * esperando un paquete o un timeout, así que miles de pares caben en unos pocos hilos del sistema:
+ * <pre>
+ *   java -cp target/classes Modelo.EnjambreVirtual [pares] [bytesPorPar] [tamanoPayload]
+ * </pre>
+ * Al terminar imprime cuántas transferencias se completaron, el tiempo, el goodput agregado y los
+ * hilos de plataforma que hicieron falta.
+ * <p>
+ * Cada par ocupa unos 150 KB de heap (ventana de recepción y métricas): para 10 000 pares hay
+ * que darle {@code -Xmx4g}.
+ */
+public class EnjambreVirtual {
+    private static final int PARES_PREDETERMINADOS = 1000;
+    private static final int BYTES_PREDETERMINADOS = 64 * 1024;
+    private static final int TAMANO_PAYLOAD_PREDETERMINADO = 1400;
+    private static final int VENTANA_RECEPCION = 64;
+    /** Si no terminan en este tiempo, se da el resultado parcial. */
+    private static final long ESPERA_MAXIMA_SEGUNDOS = 120;
+
+    /** Los receptores no guardan lo recibido: con miles de pares no cabría en el heap. */
+    private static final SumideroDatos DESCARTAR = new SumideroDatos() {
+        @Override
+        public void iniciar(long longitud) {
+        }
+
+        @Override
+        public void escribir(long posicion, ByteBuffer datos) {
+        }
+
+        @Override
+        public void completar() {
+        }
+    };
+
+    public static void main(String[] args) throws InterruptedException {
+        int pares = args.length > 0 ? Integer.parseInt(args[0]) : PARES_PREDETERMINADOS;
+        int bytes = args.length > 1 ? Integer.parseInt(args[1]) : BYTES_PREDETERMINADOS;
+        int tamanoPayload = args.length > 2 ? Integer.parseInt(args[2]) : TAMANO_PAYLOAD_PREDETERMINADO;
+
+        byte[] datos = new byte[bytes];
+        new Random(1).nextBytes(datos);
+        List<Packet> trama = new Trama(new FuenteMemoria(datos), tamanoPayload, AlgoritmoChecksum.PREDETERMINADO).getPackets();
+
+        CountDownLatch fin = new CountDownLatch(pares);
+        AtomicInteger completadas = new AtomicInteger();
+        List<BuzonVirtual> buzones = new ArrayList<>(2 * pares);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < pares; i++) {
+            BuzonVirtual buzonEmisor = new BuzonVirtual("emisor-" + i);
+            BuzonVirtual buzonReceptor = new BuzonVirtual("receptor-" + i);
+            buzones.add(buzonEmisor);
+            buzones.add(buzonReceptor);
+
+            // Un enlace rápido para que el enjambre termine en segundos y no en horas
+            ModeloCanal modelo = ModeloCanal.original()
+                    .conPerdida(ModeloPerdida.bernoulli(0.01))
+                    .conCorrupcion(0.01)
+                    .conLatencia(1, 5)
+                    .conDuracionViaje(10);
+            CanalVirtual canal = new CanalVirtual(i, buzonEmisor, buzonReceptor, modelo, new Random());
+            ProtocoloEmisor emisor = new ProtocoloEmisor();
+            // Ventana corta: la predeterminada reserva más de 1 MB por receptor con el primer desorden
+            ProtocoloReceptor receptor = new ProtocoloReceptor(VENTANA_RECEPCION);
+            receptor.setSumidero(DESCARTAR);
+            emisor.setObservador(new ObservadorEmisor() {
+                @Override
+                public void transmisionCompletada() {
+                    completadas.incrementAndGet();
+                    fin.countDown();
+                }
+
+                @Override
+                public void transmisionFallida(String titulo, String mensaje) {
+                    fin.countDown();
+                }
+            });
+            // Aún no corre ningún evento de este par: se puede sintonizar desde aquí
+            receptor.sintonizar(canal);
+            emisor.sintonizar(canal);
+            buzonEmisor.programar(0, () -> emisor.enviar(trama));
+        }
+
+        boolean terminaron = fin.await(ESPERA_MAXIMA_SEGUNDOS, TimeUnit.SECONDS);
+        long duracion = System.nanoTime() - inicio;
+        int hilosPlataforma = Thread.activeCount();
+        for (BuzonVirtual buzon : buzones) {
+            buzon.close();
+        }
+
+        double segundos = duracion / 1e9;
+        System.err.println((terminaron ? "Completadas " : "Incompletas ") + completadas.get() + "/" + pares
+                + ", duracionMs=" + TimeUnit.NANOSECONDS.toMillis(duracion)
+                + ", goodputAgregadoBps=" + Math.round((double) completadas.get() * bytes / segundos)
+                + ", hilosPlataforma=" + hilosPlataforma);
+        Bitacora.vaciar(TimeUnit.SECONDS.toNanos(1));
+    }
+}
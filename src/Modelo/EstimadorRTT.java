@@ -0,0 +1,140 @@
+package Modelo;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcula el timeout de retransmisión (RTO) de una conexión a partir del RTT medido,
+ * según Jacobson/Karels (RFC 6298):
+ * <pre>
+ *   RTTVAR = 3/4 RTTVAR + 1/4 |SRTT - R|
+ *   SRTT   = 7/8 SRTT   + 1/8 R
+ *   RTO    = SRTT + max(G, 4 RTTVAR)
+ * </pre>
+ * Con retroceso, cada timeout duplica el RTO. Quien lo usa debe respetar la regla de Karn:
+ * no registrar muestras de paquetes retransmitidos, porque no se sabe a cuál de los envíos
+ * corresponde el ACK. El RTO retrocedido se conserva hasta la siguiente muestra válida: si el
+ * ACK de una retransmisión lo deshiciera y el RTT real superara el RTO, todos los paquetes se
+ * retransmitirían antes de su ACK y nunca llegaría una muestra.
+ * <p>
+ * El Emisor lo usa con retroceso: si el RTO queda por debajo del RTT (una cola que se llena, un
+ * enlace más lento de lo medido), sin él cada timeout volvería a vencer antes que el ACK y la
+ * ventana entera se retransmitiría una y otra vez. Con las pérdidas aleatorias del
+ * {@link Canal} original el retroceso alarga las esperas (una transferencia tarda casi el doble);
+ * quien prefiera eso a la protección puede pedir {@code adaptativo(granularidad, false)}.
+ * <p>
+ * {@link #fijo(long)} conserva el comportamiento antiguo (timeout constante) para comparar.
+ */
+public class EstimadorRTT {
+    /** RTO con el que empieza una conexión: el timeout fijo que usaba el Emisor. */
+    public static final long RTO_INICIAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2101);
+    private static final long RTO_MINIMO_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long RTO_MAXIMO_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final boolean adaptativo;
+    private final boolean conRetroceso;
+    private final long rtoInicialNanos;
+    /** Granularidad del reloj de timeouts (la G de la fórmula). */
+    private final long granularidadNanos;
+
+    private long srttNanos = -1;
+    private long rttvarNanos = 0;
+    /** RTO según SRTT/RTTVAR, sin retroceso. */
+    private long rtoBaseNanos;
+    private long rtoNanos;
+
+    // --- Estadísticas ---
+    private long muestras = 0;
+    private long timeouts = 0;
+
+    private EstimadorRTT(boolean adaptativo, boolean conRetroceso, long rtoInicialNanos, long granularidadNanos) {
+        this.adaptativo = adaptativo;
+        this.conRetroceso = conRetroceso;
+        this.rtoInicialNanos = rtoInicialNanos;
+        this.granularidadNanos = granularidadNanos;
+        this.rtoBaseNanos = rtoInicialNanos;
+        this.rtoNanos = rtoInicialNanos;
+    }
+
+    /**
+     * Estimador completo de RFC 6298, con retroceso exponencial.
+     * @param granularidadNanos Resolución del reloj que dispara los timeouts.
+     */
+    public static EstimadorRTT adaptativo(long granularidadNanos) {
+        return adaptativo(granularidadNanos, true);
+    }
+
+    /**
+     * @param conRetroceso Si cada timeout duplica el RTO; sin él, el RTO sólo sigue al RTT medido.
+     */
+    public static EstimadorRTT adaptativo(long granularidadNanos, boolean conRetroceso) {
+        return new EstimadorRTT(true, conRetroceso, RTO_INICIAL_NANOS, granularidadNanos);
+    }
+
+    /**
+     * Timeout constante, sin muestreo ni retroceso (el comportamiento original del Emisor).
+     */
+    public static EstimadorRTT fijo(long rtoNanos) {
+        return new EstimadorRTT(false, false, rtoNanos, 0);
+    }
+
+    /**
+     * Registra el RTT medido para un paquete que NO fue retransmitido.
+     */
+    public void registrarMuestra(long rttNanos) {
+        muestras++;
+        if (!adaptativo) return;
+
+        if (srttNanos < 0) {
+            // Primera muestra
+            srttNanos = rttNanos;
+            rttvarNanos = rttNanos / 2;
+        } else {
+            rttvarNanos = (3 * rttvarNanos + Math.abs(srttNanos - rttNanos)) / 4;
+            srttNanos = (7 * srttNanos + rttNanos) / 8;
+        }
+        rtoBaseNanos = limitar(srttNanos + Math.max(granularidadNanos, 4 * rttvarNanos));
+        // Una muestra válida también deshace el retroceso
+        rtoNanos = rtoBaseNanos;
+    }
+
+    /**
+     * Registra que venció un timeout: duplica el RTO, si hay retroceso.
+     */
+    public void registrarTimeout() {
+        timeouts++;
+        if (!conRetroceso) return;
+        rtoNanos = limitar(rtoNanos * 2);
+    }
+
+    /**
+     * Olvida lo medido (p. ej. al cambiar de canal).
+     */
+    public void reiniciar() {
+        srttNanos = -1;
+        rttvarNanos = 0;
+        rtoBaseNanos = rtoInicialNanos;
+        rtoNanos = rtoInicialNanos;
+    }
+
+    private static long limitar(long rto) {
+        return Math.min(RTO_MAXIMO_NANOS, Math.max(RTO_MINIMO_NANOS, rto));
+    }
+
+    public boolean isAdaptativo() { return adaptativo; }
+    public boolean isConRetroceso() { return conRetroceso; }
+    /** @return El timeout que debe usarse ahora para un paquete recién enviado. */
+    public long getRtoNanos() { return rtoNanos; }
+    /** @return El RTT suavizado, o -1 si aún no hay muestras. */
+    public long getSrttNanos() { return srttNanos; }
+    public long getRttvarNanos() { return rttvarNanos; }
+    public long getMuestras() { return muestras; }
+    public long getTimeouts() { return timeouts; }
+
+    @Override
+    public String toString() {
+        return "EstimadorRTT{" + (adaptativo ? (conRetroceso ? "adaptativo+retroceso" : "adaptativo") : "fijo")
+                + ", srttMs=" + (srttNanos < 0 ? -1 : srttNanos / 1_000_000)
+                + ", rttvarMs=" + rttvarNanos / 1_000_000
+                + ", rtoMs=" + rtoNanos / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,38 @@
+package Modelo;
+
+/**
+ * Acción programada en un {@link Planificador} para un instante concreto.
+ * Los eventos con el mismo instante se ejecutan en el orden en que se programaron.
+ */
+public final class Evento implements Comparable<Evento> {
+    private final long tiempo;
+    private final long orden;
+    private final Runnable accion;
+    private boolean cancelado = false;
+
+    Evento(long tiempo, long orden, Runnable accion) {
+        this.tiempo = tiempo;
+        this.orden = orden;
+        this.accion = accion;
+    }
+
+    /**
+     * Evita que el evento se ejecute. No tiene efecto si ya se ejecutó.
+     */
+    public void cancelar() {
+        this.cancelado = true;
+    }
+
+    public boolean isCancelado() { return cancelado; }
+    public long getTiempo() { return tiempo; }
+
+    void ejecutar() {
+        accion.run();
+    }
+
+    @Override
+    public int compareTo(Evento otro) {
+        int porTiempo = Long.compare(this.tiempo, otro.tiempo);
+        return porTiempo != 0 ? porTiempo : Long.compare(this.orden, otro.orden);
+    }
+}
@@ -0,0 +1,27 @@
+package Modelo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Evento de Flight Recorder: el {@link ModeloCanal} de un {@link Canal} perdió un paquete.
+ */
+@Name("simulador.Perdida")
+@Label("Paquete perdido")
+@Category("Simulador Telecom")
+@Description("El canal perdió un paquete en el enlace o lo descartó una cola llena")
+@StackTrace(false)
+final class EventoJfrPerdida extends Event {
+    @Label("Frecuencia")
+    int frecuencia;
+
+    @Label("Secuencia")
+    int secuencia;
+
+    @Label("ACK")
+    boolean ack;
+}
@@ -0,0 +1,33 @@
+package Modelo;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de Flight Recorder: el {@link ProtocoloEmisor} retransmitió un paquete.
+ */
+@Name("simulador.Retransmision")
+@Label("Retransmisión")
+@Category("Simulador Telecom")
+@Description("El emisor reenvió un paquete por timeout o por retransmisión rápida")
+@StackTrace(false)
+final class EventoJfrRetransmision extends Event {
+    @Label("Frecuencia")
+    int frecuencia;
+
+    @Label("Secuencia")
+    int secuencia;
+
+    @Label("Rápida")
+    @Description("true si no esperó al timeout (los SACK mostraron el hueco)")
+    boolean rapida;
+
+    @Label("RTO")
+    @Timespan
+    long rtoNanos;
+}
@@ -0,0 +1,45 @@
+package Modelo;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Evento de Flight Recorder con duración: una trama completa del {@link ProtocoloEmisor},
+ * desde el HEADER hasta el último ACK (o hasta que se abortó).
+ */
+@Name("simulador.Trama")
+@Label("Trama")
+@Category("Simulador Telecom")
+@Description("Transmisión de una trama completa")
+@StackTrace(false)
+final class EventoJfrTrama extends Event {
+    @Label("Frecuencia")
+    int frecuencia;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Paquetes de datos")
+    int paquetes;
+
+    @Label("Paquetes enviados")
+    long enviados;
+
+    @Label("Retransmisiones")
+    long retransmisiones;
+
+    @Label("Completada")
+    boolean completada;
+
+    @Label("Tiempo del planificador")
+    @Description("Duración según el reloj del canal; con el reloj virtual es tiempo simulado")
+    @Timespan
+    long tiempoPlanificadorNanos;
+}
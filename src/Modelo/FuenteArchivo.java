@@ -0,0 +1,77 @@
+package Modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fuente que proyecta un archivo en memoria ({@link FileChannel#map}) en vez de leerlo.
+ * <p>
+ * Un {@link MappedByteBuffer} se indexa con {@code int}, así que el archivo se proyecta por
+ * regiones de hasta ~1 GiB, cada una la primera vez que se pide un segmento suyo. Las regiones
+ * empiezan en múltiplos del tamaño de payload, de modo que ningún segmento cruza dos. Las
+ * páginas las trae y las suelta el sistema operativo: el heap no crece con el archivo.
+ * El archivo no debe modificarse mientras se transmite.
+ */
+public class FuenteArchivo implements FuenteDatos, Closeable {
+    private static final long TAMANO_REGION_MAXIMO = 1L << 30;
+
+    private final FileChannel canal;
+    private final long longitud;
+    private final long tamanoRegion;
+    private final MappedByteBuffer[] regiones;
+
+    /**
+     * @param tamanoPayload El de la {@link Trama} que la va a usar; alinea las regiones.
+     */
+    public FuenteArchivo(Path archivo, int tamanoPayload) throws IOException {
+        if (tamanoPayload <= 0) {
+            throw new IllegalArgumentException("El tamaño de payload debe ser positivo: " + tamanoPayload);
+        }
+        this.canal = FileChannel.open(archivo, StandardOpenOption.READ);
+        this.longitud = canal.size();
+        this.tamanoRegion = Math.max(tamanoPayload, TAMANO_REGION_MAXIMO / tamanoPayload * tamanoPayload);
+        long numRegiones = (longitud + tamanoRegion - 1) / tamanoRegion;
+        this.regiones = new MappedByteBuffer[(int) numRegiones];
+    }
+
+    @Override
+    public long getLongitud() {
+        return longitud;
+    }
+
+    @Override
+    public ByteBuffer leer(long posicion, int longitud) {
+        int indice = (int) (posicion / tamanoRegion);
+        int desplazamiento = (int) (posicion - indice * tamanoRegion);
+        return region(indice).slice(desplazamiento, longitud).asReadOnlyBuffer();
+    }
+
+    private MappedByteBuffer region(int indice) {
+        MappedByteBuffer region = regiones[indice];
+        if (region == null) {
+            long inicio = indice * tamanoRegion;
+            try {
+                region = canal.map(FileChannel.MapMode.READ_ONLY, inicio, Math.min(tamanoRegion, longitud - inicio));
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo proyectar el archivo en " + inicio, e);
+            }
+            regiones[indice] = region;
+        }
+        return region;
+    }
+
+    /**
+     * Cierra el archivo. Las regiones ya proyectadas siguen siendo válidas hasta que
+     * el recolector libere los paquetes que las usan.
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
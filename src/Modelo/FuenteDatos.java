@@ -0,0 +1,19 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Origen de los bytes de una {@link Trama}. La trama pide cada segmento cuando el emisor
+ * lo va a enviar (o reenviar), así que la fuente no necesita tener todo en el heap.
+ */
+public interface FuenteDatos {
+
+    /** @return Cuántos bytes tiene el mensaje completo. */
+    long getLongitud();
+
+    /**
+     * @return Una vista de sólo lectura de {@code longitud} bytes a partir de {@code posicion},
+     *         que no debe cambiar mientras dure la transmisión.
+     */
+    ByteBuffer leer(long posicion, int longitud);
+}
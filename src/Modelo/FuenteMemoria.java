@@ -0,0 +1,33 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fuente sobre un mensaje que ya está en memoria. No copia: los segmentos son vistas
+ * sobre el buffer original.
+ */
+public class FuenteMemoria implements FuenteDatos {
+    private final ByteBuffer datos;
+
+    /**
+     * @param datos Los bytes entre {@code position} y {@code limit}; no deben modificarse
+     *              mientras se transmiten.
+     */
+    public FuenteMemoria(ByteBuffer datos) {
+        this.datos = datos.slice().asReadOnlyBuffer();
+    }
+
+    public FuenteMemoria(byte[] datos) {
+        this(ByteBuffer.wrap(datos));
+    }
+
+    @Override
+    public long getLongitud() {
+        return datos.remaining();
+    }
+
+    @Override
+    public ByteBuffer leer(long posicion, int longitud) {
+        return datos.slice((int) posicion, longitud);
+    }
+}
@@ -1,37 +1,117 @@
 package Modelo;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 /**
  * Clase singleton encargada de establecer comunicación entre Emisor y Receptor.
  * Administra una lista de los canales activos en la simulación.
+ * El registro es concurrente: puede consultarse desde varios hilos sin bloquear.
  * */
 public class GestorDeCanales {
-    private static GestorDeCanales gestor;
-    private final Map<Integer, Canal> canales;
+    private final ConcurrentMap<Integer, Canal> canales;
+    /** Modelo de enlace de cada frecuencia configurada; las demás usan el original. */
+    private final ConcurrentMap<Integer, Supplier<ModeloCanal>> modelos;
+    /** Hilo que mueve los canales en tiempo real, si se arrancó. */
+    private volatile RelojTiempoReal reloj;
 
     private GestorDeCanales() {
-        canales = new HashMap<>();
-        System.out.println("Gestor Singleton inicializado");
+        canales = new ConcurrentHashMap<>();
+        modelos = new ConcurrentHashMap<>();
+        Bitacora.info("Gestor Singleton inicializado");
     }
 
-    public static synchronized  GestorDeCanales getInstance() {
-        if (gestor == null)
-            gestor = new GestorDeCanales();
+    /** Inicialización perezosa y thread-safe sin sincronizar cada llamada. */
+    private static final class Instancia {
+        private static final GestorDeCanales GESTOR = new GestorDeCanales();
+    }
 
-        return gestor;
+    public static GestorDeCanales getInstance() {
+        return Instancia.GESTOR;
     }
 
     /**
      * Obtiene un canal por su frecuencia.
      * Si el canal no existe, lo crea y lo registra.
      * Si ya existe, devuelve la instancia existente.
+     * Las métricas de los canales nuevos se publican por JMX ({@link RegistroMetricas}).
      *
      * @param id El número de frecuencia (ej. 1, 2, 3...)
      * @return El objeto Canal compartido para ese ID.
      */
     public Canal getCanal(int id) {
-        return canales.computeIfAbsent(id, k -> new Canal(id));
+        return canales.computeIfAbsent(id, k -> {
+            Supplier<ModeloCanal> fabrica = modelos.get(id);
+            Canal canal = new Canal(id);
+            if (fabrica != null) {
+                canal.setModelo(fabrica.get());
+            }
+            RegistroMetricas.publicar(canal);
+            return canal;
+        });
+    }
+
+    /**
+     * Elige el comportamiento del enlace de una frecuencia, p. ej.
+     * {@code () -> ModeloCanal.original().conCuelloDeBotella(...)}. Si el canal ya existe,
+     * cambia desde ahora; si no, se usará al crearlo.
+     * @param fabrica Crea el modelo (cada canal necesita el suyo), o null para el original.
+     */
+    public void configurarCanal(int id, Supplier<ModeloCanal> fabrica) {
+        Supplier<ModeloCanal> efectiva = fabrica != null ? fabrica : ModeloCanal::original;
+        modelos.put(id, efectiva);
+        Canal existente = canales.get(id);
+        if (existente != null) {
+            existente.setModelo(efectiva.get());
+        }
+    }
+
+    /**
+     * @return Vista de sólo lectura de los canales registrados.
+     */
+    public Collection<Canal> getCanales() {
+        return Collections.unmodifiableCollection(canales.values());
+    }
+
+    /**
+     * Arranca (una sola vez) el hilo que avanza los canales al ritmo del reloj de pared.
+     * @return El reloj, por el que deben pasar las acciones sobre canales y protocolos.
+     */
+    public synchronized RelojTiempoReal iniciarReloj() {
+        if (reloj == null) {
+            reloj = new RelojTiempoReal(this);
+        }
+        return reloj;
+    }
+
+    /**
+     * Ejecuta {@code tarea} en el hilo de la simulación, o en el acto si no se arrancó
+     * ({@link #iniciarReloj()}); p. ej. enviar una trama desde un botón.
+     */
+    public void ejecutar(Runnable tarea) {
+        RelojTiempoReal actual = reloj;
+        if (actual != null) {
+            actual.ejecutar(tarea);
+        } else {
+            tarea.run();
+        }
+    }
+
+    /**
+     * Avanza hasta {@code instante} el reloj virtual de todos los canales registrados.
+     * {@link RelojTiempoReal} lo llama continuamente para que la simulación transcurra en
+     * tiempo real.
+     *
+     * @param instante Nanosegundos transcurridos desde que arrancó el reloj.
+     */
+    public void avanzarRelojes(long instante) {
+        for (Canal canal : canales.values()) {
+            if (canal.getPlanificador() instanceof PlanificadorVirtual reloj) {
+                reloj.avanzarHasta(instante);
+            }
+        }
     }
 }
@@ -0,0 +1,106 @@
+package Modelo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma log-lineal de valores no negativos, al estilo de HdrHistogram: cada potencia de 2
+ * se divide en 32 cubetas, así que cualquier percentil se conoce con un error relativo menor
+ * al 3% y el histograma ocupa lo mismo (unos 15 KB) sin importar el rango de los valores.
+ * <p>
+ * Registrar es O(1), sin locks ni memoria nueva: una instancia puede llenarse desde el hilo del
+ * protocolo mientras JMX la lee desde otro. Las lecturas no son una instantánea atómica.
+ */
+public class Histograma {
+    private static final int BITS_SUBCUBETA = 5;
+    private static final int SUBCUBETAS = 1 << BITS_SUBCUBETA;
+
+    private final AtomicLongArray cuentas = new AtomicLongArray((64 - BITS_SUBCUBETA) * SUBCUBETAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder suma = new LongAdder();
+    private final AtomicLong minimo = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maximo = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Registra un valor; los negativos cuentan como 0.
+     */
+    public void registrar(long valor) {
+        long v = Math.max(0, valor);
+        cuentas.incrementAndGet(indice(v));
+        total.increment();
+        suma.add(v);
+        long actual;
+        while (v < (actual = minimo.get()) && !minimo.compareAndSet(actual, v)) {
+            // Otro hilo lo cambió: se reintenta con el nuevo
+        }
+        while (v > (actual = maximo.get()) && !maximo.compareAndSet(actual, v)) {
+            // Ídem
+        }
+    }
+
+    /**
+     * @param percentil Entre 0 y 100.
+     * @return El valor por debajo del cual está ese porcentaje de los registros
+     *         (con el error de la cubeta), o 0 si está vacío.
+     */
+    public long getPercentil(double percentil) {
+        long cuenta = total.sum();
+        if (cuenta == 0) return 0;
+        long objetivo = Math.max(1, (long) Math.ceil(percentil / 100 * cuenta));
+        long acumulado = 0;
+        for (int i = 0; i < cuentas.length(); i++) {
+            acumulado += cuentas.get(i);
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return getMaximo();
+    }
+
+    public long getCuenta() { return total.sum(); }
+    /** @return El menor valor registrado, o 0 si está vacío. */
+    public long getMinimo() { return getCuenta() == 0 ? 0 : minimo.get(); }
+    /** @return El mayor valor registrado, o 0 si está vacío. */
+    public long getMaximo() { return getCuenta() == 0 ? 0 : maximo.get(); }
+    /** @return La media exacta, o 0 si está vacío. */
+    public double getMedia() {
+        long cuenta = total.sum();
+        return cuenta == 0 ? 0 : (double) suma.sum() / cuenta;
+    }
+
+    /** Olvida todos los registros. */
+    public void reiniciar() {
+        for (int i = 0; i < cuentas.length(); i++) {
+            cuentas.set(i, 0);
+        }
+        total.reset();
+        suma.reset();
+        minimo.set(Long.MAX_VALUE);
+        maximo.set(Long.MIN_VALUE);
+    }
+
+    /**
+     * Los valores menores que {@code 2 * SUBCUBETAS} tienen cubeta propia; de ahí en adelante,
+     * cada potencia de 2 se reparte en {@code SUBCUBETAS} cubetas iguales.
+     */
+    private static int indice(long valor) {
+        if (valor < 2 * SUBCUBETAS) return (int) valor;
+        int desplazamiento = 63 - Long.numberOfLeadingZeros(valor) - BITS_SUBCUBETA;
+        return (desplazamiento + 1) * SUBCUBETAS + (int) (valor >>> desplazamiento) - SUBCUBETAS;
+    }
+
+    private static long limiteSuperior(int indice) {
+        if (indice < 2 * SUBCUBETAS) return indice;
+        int desplazamiento = indice / SUBCUBETAS - 1;
+        long subcubeta = indice % SUBCUBETAS;
+        long limite = ((SUBCUBETAS + subcubeta + 1) << desplazamiento) - 1;
+        return limite < 0 ? Long.MAX_VALUE : limite; // La última cubeta llega hasta el final
+    }
+
+    @Override
+    public String toString() {
+        return "Histograma{n=" + getCuenta() + ", p50=" + getPercentil(50) + ", p99=" + getPercentil(99)
+                + ", max=" + getMaximo() + "}";
+    }
+}
@@ -0,0 +1,51 @@
+package Modelo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de lo que le pasa a los paquetes en un {@link Canal}. Se actualizan desde el hilo
+ * del canal sin locks y pueden leerse desde cualquier otro (p. ej. por JMX, ver {@link RegistroMetricas}).
+ */
+public class MetricasCanal implements MetricasCanalMXBean {
+    private final int frecuencia;
+    private final LongAdder admitidos = new LongAdder();
+    private final LongAdder perdidos = new LongAdder();
+    private final LongAdder corrompidos = new LongAdder();
+    private final LongAdder entregados = new LongAdder();
+    private final LongAdder bytesEntregados = new LongAdder();
+
+    public MetricasCanal(int frecuencia) {
+        this.frecuencia = frecuencia;
+    }
+
+    void registrarAdmitido() { admitidos.increment(); }
+    void registrarPerdido() { perdidos.increment(); }
+    void registrarCorrompido() { corrompidos.increment(); }
+
+    void registrarEntregado(int bytes) {
+        entregados.increment();
+        bytesEntregados.add(bytes);
+    }
+
+    @Override public int getFrecuencia() { return frecuencia; }
+    @Override public long getPaquetesAdmitidos() { return admitidos.sum(); }
+    @Override public long getPaquetesPerdidos() { return perdidos.sum(); }
+    @Override public long getPaquetesCorrompidos() { return corrompidos.sum(); }
+    @Override public long getPaquetesEntregados() { return entregados.sum(); }
+    @Override public long getBytesEntregados() { return bytesEntregados.sum(); }
+
+    @Override
+    public double getTasaPerdida() {
+        long total = admitidos.sum();
+        return total == 0 ? 0 : (double) perdidos.sum() / total;
+    }
+
+    @Override
+    public void reiniciar() {
+        admitidos.reset();
+        perdidos.reset();
+        corrompidos.reset();
+        entregados.reset();
+        bytesEntregados.reset();
+    }
+}
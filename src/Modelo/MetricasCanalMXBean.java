@@ -0,0 +1,19 @@
+package Modelo;
+
+/**
+ * Vista JMX de las {@link MetricasCanal} de un canal.
+ */
+public interface MetricasCanalMXBean {
+    int getFrecuencia();
+    /** @return Paquetes (datos y ACKs) que entraron al canal. */
+    long getPaquetesAdmitidos();
+    /** @return Paquetes que no llegaron: perdidos en el enlace o descartados por una cola llena. */
+    long getPaquetesPerdidos();
+    long getPaquetesCorrompidos();
+    long getPaquetesEntregados();
+    /** @return Bytes de payload entregados (incluye los corruptos y los repetidos). */
+    long getBytesEntregados();
+    /** @return Fracción de los paquetes admitidos que se perdió. */
+    double getTasaPerdida();
+    void reiniciar();
+}
@@ -0,0 +1,93 @@
+package Modelo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de un {@link ProtocoloEmisor}: lo enviado, lo confirmado, el RTT y la ocupación
+ * de la ventana. Se llenan desde el hilo del protocolo sin locks y pueden leerse desde
+ * cualquier otro (p. ej. por JMX, ver {@link RegistroMetricas}). Los tiempos son los del
+ * {@link Planificador} del canal: con el reloj virtual, el goodput es en tiempo simulado.
+ */
+public class MetricasEmisor implements MetricasEmisorMXBean {
+    private final LongAdder enviados = new LongAdder();
+    private final LongAdder retransmisiones = new LongAdder();
+    private final LongAdder retransmisionesRapidas = new LongAdder();
+    private final LongAdder bytesConfirmados = new LongAdder();
+    private final LongAdder tramasCompletadas = new LongAdder();
+    private final Histograma rtt = new Histograma();
+    private final Histograma enVuelo = new Histograma();
+    private volatile int ventanaCongestion;
+
+    // --- Trama actual (las escribe sólo el hilo del protocolo) ---
+    private volatile long inicioTrama = -1;
+    private volatile long ultimaConfirmacion = -1;
+    private volatile long bytesTrama = 0;
+
+    void registrarEnvio() { enviados.increment(); }
+
+    void registrarRetransmision(boolean rapida) {
+        retransmisiones.increment();
+        if (rapida) retransmisionesRapidas.increment();
+    }
+
+    void registrarRtt(long nanos) { rtt.registrar(nanos); }
+
+    void registrarConfirmados(long bytes, long ahora) {
+        bytesConfirmados.add(bytes);
+        bytesTrama += bytes;
+        ultimaConfirmacion = ahora;
+    }
+
+    void registrarVentana(int paquetesEnVuelo, int ventana) {
+        enVuelo.registrar(paquetesEnVuelo);
+        ventanaCongestion = ventana;
+    }
+
+    void registrarInicioTrama(long ahora) {
+        bytesTrama = 0;
+        ultimaConfirmacion = ahora;
+        inicioTrama = ahora;
+    }
+
+    void registrarFinTrama() { tramasCompletadas.increment(); }
+
+    /** @return La distribución del RTT medido, en nanosegundos. */
+    public Histograma getHistogramaRtt() { return rtt; }
+    /** @return La distribución de paquetes en vuelo, muestreada en cada ACK. */
+    public Histograma getHistogramaEnVuelo() { return enVuelo; }
+
+    @Override public long getPaquetesEnviados() { return enviados.sum(); }
+    @Override public long getRetransmisiones() { return retransmisiones.sum(); }
+    @Override public long getRetransmisionesRapidas() { return retransmisionesRapidas.sum(); }
+    @Override public long getBytesConfirmados() { return bytesConfirmados.sum(); }
+    @Override public long getTramasCompletadas() { return tramasCompletadas.sum(); }
+
+    @Override
+    public double getGoodputBytesPorSegundo() {
+        long inicio = inicioTrama;
+        long duracion = ultimaConfirmacion - inicio;
+        return inicio < 0 || duracion <= 0 ? 0 : bytesTrama * 1e9 / duracion;
+    }
+
+    @Override public long getMuestrasRtt() { return rtt.getCuenta(); }
+    @Override public double getRttMedioMs() { return rtt.getMedia() / 1e6; }
+    @Override public double getRttMedianaMs() { return rtt.getPercentil(50) / 1e6; }
+    @Override public double getRttP99Ms() { return rtt.getPercentil(99) / 1e6; }
+    @Override public double getRttMaximoMs() { return rtt.getMaximo() / 1e6; }
+
+    @Override public int getVentanaCongestion() { return ventanaCongestion; }
+    @Override public long getEnVueloMediana() { return enVuelo.getPercentil(50); }
+    @Override public long getEnVueloP99() { return enVuelo.getPercentil(99); }
+    @Override public long getEnVueloMaximo() { return enVuelo.getMaximo(); }
+
+    @Override
+    public void reiniciar() {
+        enviados.reset();
+        retransmisiones.reset();
+        retransmisionesRapidas.reset();
+        bytesConfirmados.reset();
+        tramasCompletadas.reset();
+        rtt.reiniciar();
+        enVuelo.reiniciar();
+    }
+}
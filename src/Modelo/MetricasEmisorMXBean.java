@@ -0,0 +1,31 @@
+package Modelo;
+
+/**
+ * Vista JMX de las {@link MetricasEmisor} de un flujo.
+ */
+public interface MetricasEmisorMXBean {
+    long getPaquetesEnviados();
+    /** @return Retransmisiones por timeout y rápidas. */
+    long getRetransmisiones();
+    long getRetransmisionesRapidas();
+    /** @return Bytes del mensaje confirmados por el receptor. */
+    long getBytesConfirmados();
+    /** @return Bytes confirmados por segundo desde que empezó la trama actual (o la última). */
+    double getGoodputBytesPorSegundo();
+    long getTramasCompletadas();
+
+    long getMuestrasRtt();
+    double getRttMedioMs();
+    double getRttMedianaMs();
+    double getRttP99Ms();
+    double getRttMaximoMs();
+
+    /** @return Ventana de congestión actual, en paquetes. */
+    int getVentanaCongestion();
+    /** @return Mediana de los paquetes en vuelo, muestreada en cada ACK. */
+    long getEnVueloMediana();
+    long getEnVueloP99();
+    long getEnVueloMaximo();
+
+    void reiniciar();
+}
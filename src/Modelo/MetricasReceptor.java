@@ -0,0 +1,53 @@
+package Modelo;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de un {@link ProtocoloReceptor}: lo recibido, lo entregado y cuántos paquetes
+ * esperan fuera de orden en la ventana de reensamblado. Como {@link MetricasEmisor}, se
+ * llenan sin locks y pueden leerse desde cualquier hilo.
+ */
+public class MetricasReceptor implements MetricasReceptorMXBean {
+    private final LongAdder recibidos = new LongAdder();
+    private final LongAdder duplicados = new LongAdder();
+    private final LongAdder corruptos = new LongAdder();
+    private final LongAdder bytesEntregados = new LongAdder();
+    private final LongAdder acksEnviados = new LongAdder();
+    private final LongAdder tramasCompletadas = new LongAdder();
+    private final Histograma reensamblado = new Histograma();
+
+    void registrarRecibido(int retenidos) {
+        recibidos.increment();
+        reensamblado.registrar(retenidos);
+    }
+
+    void registrarDuplicado() { duplicados.increment(); }
+    void registrarCorrupto() { corruptos.increment(); }
+    void registrarEntregados(int bytes) { bytesEntregados.add(bytes); }
+    void registrarAck() { acksEnviados.increment(); }
+    void registrarFinTrama() { tramasCompletadas.increment(); }
+
+    /** @return La distribución de paquetes retenidos fuera de orden, muestreada en cada llegada. */
+    public Histograma getHistogramaReensamblado() { return reensamblado; }
+
+    @Override public long getPaquetesRecibidos() { return recibidos.sum(); }
+    @Override public long getPaquetesDuplicados() { return duplicados.sum(); }
+    @Override public long getPaquetesCorruptos() { return corruptos.sum(); }
+    @Override public long getBytesEntregados() { return bytesEntregados.sum(); }
+    @Override public long getAcksEnviados() { return acksEnviados.sum(); }
+    @Override public long getTramasCompletadas() { return tramasCompletadas.sum(); }
+    @Override public long getReensambladoMediana() { return reensamblado.getPercentil(50); }
+    @Override public long getReensambladoP99() { return reensamblado.getPercentil(99); }
+    @Override public long getReensambladoMaximo() { return reensamblado.getMaximo(); }
+
+    @Override
+    public void reiniciar() {
+        recibidos.reset();
+        duplicados.reset();
+        corruptos.reset();
+        bytesEntregados.reset();
+        acksEnviados.reset();
+        tramasCompletadas.reset();
+        reensamblado.reiniciar();
+    }
+}
@@ -0,0 +1,22 @@
+package Modelo;
+
+/**
+ * Vista JMX de las {@link MetricasReceptor} de un flujo.
+ */
+public interface MetricasReceptorMXBean {
+    /** @return Paquetes de datos nuevos aceptados. */
+    long getPaquetesRecibidos();
+    long getPaquetesDuplicados();
+    long getPaquetesCorruptos();
+    /** @return Bytes entregados en orden al sumidero. */
+    long getBytesEntregados();
+    long getAcksEnviados();
+    long getTramasCompletadas();
+
+    /** @return Mediana de los paquetes retenidos fuera de orden, muestreada en cada llegada. */
+    long getReensambladoMediana();
+    long getReensambladoP99();
+    long getReensambladoMaximo();
+
+    void reiniciar();
+}
@@ -0,0 +1,52 @@
+package Modelo;
+
+import java.util.Random;
+
+/**
+ * Qué le pasa a cada paquete al cruzar un {@link Canal}: si se pierde, cuánto tarda y si
+ * llega corrupto. El canal sólo programa los eventos; todo el comportamiento físico del enlace
+ * (ancho de banda, colas, ráfagas de pérdida, ruido) vive aquí y puede cambiarse por frecuencia.
+ * <p>
+ * El azar lo pone el canal, para que la misma semilla dé la misma simulación. Un modelo puede
+ * guardar estado (una cola, el estado de un canal con ráfagas), así que cada canal necesita el suyo.
+ */
+public interface ModeloCanal {
+
+    /** Lo que devuelve {@link #admitir} para un paquete que no llegará. */
+    long PERDIDO = -1;
+
+    /**
+     * Un paquete entra al canal.
+     * @param ahora Instante del planificador.
+     * @return {@link #PERDIDO}, o cuánto tarda en empezar a cruzar (cola, serialización, latencia).
+     */
+    long admitir(Packet paquete, long ahora, Random random);
+
+    /**
+     * El paquete empieza a cruzar: decide si llegará corrupto. No se llama para los ACKs.
+     */
+    boolean corromper(Packet paquete, Random random);
+
+    /**
+     * @return Cuánto tarda el paquete en cruzar, una vez que empieza (lo que dibuja la animación).
+     */
+    long duracionViaje(Packet paquete);
+
+    /**
+     * @return El reparto justo de la capacidad de los datos entre los flujos del canal, o null
+     *         si comparten una sola cola FIFO (o ninguna). Si lo hay, el canal encola en él los
+     *         datos y sólo llama a {@link #admitir} cuando salen, así que admitir ya no debe
+     *         contar esa cola.
+     */
+    default ColaDrr getRepartoDatos() {
+        return null;
+    }
+
+    /**
+     * El canal original: 25% de pérdida y 25% de corrupción independientes, latencia uniforme
+     * de 100 a 600 ms, viaje de 450 ms y capacidad ilimitada.
+     */
+    static ModeloEnlace original() {
+        return new ModeloEnlace();
+    }
+}
@@ -0,0 +1,159 @@
+package Modelo;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ModeloCanal} configurable por partes. Sin configurar es el canal original; cada
+ * {@code con...} cambia una parte y devuelve el mismo modelo, para encadenarlas:
+ * <pre>
+ *   ModeloCanal.original()
+ *       .conPerdida(ModeloPerdida.rafagas(0.05, 4))
+ *       .conTasaErrorBit(1e-6)
+ *       .conCuelloDeBotella(1_000_000, 64 * 1024, ColaEnlace.Descarte.RED)
+ * </pre>
+ * Un paquete primero pasa por la cola del cuello de botella de su sentido (datos o ACKs),
+ * luego puede perderse en el enlace y por último sufre la latencia variable. La probabilidad
+ * de corrupción crece con su tamaño codificado ({@link CodecPaquete}) si hay tasa de error de bit.
+ */
+public class ModeloEnlace implements ModeloCanal {
+    private ModeloPerdida perdida = ModeloPerdida.bernoulli(0.25);
+    private double probabilidadCorrupcion = 0.25;
+    private double tasaErrorBit = 0;
+    private int latenciaMinMs = 100;
+    private int latenciaMaxMs = 600;
+    private long duracionViajeNanos = TimeUnit.MILLISECONDS.toNanos(450);
+    /** Cuellos de botella de cada sentido, o null si la capacidad es ilimitada. */
+    private ColaEnlace colaDatos;
+    private ColaEnlace colaAcks;
+    /** Reparto de los datos entre flujos, o null si van todos por {@link #colaDatos}. */
+    private ColaDrr repartoDatos;
+
+    // --- Estadísticas ---
+    private long perdidos = 0;
+
+    /**
+     * Cambia quién decide las pérdidas del enlace (las de la cola se deciden aparte).
+     */
+    public ModeloEnlace conPerdida(ModeloPerdida perdida) {
+        this.perdida = perdida;
+        return this;
+    }
+
+    /**
+     * @param probabilidad Probabilidad de corrupción de cada paquete de datos, sin importar su tamaño.
+     */
+    public ModeloEnlace conCorrupcion(double probabilidad) {
+        this.probabilidadCorrupcion = probabilidad;
+        return this;
+    }
+
+    /**
+     * @param tasaErrorBit Probabilidad de que cada bit cambie; un paquete de {@code n} bits se
+     *                     corrompe con probabilidad {@code 1 - (1 - ber)^n}, además de la fija.
+     */
+    public ModeloEnlace conTasaErrorBit(double tasaErrorBit) {
+        this.tasaErrorBit = tasaErrorBit;
+        return this;
+    }
+
+    /**
+     * Latencia uniforme antes de que el paquete empiece a cruzar; al variar, desordena paquetes.
+     */
+    public ModeloEnlace conLatencia(int minimaMs, int maximaMs) {
+        if (minimaMs < 0 || maximaMs < minimaMs) {
+            throw new IllegalArgumentException("Latencia inválida: " + minimaMs + "-" + maximaMs + " ms");
+        }
+        this.latenciaMinMs = minimaMs;
+        this.latenciaMaxMs = maximaMs;
+        return this;
+    }
+
+    /**
+     * @param ms Retardo de propagación: lo que tarda en cruzar (y lo que dura la animación).
+     */
+    public ModeloEnlace conDuracionViaje(int ms) {
+        this.duracionViajeNanos = TimeUnit.MILLISECONDS.toNanos(ms);
+        return this;
+    }
+
+    /**
+     * Limita el ancho de banda de cada sentido, con una cola finita delante.
+     * @param capacidadBytes Bytes que caben en la cola de cada sentido.
+     */
+    public ModeloEnlace conCuelloDeBotella(long bitsPorSegundo, long capacidadBytes, ColaEnlace.Descarte descarte) {
+        this.colaDatos = new ColaEnlace(bitsPorSegundo, capacidadBytes, descarte);
+        this.colaAcks = new ColaEnlace(bitsPorSegundo, capacidadBytes, descarte);
+        this.repartoDatos = null;
+        return this;
+    }
+
+    /**
+     * Limita el ancho de banda de los datos y lo reparte por igual entre los flujos que lo
+     * comparten ({@link ColaDrr}), en lugar de una sola cola FIFO. Los ACKs siguen como estén:
+     * para limitarlos también, llamar antes a {@link #conCuelloDeBotella}.
+     * @param capacidadBytesPorFlujo Bytes que caben en la cola de cada flujo.
+     * @param cuantoBytes Crédito de cada flujo por turno (al menos un paquete completo).
+     */
+    public ModeloEnlace conRepartoJusto(long bitsPorSegundo, long capacidadBytesPorFlujo, int cuantoBytes) {
+        this.repartoDatos = new ColaDrr(bitsPorSegundo, capacidadBytesPorFlujo, cuantoBytes);
+        this.colaDatos = null;
+        return this;
+    }
+
+    @Override
+    public long admitir(Packet paquete, long ahora, Random random) {
+        long espera = 0;
+        ColaEnlace cola = paquete.isAck() ? colaAcks : colaDatos;
+        if (cola != null) {
+            espera = cola.encolar(CodecPaquete.tamanoCodificado(paquete), ahora, random);
+            if (espera == PERDIDO) {
+                return PERDIDO;
+            }
+        }
+        if (perdida.sePierde(random)) {
+            perdidos++;
+            return PERDIDO;
+        }
+        int latencia = latenciaMaxMs > latenciaMinMs
+                ? latenciaMinMs + random.nextInt(latenciaMaxMs - latenciaMinMs)
+                : latenciaMinMs;
+        return espera + TimeUnit.MILLISECONDS.toNanos(latencia);
+    }
+
+    @Override
+    public ColaDrr getRepartoDatos() {
+        return repartoDatos;
+    }
+
+    @Override
+    public boolean corromper(Packet paquete, Random random) {
+        double probabilidad = probabilidadCorrupcion;
+        if (tasaErrorBit > 0) {
+            long bits = 8L * CodecPaquete.tamanoCodificado(paquete);
+            // 1 - (1 - p0)(1 - ber)^bits, estable aunque ber sea diminuta
+            double intacto = Math.exp(bits * Math.log1p(-tasaErrorBit));
+            probabilidad = 1 - (1 - probabilidadCorrupcion) * intacto;
+        }
+        return random.nextDouble() < probabilidad;
+    }
+
+    @Override
+    public long duracionViaje(Packet paquete) {
+        return duracionViajeNanos;
+    }
+
+    /** @return Paquetes que se perdieron en el enlace (sin contar los descartes de las colas). */
+    public long getPerdidos() { return perdidos; }
+    /**
+     * @return El menor RTT posible: ida y vuelta con la latencia mínima, sin colas. Un timeout
+     *         fijo por debajo vence antes que cualquier ACK.
+     */
+    public long getRttMinimoNanos() {
+        return 2 * (TimeUnit.MILLISECONDS.toNanos(latenciaMinMs) + duracionViajeNanos);
+    }
+    /** @return El cuello de botella de los datos, o null si no hay. */
+    public ColaEnlace getColaDatos() { return colaDatos; }
+    /** @return El cuello de botella de los ACKs, o null si no hay. */
+    public ColaEnlace getColaAcks() { return colaAcks; }
+}
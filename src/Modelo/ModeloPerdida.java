@@ -0,0 +1,61 @@
+package Modelo;
+
+import java.util.Random;
+
+/**
+ * Decide qué paquetes se pierden en el enlace (no los que descarta una cola llena).
+ */
+public interface ModeloPerdida {
+
+    /** @return true si el siguiente paquete se pierde. */
+    boolean sePierde(Random random);
+
+    /** Vuelve al estado inicial. */
+    default void reiniciar() {}
+
+    /** Nunca pierde nada. */
+    static ModeloPerdida ninguna() {
+        return random -> false;
+    }
+
+    /**
+     * Pérdidas independientes: cada paquete se pierde con la misma probabilidad.
+     */
+    static ModeloPerdida bernoulli(double probabilidad) {
+        validarProbabilidad(probabilidad);
+        return random -> random.nextDouble() < probabilidad;
+    }
+
+    /**
+     * Pérdidas en ráfagas (Gilbert-Elliott) con el estado malo perdiéndolo todo y el bueno nada.
+     * @param perdidaMedia Fracción de paquetes que se pierden a la larga.
+     * @param longitudMediaRafaga Cuántos paquetes seguidos se pierden en promedio (al menos 1).
+     */
+    static ModeloPerdida rafagas(double perdidaMedia, double longitudMediaRafaga) {
+        validarProbabilidad(perdidaMedia);
+        if (perdidaMedia >= 1 || longitudMediaRafaga < 1) {
+            throw new IllegalArgumentException("Ráfagas inválidas: pérdida " + perdidaMedia
+                    + ", longitud " + longitudMediaRafaga);
+        }
+        double maloABueno = 1 / longitudMediaRafaga;
+        double buenoAMalo = maloABueno * perdidaMedia / (1 - perdidaMedia);
+        return new PerdidaGilbertElliott(buenoAMalo, maloABueno, 0, 1);
+    }
+
+    /**
+     * Gilbert-Elliott completo.
+     * @param buenoAMalo Probabilidad de pasar al estado malo en cada paquete.
+     * @param maloABueno Probabilidad de volver al estado bueno en cada paquete.
+     * @param perdidaBueno Pérdida en el estado bueno.
+     * @param perdidaMalo Pérdida en el estado malo.
+     */
+    static ModeloPerdida gilbertElliott(double buenoAMalo, double maloABueno, double perdidaBueno, double perdidaMalo) {
+        return new PerdidaGilbertElliott(buenoAMalo, maloABueno, perdidaBueno, perdidaMalo);
+    }
+
+    private static void validarProbabilidad(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Probabilidad fuera de [0, 1]: " + p);
+        }
+    }
+}
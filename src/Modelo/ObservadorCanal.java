@@ -0,0 +1,22 @@
+package Modelo;
+
+/**
+ * Interesado en ver los paquetes que cruzan un {@link Canal} (p. ej. la animación de la GUI).
+ * El canal no depende de ningún observador para entregar los paquetes. Se le llama desde el
+ * hilo del planificador del canal, así que debe volver enseguida y sin tocar la interfaz.
+ */
+public interface ObservadorCanal {
+
+    /**
+     * Un paquete sobrevivió a la pérdida y comienza a cruzar el canal.
+     * @param paquete El paquete en viaje.
+     * @param corrupto Si llegará corrupto al destinatario.
+     * @param duracionNanos Cuánto tardará en llegar, en tiempo del planificador.
+     */
+    void paqueteEnViaje(Packet paquete, boolean corrupto, long duracionNanos);
+
+    /**
+     * El canal dejó de tener un receptor conectado; lo que estuviera dibujado ya no aplica.
+     */
+    default void receptorDesconectado() {}
+}
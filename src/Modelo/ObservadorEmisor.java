@@ -0,0 +1,23 @@
+package Modelo;
+
+/**
+ * Notificaciones del {@link ProtocoloEmisor} hacia quien lo controla (la GUI o una simulación).
+ */
+public interface ObservadorEmisor {
+
+    /** Todos los paquetes de la trama (o de la conexión, tras cerrarla) fueron confirmados. */
+    default void transmisionCompletada() {}
+
+    /**
+     * Llegó entero un mensaje de la conexión persistente.
+     * @param numero Orden del mensaje en la conexión, desde 0.
+     */
+    default void mensajeConfirmado(long numero) {}
+
+    /**
+     * La transmisión se abortó porque el canal rechazó un paquete.
+     * @param titulo Título corto del error.
+     * @param mensaje Descripción para el usuario.
+     */
+    default void transmisionFallida(String titulo, String mensaje) {}
+}
@@ -0,0 +1,26 @@
+package Modelo;
+
+/**
+ * Notificaciones del {@link ProtocoloReceptor} hacia quien lo controla (la GUI o una simulación).
+ */
+public interface ObservadorReceptor {
+
+    /** Llegó un HEADER válido y comienza una trama nueva. */
+    default void tramaIniciada(int totalPaquetes) {}
+
+    /** Cambió la cantidad de paquetes recibidos en orden. */
+    default void progreso(int paquetesRecibidos, int totalPaquetes) {}
+
+    /**
+     * La trama está completa, o llegó un mensaje entero de una conexión persistente. Con tramas
+     * sólo se llama con el sumidero predeterminado ({@link SumideroMemoria}).
+     * @param datos El payload ensamblado.
+     */
+    default void mensajeRecibido(byte[] datos) {}
+
+    /**
+     * La trama está completa y el sumidero ya recibió todos sus bytes.
+     * @param bytes Cuántos bytes se entregaron.
+     */
+    default void tramaCompletada(long bytes) {}
+}
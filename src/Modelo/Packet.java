@@ -1,38 +1,122 @@
 package Modelo;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 public class Packet {
     private int sequenceNumber;
-    private byte[] payload;
+    /** A qué conversación del canal pertenece (ver {@link #conFlujo(int)}); 0 en la predeterminada. */
+    private int flujo;
+    /**
+     * Qué trama del Emisor lo envió (ver {@link #conTrama(int)}), para que el Receptor no mezcle
+     * con la trama nueva los reenvíos retrasados de la anterior, que repiten las secuencias.
+     */
+    private int trama;
+    /**
+     * Bytes reales del payload. En los paquetes de datos es una vista de sólo lectura
+     * sobre el mensaje original (no una copia), compartida con sus versiones corruptas.
+     */
+    private ByteBuffer payload;
+    /**
+     * Ruido simulado: posiciones de bit (en orden ascendente) que se leen invertidas.
+     * Es null en un paquete limpio. El buffer nunca se modifica.
+     */
+    private int[] bitsInvertidos;
+    /** Ceros de relleno "virtuales" al final del payload (sólo el último paquete los tiene). */
+    private int relleno;
     private boolean ack;
     private boolean header;
     private int checksum;
+    /** Mapa SACK vacío: el ACK sólo es acumulativo. */
+    public static final long[] SIN_SACK = new long[0];
+    /** Mayor identificador de flujo que admite un canal. */
+    public static final int MAXIMO_FLUJO = 0xFFFF;
+
+    /**
+     * En un ACK acumulativo: el bit {@code i} (bit {@code i & 63} de {@code sack[i >>> 6]})
+     * indica que también llegó la secuencia {@code sequenceNumber + 2 + i}
+     * (la {@code sequenceNumber + 1} es el hueco).
+     */
+    private long[] sack = SIN_SACK;
+    /** Con qué se calculó {@link #checksum}; el receptor verifica con el mismo. */
+    private AlgoritmoChecksum algoritmo;
 
     // Constructor para paquetes de DATOS
     public Packet(int sequenceNumber, byte[] payload) {
+        this(sequenceNumber, ByteBuffer.wrap(payload.clone()).asReadOnlyBuffer(), 0);
+    }
+
+    /**
+     * Constructor para paquetes de DATOS que no copia el payload.
+     * @param payload Vista sobre los bytes del mensaje; no debe modificarse después.
+     * @param relleno Ceros que completan el tamaño de payload sin ocupar memoria.
+     */
+    public Packet(int sequenceNumber, ByteBuffer payload, int relleno) {
+        this(sequenceNumber, payload, relleno, AlgoritmoChecksum.PREDETERMINADO);
+    }
+
+    /**
+     * Como {@link #Packet(int, ByteBuffer, int)}, eligiendo el algoritmo de checksum.
+     * El checksum se calcula aquí, una sola vez, mientras los bytes siguen en caché.
+     */
+    public Packet(int sequenceNumber, ByteBuffer payload, int relleno, AlgoritmoChecksum algoritmo) {
         this.sequenceNumber = sequenceNumber;
-        this.payload = Arrays.copyOf(payload, payload.length);
+        this.payload = payload;
+        this.relleno = relleno;
         this.ack = false;
         this.header = false;
+        this.algoritmo = algoritmo;
         this.checksum = calcularChecksum(this.payload);
     }
 
     // Constructor para paquetes de ACK
     public Packet(int sequenceNumber, boolean isAck) {
+        this(sequenceNumber, isAck, SIN_SACK);
+    }
+
+    /**
+     * ACK acumulativo con SACK: confirma todas las secuencias hasta {@code sequenceNumber}
+     * (-1 confirma sólo el HEADER) y, en {@code sack}, las de después del hueco que ya llegaron.
+     * @param sack Mapa de bits; no se copia, no debe modificarse después.
+     */
+    public Packet(int sequenceNumber, boolean isAck, long[] sack) {
         this.sequenceNumber = sequenceNumber;
         this.ack = isAck;
+        this.sack = sack;
         this.header = false;
         this.payload = null;
+        this.algoritmo = AlgoritmoChecksum.PREDETERMINADO;
         this.checksum = sequenceNumber;
     }
 
     // Constructor para el paquete de HEADER
     public Packet(int totalPackets) {
+        this(totalPackets, AlgoritmoChecksum.PREDETERMINADO);
+    }
+
+    public Packet(int totalPackets, AlgoritmoChecksum algoritmo) {
+        this(totalPackets, 0, algoritmo);
+    }
+
+    /**
+     * HEADER que además anuncia el tamaño de payload de la trama,
+     * para que el receptor pueda reservar el mensaje completo de antemano.
+     */
+    public Packet(int totalPackets, int tamanoPayload, AlgoritmoChecksum algoritmo) {
+        this(totalPackets, tamanoPayload, -1, algoritmo);
+    }
+
+    /**
+     * HEADER que anuncia también la longitud exacta del mensaje en bytes,
+     * así el último paquete no necesita relleno.
+     * @param longitud Bytes del mensaje, o -1 si no se anuncia.
+     */
+    public Packet(int totalPackets, int tamanoPayload, long longitud, AlgoritmoChecksum algoritmo) {
         this.sequenceNumber = -1;
         this.ack = false;
         this.header = true;
-        this.payload = java.nio.ByteBuffer.allocate(4).putInt(totalPackets).array();
+        this.algoritmo = algoritmo;
+        this.payload = ByteBuffer.allocate(16).putInt(0, totalPackets).putInt(4, tamanoPayload).putLong(8, longitud);
         this.checksum = calcularChecksum(this.payload);
     }
 
@@ -41,29 +125,137 @@ public class Packet {
      */
     public Packet(Packet original) {
         this.sequenceNumber = original.sequenceNumber;
+        this.flujo = original.flujo;
+        this.trama = original.trama;
         this.ack = original.ack;
+        this.sack = original.sack;
         this.header = original.header;
+        this.relleno = original.relleno;
+        this.algoritmo = original.algoritmo;
         this.checksum = original.checksum; // Copia la firma original
 
         // Copia el payload para que podamos corromperlo sin dañar el original
         if (original.payload != null) {
-            this.payload = Arrays.copyOf(original.payload, original.payload.length);
+            this.payload = ByteBuffer.allocate(original.payload.remaining());
+            this.payload.put(0, original.payload, original.payload.position(), original.payload.remaining());
         } else {
             this.payload = null;
         }
     }
+    /**
+     * Vista corrupta de otro paquete: mismo buffer, más una inversión de bit.
+     */
+    private Packet(Packet original, int[] bitsInvertidos) {
+        this(original, original.flujo, original.trama, bitsInvertidos);
+    }
+
+    /**
+     * Vista de otro paquete en el flujo {@code flujo} y la trama {@code trama}, con el ruido
+     * {@code bitsInvertidos}.
+     */
+    private Packet(Packet original, int flujo, int trama, int[] bitsInvertidos) {
+        this.sequenceNumber = original.sequenceNumber;
+        this.flujo = flujo;
+        this.trama = trama;
+        this.ack = original.ack;
+        this.sack = original.sack;
+        this.header = original.header;
+        this.relleno = original.relleno;
+        this.algoritmo = original.algoritmo;
+        this.checksum = original.checksum; // Conserva la firma original
+        this.payload = original.payload;
+        this.bitsInvertidos = bitsInvertidos;
+    }
+
+    /**
+     * Paquete reconstruido por {@link CodecPaquete}: todos los campos vienen del cable,
+     * incluido el checksum original, y nada se recalcula.
+     */
+    Packet(int flujo, int trama, int sequenceNumber, boolean ack, boolean header, ByteBuffer payload, int relleno,
+           long[] sack, int checksum, AlgoritmoChecksum algoritmo) {
+        this.flujo = flujo;
+        this.trama = trama;
+        this.sequenceNumber = sequenceNumber;
+        this.ack = ack;
+        this.header = header;
+        this.payload = payload;
+        this.relleno = relleno;
+        this.sack = sack;
+        this.checksum = checksum;
+        this.algoritmo = algoritmo;
+    }
     // ------------------------------------------
 
     /**
-     * Calcula un checksum simple sumando todos los bytes.
+     * Devuelve este mismo paquete marcado con otro flujo, para que varias parejas Emisor/Receptor
+     * compartan una frecuencia: el canal entrega cada paquete a los extremos de su flujo.
+     * No copia el payload; el checksum no cubre el flujo.
+     *
+     * @param flujo Entre 0 y {@link #MAXIMO_FLUJO}.
      */
-    private int calcularChecksum(byte[] data) {
-        if (data == null) return 0;
-        int sum = 0;
-        for (byte b : data) {
-            sum += b;
+    public Packet conFlujo(int flujo) {
+        return conEtiquetas(flujo, trama);
+    }
+
+    /**
+     * Devuelve este mismo paquete marcado como enviado en la trama {@code trama} del Emisor (o,
+     * en un ACK, como respuesta a ella). No copia el payload; el checksum no cubre la trama.
+     *
+     * @param trama Cualquier valor; sólo se compara por igualdad.
+     */
+    public Packet conTrama(int trama) {
+        return conEtiquetas(flujo, trama);
+    }
+
+    /**
+     * Como {@link #conFlujo(int)} y {@link #conTrama(int)} a la vez, con una sola vista.
+     */
+    public Packet conEtiquetas(int flujo, int trama) {
+        if (flujo < 0 || flujo > MAXIMO_FLUJO) {
+            throw new IllegalArgumentException("Flujo fuera de rango: " + flujo);
+        }
+        if (flujo == this.flujo && trama == this.trama) return this;
+        return new Packet(this, flujo, trama, bitsInvertidos);
+    }
+
+    /**
+     * Devuelve este paquete tal como llegaría con un bit volteado por ruido.
+     * No copia el payload ni modifica este paquete: ocupa lo mismo sin importar su tamaño.
+     *
+     * @param posicionBit Bit a invertir, entre 0 y {@code 8 * getLongitudSinRelleno() - 1}.
+     */
+    public Packet conBitInvertido(int posicionBit) {
+        if (payload == null || posicionBit < 0 || posicionBit >= payload.remaining() * 8) {
+            throw new IndexOutOfBoundsException("Bit fuera del payload: " + posicionBit);
         }
-        return sum;
+        int[] bits;
+        if (bitsInvertidos == null) {
+            bits = new int[] {posicionBit};
+        } else {
+            // Mantiene el orden; invertir dos veces el mismo bit lo deja intacto
+            int indice = Arrays.binarySearch(bitsInvertidos, posicionBit);
+            if (indice >= 0) {
+                bits = new int[bitsInvertidos.length - 1];
+                System.arraycopy(bitsInvertidos, 0, bits, 0, indice);
+                System.arraycopy(bitsInvertidos, indice + 1, bits, indice, bits.length - indice);
+            } else {
+                int insercion = -indice - 1;
+                bits = new int[bitsInvertidos.length + 1];
+                System.arraycopy(bitsInvertidos, 0, bits, 0, insercion);
+                bits[insercion] = posicionBit;
+                System.arraycopy(bitsInvertidos, insercion, bits, insercion + 1, bitsInvertidos.length - insercion);
+            }
+        }
+        return new Packet(this, bits.length == 0 ? null : bits);
+    }
+
+    /**
+     * Calcula el checksum de los bytes reales del payload, directamente sobre el buffer.
+     * El relleno virtual no viaja, así que no forma parte de la firma.
+     */
+    private int calcularChecksum(ByteBuffer data) {
+        if (data == null) return 0;
+        return algoritmo.calcular(data);
     }
 
     /**
@@ -73,17 +265,84 @@ public class Packet {
         if (this.ack) {
             return this.checksum != this.sequenceNumber;
         } else {
-            // Compara la firma original (checksum) con la firma del payload actual
+            // Compara la firma original (checksum) con la firma del payload tal como llegó
+            if (bitsInvertidos != null) {
+                return this.checksum != algoritmo.calcular(this.payload, bitsInvertidos);
+            }
             return this.checksum != calcularChecksum(this.payload);
         }
     }
 
+    /**
+     * Copia el payload (incluido el relleno y el ruido) en {@code destino} a partir de {@code offset}.
+     * No modifica la posición del buffer interno.
+     */
+    public void copiarPayload(byte[] destino, int offset) {
+        if (payload == null) return;
+        int bytesReales = payload.remaining();
+        payload.get(payload.position(), destino, offset, bytesReales);
+        Arrays.fill(destino, offset + bytesReales, offset + bytesReales + relleno, (byte) 0);
+        if (bitsInvertidos != null) {
+            for (int bit : bitsInvertidos) {
+                destino[offset + (bit >>> 3)] ^= (byte) (1 << (bit & 7));
+            }
+        }
+    }
+
+    /**
+     * Escribe los bytes reales del payload (con el ruido, sin el relleno) en {@code destino},
+     * avanzando su posición. Lo usa {@link CodecPaquete} para no materializar una copia.
+     */
+    void escribirPayload(ByteBuffer destino) {
+        if (payload == null) return;
+        int inicio = destino.position();
+        destino.put(payload.duplicate());
+        if (bitsInvertidos != null) {
+            for (int bit : bitsInvertidos) {
+                int indice = inicio + (bit >>> 3);
+                destino.put(indice, (byte) (destino.get(indice) ^ (1 << (bit & 7))));
+            }
+        }
+    }
+
+    /** @return Ceros de relleno virtual al final del payload. */
+    int getRelleno() { return relleno; }
+
     // --- Getters ---
     public int getSequenceNumber() { return sequenceNumber; }
-    public byte[] getPayload() { return payload; }
+    /** @return El flujo del canal al que pertenece; 0 si nunca se marcó con {@link #conFlujo(int)}. */
+    public int getFlujo() { return flujo; }
+    /** @return La trama del Emisor a la que pertenece; 0 si nunca se marcó con {@link #conTrama(int)}. */
+    public int getTrama() { return trama; }
+    /**
+     * @return Una vista de sólo lectura de los bytes reales del payload (sin el relleno),
+     *         o null en un ACK. Tiene su propia posición, así que puede consumirse libremente.
+     *         Si el paquete viene corrupto, es una copia con el ruido ya aplicado.
+     */
+    public ByteBuffer getPayload() {
+        if (payload == null) return null;
+        if (bitsInvertidos == null) return payload.asReadOnlyBuffer();
+
+        byte[] conRuido = new byte[payload.remaining()];
+        payload.get(payload.position(), conRuido);
+        for (int bit : bitsInvertidos) {
+            conRuido[bit >>> 3] ^= (byte) (1 << (bit & 7));
+        }
+        return ByteBuffer.wrap(conRuido).asReadOnlyBuffer();
+    }
+    /** @return La longitud del payload incluyendo el relleno virtual. */
+    public int getLongitudPayload() { return payload == null ? 0 : payload.remaining() + relleno; }
+    /** @return Cuántos bytes del payload existen de verdad (sin el relleno virtual). */
+    public int getLongitudSinRelleno() { return payload == null ? 0 : payload.remaining(); }
     public boolean isAck() { return ack; }
     public boolean isHeader() { return header; }
+    /**
+     * @return El mapa SACK de un ACK (ver {@link #Packet(int, boolean, long[])}), vacío si no hay.
+     *         Es el arreglo interno: no debe modificarse.
+     */
+    public long[] getSack() { return sack; }
     public int getChecksum() { return checksum; }
+    public AlgoritmoChecksum getAlgoritmoChecksum() { return algoritmo; }
     /**
      * Helper para decodificar el payload si este paquete es un header.
      * @return El número total de paquetes que anuncia este header.
@@ -93,6 +352,26 @@ public class Packet {
             return 0; // O lanzar una excepción
         }
         // Convierte los 4 bytes del payload de vuelta a un 'int'
-        return java.nio.ByteBuffer.wrap(this.payload).getInt();
+        return this.payload.getInt(this.payload.position());
+    }
+
+    /**
+     * @return El tamaño de payload que anuncia este header, o 0 si no lo anuncia.
+     */
+    public int getTamanoPayloadFromHeader() {
+        if (!this.header) {
+            return 0;
+        }
+        return this.payload.getInt(this.payload.position() + 4);
+    }
+
+    /**
+     * @return La longitud exacta del mensaje que anuncia este header, o -1 si no la anuncia.
+     */
+    public long getLongitudFromHeader() {
+        if (!this.header || this.payload.remaining() < 16) {
+            return -1;
+        }
+        return this.payload.getLong(this.payload.position() + 8);
     }
-}
\ No newline at end of file
+}
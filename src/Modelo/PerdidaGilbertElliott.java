@@ -0,0 +1,56 @@
+package Modelo;
+
+import java.util.Random;
+
+/**
+ * Modelo de Gilbert-Elliott: una cadena de Markov de dos estados, bueno y malo, cada uno con
+ * su propia probabilidad de pérdida. Las pérdidas llegan en ráfagas, como en un enlace
+ * inalámbrico que se desvanece, en lugar de repartirse al azar.
+ * <p>
+ * Con {@code p = buenoAMalo} y {@code r = maloABueno}, el canal pasa una fracción
+ * {@code p / (p + r)} del tiempo en el estado malo, y cada visita dura en promedio {@code 1 / r} paquetes.
+ */
+public class PerdidaGilbertElliott implements ModeloPerdida {
+    private final double buenoAMalo;
+    private final double maloABueno;
+    private final double perdidaBueno;
+    private final double perdidaMalo;
+
+    private boolean enMalo = false;
+
+    public PerdidaGilbertElliott(double buenoAMalo, double maloABueno, double perdidaBueno, double perdidaMalo) {
+        for (double p : new double[] {buenoAMalo, maloABueno, perdidaBueno, perdidaMalo}) {
+            if (!(p >= 0 && p <= 1)) {
+                throw new IllegalArgumentException("Probabilidad fuera de [0, 1]: " + p);
+            }
+        }
+        this.buenoAMalo = buenoAMalo;
+        this.maloABueno = maloABueno;
+        this.perdidaBueno = perdidaBueno;
+        this.perdidaMalo = perdidaMalo;
+    }
+
+    @Override
+    public boolean sePierde(Random random) {
+        if (enMalo) {
+            if (random.nextDouble() < maloABueno) enMalo = false;
+        } else {
+            if (random.nextDouble() < buenoAMalo) enMalo = true;
+        }
+        return random.nextDouble() < (enMalo ? perdidaMalo : perdidaBueno);
+    }
+
+    @Override
+    public void reiniciar() {
+        enMalo = false;
+    }
+
+    /** @return La fracción de paquetes que se pierden a la larga. */
+    public double getPerdidaMedia() {
+        double suma = buenoAMalo + maloABueno;
+        double fraccionMalo = suma == 0 ? 0 : buenoAMalo / suma;
+        return fraccionMalo * perdidaMalo + (1 - fraccionMalo) * perdidaBueno;
+    }
+
+    public boolean isEnMalo() { return enMalo; }
+}
@@ -0,0 +1,20 @@
+package Modelo;
+
+/**
+ * Fuente de tiempo de la simulación.
+ * Todo lo que "tarda" (latencia, viaje, timeouts de retransmisión) se programa
+ * aquí en lugar de depender de animaciones de JavaFX.
+ */
+public interface Planificador {
+
+    /**
+     * @return El tiempo actual del reloj, en nanosegundos desde su creación.
+     */
+    long ahora();
+
+    /**
+     * Programa una acción para que se ejecute dentro de {@code retardoNanos}.
+     * @return El evento programado, que puede cancelarse antes de que ocurra.
+     */
+    Evento programar(long retardoNanos, Runnable accion);
+}
@@ -0,0 +1,60 @@
+package Modelo;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Planificador con el reloj de pared, para cuando los paquetes viajan de verdad
+ * (p. ej. por {@link CanalUdp}) y el tiempo no puede saltar de evento en evento.
+ * <p>
+ * Todos los eventos se ejecutan en un único hilo propio, así que el protocolo sigue sin
+ * necesitar sincronización. A diferencia de {@link PlanificadorVirtual}, {@link #programar}
+ * puede llamarse desde cualquier hilo: es como otros hilos (la red) le pasan trabajo.
+ */
+public class PlanificadorTiempoReal implements Planificador, AutoCloseable {
+    private final ScheduledExecutorService hilo;
+    private final long inicio = System.nanoTime();
+    private final AtomicLong contadorEventos = new AtomicLong();
+
+    public PlanificadorTiempoReal() {
+        this("planificador");
+    }
+
+    /**
+     * @param nombreHilo Nombre del hilo de eventos (es daemon: no impide que la JVM termine).
+     */
+    public PlanificadorTiempoReal(String nombreHilo) {
+        this.hilo = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread t = new Thread(tarea, nombreHilo);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public long ahora() {
+        return System.nanoTime() - inicio;
+    }
+
+    @Override
+    public Evento programar(long retardoNanos, Runnable accion) {
+        long retardo = Math.max(0, retardoNanos);
+        Evento evento = new Evento(ahora() + retardo, contadorEventos.getAndIncrement(), accion);
+        hilo.schedule(() -> {
+            if (!evento.isCancelado()) {
+                evento.ejecutar();
+            }
+        }, retardo, TimeUnit.NANOSECONDS);
+        return evento;
+    }
+
+    /**
+     * Detiene el hilo de eventos; los pendientes ya no se ejecutan.
+     */
+    @Override
+    public void close() {
+        hilo.shutdownNow();
+    }
+}
@@ -0,0 +1,83 @@
+package Modelo;
+
+import java.util.PriorityQueue;
+
+/**
+ * Planificador de eventos discretos con reloj virtual.
+ * El tiempo no avanza solo: salta de un evento al siguiente, por lo que una
+ * simulación sin interfaz se ejecuta tan rápido como lo permita la CPU.
+ * La GUI lo avanza al ritmo del reloj de pared con {@link #avanzarHasta(long)}.
+ *
+ * No es thread-safe: todos los eventos de un planificador se ejecutan en un único hilo.
+ */
+public class PlanificadorVirtual implements Planificador {
+    private final PriorityQueue<Evento> cola = new PriorityQueue<>();
+    private long ahora = 0;
+    private long contadorEventos = 0;
+
+    @Override
+    public long ahora() {
+        return ahora;
+    }
+
+    @Override
+    public Evento programar(long retardoNanos, Runnable accion) {
+        Evento evento = new Evento(ahora + Math.max(0, retardoNanos), contadorEventos++, accion);
+        cola.add(evento);
+        return evento;
+    }
+
+    /**
+     * Ejecuta el siguiente evento pendiente, adelantando el reloj hasta su instante.
+     * @return false si ya no quedaban eventos.
+     */
+    public boolean ejecutarSiguiente() {
+        Evento evento;
+        while ((evento = cola.poll()) != null) {
+            if (evento.isCancelado()) continue;
+            ahora = evento.getTiempo();
+            evento.ejecutar();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Ejecuta eventos hasta vaciar la cola.
+     * @return El número de eventos ejecutados.
+     */
+    public long ejecutarTodo() {
+        long ejecutados = 0;
+        while (ejecutarSiguiente()) {
+            ejecutados++;
+        }
+        return ejecutados;
+    }
+
+    /**
+     * Ejecuta todos los eventos con instante menor o igual a {@code instante}
+     * y deja el reloj en ese instante. Usado por la GUI para avanzar en tiempo real.
+     */
+    public void avanzarHasta(long instante) {
+        Evento evento;
+        while ((evento = cola.peek()) != null && evento.getTiempo() <= instante) {
+            cola.poll();
+            if (evento.isCancelado()) continue;
+            ahora = evento.getTiempo();
+            evento.ejecutar();
+        }
+        if (instante > ahora) {
+            ahora = instante;
+        }
+    }
+
+    /**
+     * @return true si queda algún evento sin cancelar.
+     */
+    public boolean hayEventosPendientes() {
+        while (!cola.isEmpty() && cola.peek().isCancelado()) {
+            cola.poll();
+        }
+        return !cola.isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffers directos de tamaño fijo que se reciclan, para leer y escribir datagramas sin
+ * reservar memoria (ni pasar por un arreglo del heap) en cada uno.
+ * Es thread-safe: un hilo puede tomar un buffer y otro devolverlo.
+ */
+public class PoolBuffers {
+    private final int capacidad;
+    private final int maximoLibres;
+    private final ConcurrentLinkedQueue<ByteBuffer> libres = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param capacidad Bytes de cada buffer.
+     * @param maximoLibres Cuántos buffers devueltos se guardan; el resto se deja al GC.
+     */
+    public PoolBuffers(int capacidad, int maximoLibres) {
+        if (capacidad <= 0 || maximoLibres < 0) {
+            throw new IllegalArgumentException("Capacidad inválida: " + capacidad + " x " + maximoLibres);
+        }
+        this.capacidad = capacidad;
+        this.maximoLibres = maximoLibres;
+    }
+
+    /**
+     * @return Un buffer vacío (posición 0, límite en la capacidad).
+     */
+    public ByteBuffer tomar() {
+        ByteBuffer buffer = libres.poll();
+        return buffer != null ? buffer.clear() : ByteBuffer.allocateDirect(capacidad);
+    }
+
+    /**
+     * Devuelve un buffer tomado de este pool. Quien lo devuelve ya no debe usarlo,
+     * ni a ninguna vista (slice) creada sobre él.
+     */
+    public void devolver(ByteBuffer buffer) {
+        if (buffer.capacity() == capacidad && buffer.isDirect() && libres.size() < maximoLibres) {
+            libres.offer(buffer);
+        }
+    }
+
+    public int getCapacidad() { return capacidad; }
+}
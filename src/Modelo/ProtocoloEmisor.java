@@ -0,0 +1,756 @@
+package Modelo;
+
+import Modelo.RuedaDeTemporizadores.Temporizador;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lógica del lado emisor: handshake, ventana deslizante y retransmisión por timeout
+ * o, antes, cuando los SACK muestran que llegaron suficientes paquetes posteriores.
+ * No depende de JavaFX; los timeouts viven en una {@link RuedaDeTemporizadores} propia,
+ * movida por el {@link Planificador} del canal, y su duración la decide un {@link EstimadorRTT}.
+ * Cuántos paquetes puede haber en vuelo lo decide un {@link ControlCongestion}.
+ * <p>
+ * Además de tramas sueltas, mantiene conexiones persistentes ({@link #abrirConexion(int)}):
+ * un solo handshake y después los mensajes que se encolen, uno detrás de otro en la ventana.
+ */
+public class ProtocoloEmisor {
+
+    // --- Configuración de la Ventana ---
+    /**
+     * Tope de paquetes en vuelo, sea cual sea la ventana de congestión: más allá de la
+     * ventana de recepción el Receptor descarta los paquetes sin confirmarlos.
+     */
+    public static final int VENTANA_MAXIMA = ProtocoloReceptor.VENTANA_RECEPCION_PREDETERMINADA;
+    /**
+     * Ventana fija sugerida para {@link ControlCongestion#fija(int)}. Sobre el {@link Canal}
+     * original, sin capacidad limitada y con pérdidas que no dependen de la carga, da más goodput
+     * que Reno; pero sin cuello de botella propio desborda cualquier cola que sí lo tenga, así
+     * que el predeterminado es Reno ({@link #controlPredeterminado()}).
+     */
+    public static final int VENTANA_PREDETERMINADA = 64;
+    /**
+     * Paquetes posteriores confirmados por SACK (equivale a ACKs duplicados) a partir de
+     * los cuales un hueco se da por perdido y se retransmite sin esperar al timeout.
+     */
+    public static final int UMBRAL_DUPLICADOS_PREDETERMINADO = 3;
+    /** Temporizadores con los que empieza el anillo; crece (potencias de 2) con la ventana. */
+    private static final int CAPACIDAD_INICIAL_TIMERS = 4;
+    /** Resolución de la rueda de timeouts: un timeout puede vencer hasta esto de tarde. */
+    private static final long RESOLUCION_TIMERS_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    /** 256 ranuras de 10 ms cubren el timeout en una sola vuelta. */
+    private static final int RANURAS_TIMERS = 256;
+    /**
+     * RTOs que espera el respaldo de un paquete confirmado sólo por SACK: mientras los ACKs lo
+     * sigan mostrando no vence, y con uno solo vencería cada vez que se pierden unos pocos ACKs.
+     */
+    private static final int RTOS_RESPALDO_SACK = 2;
+
+    private Canal canalActual;
+    /** Flujo del canal en el que conversa con su Receptor. */
+    private int flujo = 0;
+    private ObservadorEmisor observador;
+
+    // --- Estado de la Transmisión ---
+    private List<Packet> tramaPendiente;
+    /**
+     * Número de la trama en curso ({@link Canal#reservarTrama(int)}), que marca cada paquete: las
+     * secuencias empiezan en 0 en cada trama, así que sin él un ACK retrasado de la anterior
+     * confirmaría paquetes de esta.
+     */
+    private int numeroTrama = 0;
+    /** La misma lista que {@code tramaPendiente} si es una conexión persistente; si no, null. */
+    private ColaMensajes conexion;
+    private int ventanaBase = 0;
+    private int proximoSeqNum = 0;
+    /**
+     * Los timeouts de paquetes enviados antes de este número son parte de una pérdida que
+     * el control de congestión ya conoce, así que no vuelven a reducir la ventana.
+     */
+    private int puntoRecuperacion = 0;
+    /** Paquetes entre la base y {@code proximoSeqNum} ya confirmados por SACK. */
+    private int sackeados = 0;
+    /** La mayor secuencia confirmada por SACK (sólo tiene sentido si {@code sackeados > 0}). */
+    private int mayorSackeado = -1;
+
+    private boolean handshakeCompletado = false;
+    private boolean transmitiendo = false;
+
+    /** Rueda de timeouts; se crea con el planificador del canal al que se sintoniza. */
+    private RuedaDeTemporizadores rueda;
+    /**
+     * Un temporizador reutilizable por cada posición de la ventana (más el HEADER);
+     * el paquete {@code seq} usa el de índice {@code (seq + 1) & mascaraTimers}.
+     */
+    private Temporizador[] timers;
+    private int mascaraTimers;
+    /** Cuándo se envió por primera vez el paquete de cada timer, para medir el RTT. */
+    private long[] instanteEnvio;
+    /** Si el paquete de cada timer se retransmitió (regla de Karn: no se muestrea). */
+    private boolean[] retransmitido;
+    /**
+     * Si el paquete de cada timer sólo está confirmado por SACK. Su timer sigue armado como
+     * respaldo: el Receptor puede descartar lo que retenía (RFC 2018), y entonces nadie más
+     * lo volvería a enviar. Cada ACK que lo sigue mostrando lo aplaza.
+     */
+    private boolean[] sackeado;
+    /**
+     * Para los retransmitidos: el {@code proximoSeqNum} en la última retransmisión. Sólo los
+     * paquetes desde ahí salieron después, así que sólo ellos prueban que se volvió a perder.
+     */
+    private int[] marcaRetransmision;
+    /** Auxiliar de {@link #retransmitirPerdidos()}: SACKeados desde cada casilla hacia arriba. */
+    private int[] sackeadosDesde;
+    private final EstimadorRTT estimadorRTT;
+    private final ControlCongestion controlCongestion;
+    private final int umbralDuplicados;
+
+    // --- Estadísticas ---
+    private final MetricasEmisor metricas = new MetricasEmisor();
+    /** Tamaño de payload y longitud del mensaje que anuncia el HEADER, para contar bytes confirmados. */
+    private int tamanoPayloadTrama;
+    private long longitudTrama;
+    /** Evento JFR de la trama en curso, o null si no hay ninguna. */
+    private EventoJfrTrama eventoTrama;
+    private long inicioTrama;
+    private long enviadosAlInicio;
+    private long retransmisionesAlInicio;
+
+    /**
+     * Emisor con RTO adaptativo con retroceso exponencial (ver {@link EstimadorRTT})
+     * y control de congestión Reno ({@link ControlReno}).
+     */
+    public ProtocoloEmisor() {
+        this(estimadorPredeterminado());
+    }
+
+    /** @return Un control de congestión nuevo como el que usa {@link #ProtocoloEmisor()}. */
+    public static ControlCongestion controlPredeterminado() {
+        return ControlCongestion.reno();
+    }
+
+    /** @return Un estimador nuevo como el que usa {@link #ProtocoloEmisor()}. */
+    public static EstimadorRTT estimadorPredeterminado() {
+        return EstimadorRTT.adaptativo(RESOLUCION_TIMERS_NANOS);
+    }
+
+    /**
+     * @param estimadorRTT Cómo se calcula el timeout; {@link EstimadorRTT#fijo(long)} para uno constante.
+     *                     No debe compartirse entre emisores.
+     */
+    public ProtocoloEmisor(EstimadorRTT estimadorRTT) {
+        this(estimadorRTT, controlPredeterminado());
+    }
+
+    /**
+     * @param controlCongestion Decide la ventana; {@link ControlCongestion#fija(int)} para una constante.
+     *                          Tampoco debe compartirse.
+     */
+    public ProtocoloEmisor(EstimadorRTT estimadorRTT, ControlCongestion controlCongestion) {
+        this(estimadorRTT, controlCongestion, UMBRAL_DUPLICADOS_PREDETERMINADO);
+    }
+
+    /**
+     * @param umbralDuplicados Paquetes posteriores a un hueco que deben llegar para retransmitirlo
+     *                         sin esperar al timeout; 0 o menos lo desactiva.
+     */
+    public ProtocoloEmisor(EstimadorRTT estimadorRTT, ControlCongestion controlCongestion, int umbralDuplicados) {
+        this.estimadorRTT = estimadorRTT;
+        this.controlCongestion = controlCongestion;
+        this.umbralDuplicados = umbralDuplicados;
+        this.timers = new Temporizador[CAPACIDAD_INICIAL_TIMERS];
+        for (int i = 0; i < timers.length; i++) {
+            timers[i] = new Temporizador();
+        }
+        this.mascaraTimers = timers.length - 1;
+        this.instanteEnvio = new long[timers.length];
+        this.retransmitido = new boolean[timers.length];
+        this.sackeado = new boolean[timers.length];
+        this.marcaRetransmision = new int[timers.length];
+        this.sackeadosDesde = new int[timers.length];
+    }
+
+    public void setObservador(ObservadorEmisor observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Se conecta a un canal, desconectándose antes del anterior.
+     */
+    public void sintonizar(Canal canal) {
+        sintonizar(canal, 0);
+    }
+
+    /**
+     * Se conecta a un flujo de un canal, para compartir la frecuencia con otras parejas.
+     * Su Receptor debe sintonizar el mismo flujo.
+     * @param flujo Entre 0 y {@link Packet#MAXIMO_FLUJO}.
+     */
+    public void sintonizar(Canal canal, int flujo) {
+        if (flujo < 0 || flujo > Packet.MAXIMO_FLUJO) {
+            throw new IllegalArgumentException("Flujo fuera de rango: " + flujo);
+        }
+        abortar();
+        if (canalActual != null) {
+            canalActual.desconectarEmisor(this);
+        }
+        this.flujo = flujo;
+        canalActual = canal;
+        canalActual.conectarEmisor(this);
+        estimadorRTT.reiniciar();
+        controlCongestion.reiniciar();
+        rueda = new RuedaDeTemporizadores(canal.getPlanificadorEmisor(), RESOLUCION_TIMERS_NANOS, RANURAS_TIMERS, this::alVencerTimer);
+    }
+
+    public Canal getCanal() {
+        return canalActual;
+    }
+
+    public int getFlujo() {
+        return flujo;
+    }
+
+    /**
+     * Inicia el envío de una trama ya segmentada (el HEADER en la posición 0).
+     * @return false si no se pudo iniciar (trama vacía o sin canal).
+     */
+    public boolean enviar(List<Packet> trama) {
+        abortar(); // Limpia timers y estado de una transmisión anterior
+        this.tramaPendiente = trama;
+        this.conexion = trama instanceof ColaMensajes cola ? cola : null;
+
+        if (tramaPendiente.isEmpty() || canalActual == null) {
+            return false;
+        }
+        numeroTrama = canalActual.reservarTrama(flujo);
+        transmitiendo = true;
+
+        Packet headerPacket = tramaPendiente.get(0);
+        tamanoPayloadTrama = headerPacket.getTamanoPayloadFromHeader();
+        longitudTrama = headerPacket.getLongitudFromHeader();
+        abrirTrama();
+
+        Bitacora.info("EMISOR: Iniciando handshake. Enviando Header (seq={})", headerPacket.getSequenceNumber());
+        if (transmitir(headerPacket)) {
+            registrarEnvio(headerPacket.getSequenceNumber());
+            iniciarTimerPara(headerPacket);
+        } else {
+            // ¡FALLO INMEDIATO! No hay receptor.
+            fallar("Error de Envío", "No hay ningún receptor sintonizado en el Canal " + canalActual.getFrecuencia());
+        }
+        return transmitiendo;
+    }
+
+    /**
+     * Abre una conexión persistente: envía un HEADER sin fin anunciado y, tras el handshake,
+     * cada mensaje que se encole sale en cuanto haya sitio en la ventana, sin esperar a que
+     * se confirme el anterior. Aborta cualquier transmisión en curso.
+     * @return false si no se pudo iniciar (sin canal o sin receptor).
+     */
+    public boolean abrirConexion(int tamanoPayload) {
+        return enviar(new ColaMensajes(tamanoPayload, AlgoritmoChecksum.PREDETERMINADO));
+    }
+
+    /**
+     * Pone un mensaje al final de la conexión abierta; sale ya si el handshake terminó y la
+     * ventana lo permite. {@link ObservadorEmisor#mensajeConfirmado(long)} avisa cuando llega.
+     * @return false si no hay una conexión abierta que acepte mensajes, o si el mensaje ya no
+     *         cabe en su numeración (hay que abrir otra).
+     */
+    public boolean encolarMensaje(byte[] mensaje) {
+        if (conexion == null || conexion.isCerrada() || !conexion.admite(mensaje.length)) {
+            return false;
+        }
+        conexion.agregar(mensaje);
+        if (handshakeCompletado) {
+            enviarVentana();
+        }
+        return true;
+    }
+
+    /**
+     * Deja de aceptar mensajes; la conexión termina, con
+     * {@link ObservadorEmisor#transmisionCompletada()}, cuando se confirme lo encolado.
+     */
+    public void cerrarConexion() {
+        if (conexion == null) return;
+        conexion.cerrar();
+        comprobarFin();
+    }
+
+    /** @return true si hay una conexión persistente que todavía acepta mensajes. */
+    public boolean isConexionAbierta() {
+        return conexion != null && !conexion.isCerrada();
+    }
+
+    /**
+     * Envía todos los paquetes nuevos que quepan en la ventana actual. Los ya confirmados por
+     * SACK no ocupan ventana aunque la base no haya avanzado: así, mientras se recupera un
+     * hueco, siguen saliendo paquetes nuevos y la tubería no se vacía.
+     */
+    private void enviarVentana() {
+        int ventana = controlCongestion.getVentana();
+        while (transmitiendo &&
+                proximoSeqNum + 1 < tramaPendiente.size() &&
+                Secuencias.distancia(ventanaBase, proximoSeqNum) < VENTANA_MAXIMA &&
+                enVuelo() < ventana) {
+
+            asegurarCapacidadTimers(Secuencias.distancia(ventanaBase, proximoSeqNum) + 1);
+            Packet paqueteAEnviar = tramaPendiente.get(proximoSeqNum + 1);
+
+            Bitacora.depuracion("EMISOR: Enviando paquete seq={}", paqueteAEnviar.getSequenceNumber());
+            if (transmitir(paqueteAEnviar)) {
+                registrarEnvio(paqueteAEnviar.getSequenceNumber());
+                iniciarTimerPara(paqueteAEnviar);
+            } else {
+                // El receptor debió desconectarse a mitad de la trama.
+                fallar("Error de Conexión", "Se perdió la conexión con el receptor en el Canal " + canalActual.getFrecuencia());
+                break;
+            }
+            proximoSeqNum++;
+        }
+    }
+
+    /**
+     * Hace crecer el anillo de temporizadores hasta que quepan {@code enVuelo} paquetes.
+     * Los temporizadores armados conservan su estado y pasan a su nueva casilla; como las
+     * secuencias en vuelo son consecutivas, no chocan en el anillo nuevo.
+     */
+    private void asegurarCapacidadTimers(int enVuelo) {
+        if (enVuelo <= timers.length) return;
+
+        int capacidad = Integer.highestOneBit(enVuelo - 1) << 1;
+        int mascara = capacidad - 1;
+        Temporizador[] nuevosTimers = new Temporizador[capacidad];
+        long[] nuevosInstantes = new long[capacidad];
+        boolean[] nuevosRetransmitidos = new boolean[capacidad];
+        boolean[] nuevosSackeados = new boolean[capacidad];
+        int[] nuevasMarcas = new int[capacidad];
+        for (int i = 0; i < timers.length; i++) {
+            Temporizador timer = timers[i];
+            if (timer.isArmado()) {
+                int j = (timer.getId() + 1) & mascara;
+                nuevosTimers[j] = timer;
+                nuevosInstantes[j] = instanteEnvio[i];
+                nuevosRetransmitidos[j] = retransmitido[i];
+                nuevosSackeados[j] = sackeado[i];
+                nuevasMarcas[j] = marcaRetransmision[i];
+            }
+        }
+        for (int j = 0; j < capacidad; j++) {
+            if (nuevosTimers[j] == null) nuevosTimers[j] = new Temporizador();
+        }
+        timers = nuevosTimers;
+        instanteEnvio = nuevosInstantes;
+        retransmitido = nuevosRetransmitidos;
+        sackeado = nuevosSackeados;
+        marcaRetransmision = nuevasMarcas;
+        sackeadosDesde = new int[capacidad];
+        mascaraTimers = mascara;
+    }
+
+    /**
+     * Inicia un temporizador individual (alarma) para un paquete específico.
+     */
+    private void iniciarTimerPara(Packet paquete) {
+        int seq = paquete.getSequenceNumber();
+        Temporizador timer = timerDe(seq);
+
+        if (timer.isArmado() && timer.getId() == seq) {
+            return;
+        }
+
+        timer.setId(seq);
+        rueda.armar(timer, estimadorRTT.getRtoNanos());
+    }
+
+    /**
+     * Anota el primer envío de {@code seq} para poder medir su RTT cuando llegue el ACK.
+     */
+    private void registrarEnvio(int seq) {
+        int indice = (seq + 1) & mascaraTimers;
+        instanteEnvio[indice] = canalActual.getPlanificadorEmisor().ahora();
+        retransmitido[indice] = false;
+        sackeado[indice] = false;
+    }
+
+    /**
+     * Llamado por la rueda cuando vence el timeout de un paquete.
+     */
+    private void alVencerTimer(Temporizador timer) {
+        int seq = timer.getId();
+        int indiceTimer = (seq + 1) & mascaraTimers;
+        if (sackeado[indiceTimer]) {
+            // Los ACKs dejaron de mostrarlo: el Receptor lo descartó y vuelve a estar pendiente
+            Bitacora.depuracion("EMISOR: seq={} ya no aparece en los SACK. Retransmitiendo...", seq);
+            sackeado[indiceTimer] = false;
+            sackeados--;
+        } else {
+            Bitacora.depuracion("EMISOR: ¡TIMEOUT! para seq={}. Retransmitiendo...", seq);
+        }
+        registrarRetransmision(seq, false);
+        retransmitido[(seq + 1) & mascaraTimers] = true;
+        marcaRetransmision[(seq + 1) & mascaraTimers] = proximoSeqNum;
+        if (seq == -1 || seq == ventanaBase) {
+            // Un solo retroceso por ventana estancada, como el timer único de TCP:
+            // los timeouts de los paquetes de detrás son consecuencia del mismo problema.
+            estimadorRTT.registrarTimeout();
+        }
+        if (seq >= 0 && !Secuencias.anterior(seq, puntoRecuperacion)) {
+            // Nueva pérdida: el control de congestión reacciona una vez por ventana
+            controlCongestion.alTimeout(enVuelo(), canalActual.getPlanificadorEmisor().ahora());
+            puntoRecuperacion = proximoSeqNum;
+        }
+
+        Packet paquete = tramaPendiente.get(seq + 1);
+        if (transmitir(paquete)) {
+            iniciarTimerPara(paquete);
+        } else {
+            // El receptor se desconectó mientras esperábamos el ACK.
+            fallar("Error de Conexión", "Se perdió la conexión con el receptor en el Canal " + canalActual.getFrecuencia());
+        }
+    }
+
+    /**
+     * Cancela el timer de {@code seq}, si estaba armado. No asigna memoria.
+     * @return true si había un timer activo para esa secuencia.
+     */
+    private boolean cancelarTimer(int seq) {
+        Temporizador timer = timerDe(seq);
+        if (!timer.isArmado() || timer.getId() != seq) {
+            return false;
+        }
+        rueda.cancelar(timer);
+        return true;
+    }
+
+    private Temporizador timerDe(int seq) {
+        return timers[(seq + 1) & mascaraTimers];
+    }
+
+    /** @return true si {@code seq} fue enviado y sigue sin confirmar (ni por SACK). */
+    private boolean pendiente(int seq) {
+        Temporizador timer = timerDe(seq);
+        return timer.isArmado() && timer.getId() == seq && !sackeado[(seq + 1) & mascaraTimers];
+    }
+
+    /** @return true si {@code seq} está en vuelo y sólo lo confirmó un SACK. */
+    private boolean soloSackeado(int seq) {
+        Temporizador timer = timerDe(seq);
+        return timer.isArmado() && timer.getId() == seq && sackeado[(seq + 1) & mascaraTimers];
+    }
+
+    /** @return Paquetes enviados que siguen en la red (ni confirmados ni SACKeados). */
+    private int enVuelo() {
+        return Secuencias.distancia(ventanaBase, proximoSeqNum) - sackeados;
+    }
+
+    /**
+     * Método PÚBLICO que el CANAL llamará cuando un ACK llegue.
+     * El ACK es acumulativo (confirma todo hasta su secuencia) y su mapa SACK confirma además
+     * paquetes sueltos de después del hueco, que así ya no se retransmiten.
+     */
+    public void recibirAck(Packet ack) {
+        if (!ack.isAck() || !transmitiendo) return;
+        if (ack.getTrama() != numeroTrama) {
+            Bitacora.depuracion("EMISOR: ACK de la trama {} ignorado (en curso: {}).", ack.getTrama(), numeroTrama);
+            return;
+        }
+
+        int acumulado = ack.getSequenceNumber();
+        long[] sack = ack.getSack();
+        Bitacora.depuracion("EMISOR: Recibido ACK hasta seq={}{}", acumulado, sack.length > 0 ? " con SACK" : "");
+
+        if (handshakeCompletado && !Secuencias.anterior(acumulado, proximoSeqNum)) {
+            Bitacora.depuracion("EMISOR: ACK {} inesperado.", acumulado);
+            return;
+        }
+
+        // Envío más reciente (no retransmitido) que confirma este ACK: da una muestra de RTT
+        long envioMuestreado = Long.MIN_VALUE;
+
+        // CASO A: Es el ACK del Header (seq = -1)
+        if (!handshakeCompletado) {
+            if (acumulado != -1) return;
+            envioMuestreado = confirmarPaquete(-1, envioMuestreado);
+            muestrearRtt(envioMuestreado);
+            Bitacora.info("EMISOR: Handshake completado. Iniciando ráfaga de datos...");
+            handshakeCompletado = true;
+            enviarVentana();
+        }
+        // CASO B: Es un ACK de paquetes de DATOS
+        else {
+            int confirmados = 0;
+            while (Secuencias.anterior(ventanaBase - 1, acumulado)) {
+                if (soloSackeado(ventanaBase)) {
+                    // Ya contaba como confirmado; sólo queda su timer de respaldo
+                    sackeado[(ventanaBase + 1) & mascaraTimers] = false;
+                    cancelarTimer(ventanaBase);
+                    sackeados--;
+                } else {
+                    envioMuestreado = confirmarPaquete(ventanaBase, envioMuestreado);
+                }
+                ventanaBase++;
+                confirmados++;
+            }
+            for (int palabra = 0; palabra < sack.length; palabra++) {
+                for (long bits = sack[palabra]; bits != 0; bits &= bits - 1) {
+                    int seq = acumulado + 2 + (palabra << 6) + Long.numberOfTrailingZeros(bits);
+                    if (Secuencias.anterior(seq, ventanaBase) || !Secuencias.anterior(seq, proximoSeqNum)) {
+                        continue;
+                    }
+                    if (pendiente(seq)) {
+                        envioMuestreado = sackearPaquete(seq, envioMuestreado);
+                        sackeados++;
+                        if (Secuencias.anterior(mayorSackeado, seq)) mayorSackeado = seq;
+                    } else if (soloSackeado(seq)) {
+                        // El Receptor lo sigue reteniendo: se aplaza el respaldo
+                        armarRespaldo(seq);
+                    }
+                }
+            }
+            muestrearRtt(envioMuestreado);
+
+            if (umbralDuplicados > 0 && sackeados >= umbralDuplicados) {
+                retransmitirPerdidos();
+            }
+
+            if (confirmados > 0) {
+                Bitacora.depuracion("EMISOR: Ventana deslizada a base={}", ventanaBase);
+                controlCongestion.alConfirmar(confirmados, canalActual.getPlanificadorEmisor().ahora(), estimadorRTT.getSrttNanos());
+                if (conexion != null) {
+                    confirmarMensajes();
+                }
+            } else {
+                Bitacora.depuracion("EMISOR: ACK {} duplicado.", acumulado);
+            }
+            enviarVentana();
+        }
+        if (transmitiendo) {
+            metricas.registrarVentana(enVuelo(), controlCongestion.getVentana());
+        }
+
+        comprobarFin();
+    }
+
+    /**
+     * Si todo está confirmado (y, en una conexión, ya no se aceptan mensajes), da la trama por terminada.
+     */
+    private void comprobarFin() {
+        int numPaquetesDatos = tramaPendiente.size() - 1;
+        if (transmitiendo && handshakeCompletado && ventanaBase == numPaquetesDatos
+                && (conexion == null || conexion.isCerrada())) {
+            Bitacora.info("EMISOR: Trama completa enviada y confirmada.");
+            metricas.registrarFinTrama();
+            cerrarTrama(true);
+            abortar(); // Limpia todo para la próxima trama
+            if (observador != null) observador.transmisionCompletada();
+        }
+    }
+
+    /**
+     * Avisa de los mensajes de la conexión cuyo último paquete quedó bajo la base de la ventana.
+     */
+    private void confirmarMensajes() {
+        long confirmadosAntes = conexion.getMensajesEncolados() - conexion.getMensajesPendientes();
+        int confirmados = conexion.confirmar(ventanaBase);
+        if (observador != null) {
+            for (int i = 0; i < confirmados; i++) {
+                observador.mensajeConfirmado(confirmadosAntes + i);
+            }
+        }
+    }
+
+    /**
+     * Detiene el timeout de {@code seq}, si aún lo tenía (un SACK pudo confirmarlo antes).
+     * @param envioMuestreado El envío más reciente apto para muestrear en este ACK.
+     * @return El nuevo envío más reciente: los retransmitidos no cuentan (regla de Karn).
+     */
+    private long confirmarPaquete(int seq, long envioMuestreado) {
+        if (!cancelarTimer(seq)) {
+            return envioMuestreado;
+        }
+        return registrarConfirmacion(seq, envioMuestreado);
+    }
+
+    /**
+     * Como {@link #confirmarPaquete}, pero el timer de {@code seq} no se cancela: se rearma como
+     * respaldo por si el Receptor descarta el paquete antes de confirmarlo de forma acumulativa.
+     */
+    private long sackearPaquete(int seq, long envioMuestreado) {
+        sackeado[(seq + 1) & mascaraTimers] = true;
+        armarRespaldo(seq);
+        return registrarConfirmacion(seq, envioMuestreado);
+    }
+
+    private void armarRespaldo(int seq) {
+        rueda.armar(timerDe(seq), RTOS_RESPALDO_SACK * estimadorRTT.getRtoNanos());
+    }
+
+    private long registrarConfirmacion(int seq, long envioMuestreado) {
+        if (seq >= 0) {
+            metricas.registrarConfirmados(bytesDe(seq), canalActual.getPlanificadorEmisor().ahora());
+        }
+        int indice = (seq + 1) & mascaraTimers;
+        if (retransmitido[indice]) {
+            return envioMuestreado;
+        }
+        return Math.max(envioMuestreado, instanteEnvio[indice]);
+    }
+
+    /**
+     * Retransmisión rápida: recorre los huecos de la ventana de arriba abajo y reenvía los que
+     * tienen por encima al menos {@code umbralDuplicados} paquetes ya recibidos. Si el hueco ya
+     * se había retransmitido, sólo cuentan los enviados después de esa retransmisión: que
+     * lleguen ellos y no él significa que la retransmisión también se perdió.
+     * La primera pérdida nueva de un episodio avisa al control de congestión (recuperación rápida).
+     */
+    private void retransmitirPerdidos() {
+        int recibidosPorEncima = 0;
+        for (int seq = mayorSackeado; transmitiendo && !Secuencias.anterior(seq, ventanaBase); seq--) {
+            int indice = (seq + 1) & mascaraTimers;
+            if (!pendiente(seq)) {
+                sackeadosDesde[indice] = ++recibidosPorEncima;
+                continue;
+            }
+            sackeadosDesde[indice] = recibidosPorEncima;
+
+            int evidencia = recibidosPorEncima;
+            if (retransmitido[indice]) {
+                int marca = marcaRetransmision[indice];
+                evidencia = Secuencias.anterior(mayorSackeado, marca) ? 0 : sackeadosDesde[(marca + 1) & mascaraTimers];
+            }
+            if (evidencia < umbralDuplicados) {
+                // Aún puede llegar desordenado
+                continue;
+            }
+
+            if (!Secuencias.anterior(seq, puntoRecuperacion)) {
+                controlCongestion.alPerdidaRapida(enVuelo(), canalActual.getPlanificadorEmisor().ahora());
+                puntoRecuperacion = proximoSeqNum;
+            }
+
+            Bitacora.depuracion("EMISOR: Retransmisión rápida de seq={} ({} paquetes posteriores recibidos)",
+                    seq, recibidosPorEncima);
+            registrarRetransmision(seq, true);
+            retransmitido[indice] = true;
+            marcaRetransmision[indice] = proximoSeqNum;
+            if (transmitir(tramaPendiente.get(seq + 1))) {
+                rueda.armar(timerDe(seq), estimadorRTT.getRtoNanos());
+            } else {
+                fallar("Error de Conexión", "Se perdió la conexión con el receptor en el Canal " + canalActual.getFrecuencia());
+            }
+        }
+    }
+
+    /**
+     * Una sola muestra por ACK, aunque confirme varios paquetes.
+     */
+    private void muestrearRtt(long envioMuestreado) {
+        if (envioMuestreado != Long.MIN_VALUE) {
+            long rtt = canalActual.getPlanificadorEmisor().ahora() - envioMuestreado;
+            estimadorRTT.registrarMuestra(rtt);
+            metricas.registrarRtt(rtt);
+        }
+    }
+
+    /**
+     * @return Bytes útiles del paquete {@code seq}. Se calculan con lo que anuncia el HEADER
+     *         para no pedirle a la trama el paquete de nuevo.
+     */
+    private long bytesDe(int seq) {
+        if (tamanoPayloadTrama <= 0 || longitudTrama < 0) {
+            return tramaPendiente.get(seq + 1).getLongitudSinRelleno();
+        }
+        return Math.min(tamanoPayloadTrama, longitudTrama - (long) seq * tamanoPayloadTrama);
+    }
+
+    private void registrarRetransmision(int seq, boolean rapida) {
+        metricas.registrarRetransmision(rapida);
+        EventoJfrRetransmision evento = new EventoJfrRetransmision();
+        if (evento.shouldCommit()) {
+            evento.frecuencia = canalActual.getFrecuencia();
+            evento.secuencia = seq;
+            evento.rapida = rapida;
+            evento.rtoNanos = estimadorRTT.getRtoNanos();
+            evento.commit();
+        }
+    }
+
+    // --- Trama en curso (métricas y JFR) ---
+
+    private void abrirTrama() {
+        inicioTrama = canalActual.getPlanificadorEmisor().ahora();
+        enviadosAlInicio = metricas.getPaquetesEnviados();
+        retransmisionesAlInicio = metricas.getRetransmisiones();
+        metricas.registrarInicioTrama(inicioTrama);
+        eventoTrama = new EventoJfrTrama();
+        eventoTrama.begin();
+    }
+
+    private void cerrarTrama(boolean completada) {
+        EventoJfrTrama evento = eventoTrama;
+        if (evento == null) return;
+        eventoTrama = null;
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.frecuencia = canalActual.getFrecuencia();
+            evento.bytes = longitudTrama;
+            evento.paquetes = tramaPendiente.size() - 1;
+            evento.enviados = metricas.getPaquetesEnviados() - enviadosAlInicio;
+            evento.retransmisiones = metricas.getRetransmisiones() - retransmisionesAlInicio;
+            evento.completada = completada;
+            evento.tiempoPlanificadorNanos = canalActual.getPlanificadorEmisor().ahora() - inicioTrama;
+            evento.commit();
+        }
+    }
+
+    /**
+     * Detiene todos los timers y limpia el estado de la transmisión.
+     */
+    public void abortar() {
+        if (rueda != null) {
+            for (Temporizador timer : timers) {
+                rueda.cancelar(timer);
+            }
+        }
+        handshakeCompletado = false;
+        ventanaBase = 0;
+        proximoSeqNum = 0;
+        puntoRecuperacion = 0;
+        sackeados = 0;
+        mayorSackeado = -1;
+        Arrays.fill(sackeado, false);
+        conexion = null;
+        if (transmitiendo) {
+            cerrarTrama(false);
+            transmitiendo = false;
+            Bitacora.info("EMISOR: Transmisión abortada.");
+        }
+    }
+
+    public boolean isTransmitiendo() { return transmitiendo; }
+    public long getPaquetesEnviados() { return metricas.getPaquetesEnviados(); }
+    public long getRetransmisiones() { return metricas.getRetransmisiones(); }
+    /** @return Cuántas de las retransmisiones no esperaron al timeout. */
+    public long getRetransmisionesRapidas() { return metricas.getRetransmisionesRapidas(); }
+    /** @return Contadores e histogramas de este emisor; pueden leerse desde otro hilo. */
+    public MetricasEmisor getMetricas() { return metricas; }
+    /** @return El estimador de RTT/RTO de esta conexión, para medirlo o compararlo. */
+    public EstimadorRTT getEstimadorRTT() { return estimadorRTT; }
+    public ControlCongestion getControlCongestion() { return controlCongestion; }
+
+    private boolean transmitir(Packet paquete) {
+        if (canalActual == null) return false;
+        metricas.registrarEnvio();
+        // La trama no sabe de flujos ni de su número: cada envío se marca (sin copiar el payload)
+        return canalActual.enviarPaquete(paquete.conEtiquetas(flujo, numeroTrama));
+    }
+
+    private void fallar(String titulo, String mensaje) {
+        abortar();
+        if (observador != null) observador.transmisionFallida(titulo, mensaje);
+    }
+}
@@ -0,0 +1,442 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lógica del lado receptor: valida, confirma y reordena los paquetes de una trama.
+ * No depende de JavaFX; quien lo controla recibe el mensaje por {@link ObservadorReceptor}.
+ * <p>
+ * Los bytes salen por un {@link SumideroDatos} en cuanto están en orden: un paquete que llega
+ * en orden se entrega directamente desde su buffer, y uno adelantado se copia a su casilla de
+ * la ventana de recepción hasta que se cierre el hueco. Así la memoria depende de la ventana y
+ * no del tamaño del mensaje. Qué secuencias ya llegaron lo lleva un mapa de bits circular del
+ * tamaño de la ventana, así que reordenar no crea objetos.
+ * <p>
+ * Los ACKs son acumulativos (confirman todo hasta el último paquete en orden) y llevan un mapa
+ * SACK con los que llegaron después del hueco. Los paquetes en orden se confirman de forma
+ * retrasada: cada {@code ackCada} paquetes o, como mucho, {@code retardoAck} después del primero
+ * sin confirmar. Los desordenados, duplicados y el último de la trama se confirman en el acto,
+ * para que el Emisor se entere cuanto antes de los huecos.
+ * <p>
+ * Un HEADER de conexión persistente ({@link ColaMensajes#CONEXION_ABIERTA}) no anuncia fin: sus
+ * bytes van a un {@link SumideroMensajes} y cada mensaje llega por
+ * {@link ObservadorReceptor#mensajeRecibido}. El paquete que termina un mensaje se confirma en el
+ * acto, para que el Emisor no espere al ACK retrasado.
+ */
+public class ProtocoloReceptor {
+
+    /** Ventana de recepción por defecto: cuántos paquetes por delante del esperado se aceptan. */
+    public static final int VENTANA_RECEPCION_PREDETERMINADA = 1024;
+    /** Paquetes en orden que se agrupan en un solo ACK (RFC 1122 sugiere 2). */
+    public static final int ACK_CADA_PREDETERMINADO = 2;
+    /** Cuánto puede esperar un ACK retrasado; muy por debajo del RTT del canal. */
+    public static final long RETARDO_ACK_PREDETERMINADO_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private Canal canalActual;
+    /** Flujo del canal en el que conversa con su Emisor. */
+    private int flujo = 0;
+    private ObservadorReceptor observador;
+
+    // --- Estado de Recepción ---
+    private int totalPaquetesEsperados = 0;
+    /** Número de la trama en curso según su HEADER ({@link Packet#getTrama()}). */
+    private int tramaActual = 0;
+    private int proximoPaqueteEsperado = 0;
+    private int tamanoPayload = 0;
+    /** El tamaño de payload tal como lo anunció el HEADER (0 si no lo anunció). */
+    private int tamanoPayloadAnunciado = 0;
+    /** Bytes exactos del mensaje según el HEADER, o -1 si no los anuncia (último paquete con relleno). */
+    private long longitudMensaje = -1;
+    /** La mayor secuencia recibida hasta ahora (puede ir por delante del hueco). */
+    private int mayorRecibido = -1;
+    /** Si el sumidero tiene una trama abierta (iniciada y sin completar). */
+    private boolean tramaAbierta = false;
+    private long bytesEntregados = 0;
+
+    /** A dónde van los bytes ensamblados. */
+    private SumideroDatos sumidero = new SumideroMemoria();
+    /** Separa los mensajes de una conexión persistente. */
+    private final SumideroMensajes mensajes = new SumideroMensajes(this::mensajeDeConexion);
+    /** El sumidero de la trama en curso: {@link #sumidero} o, en una conexión, {@link #mensajes}. */
+    private SumideroDatos destino = sumidero;
+
+    // --- Ventana de Recepción ---
+    /** Un bit por casilla: la secuencia {@code seq} ocupa la casilla {@code seq & mascara}. */
+    private final long[] recibidos;
+    private final int mascara;
+    /**
+     * Payloads adelantados: la secuencia {@code seq} ocupa {@code tamanoPayload} bytes desde
+     * {@code (seq & mascara) * tamanoPayload}. Se reserva con el primer paquete desordenado.
+     */
+    private byte[] datosVentana;
+    /** Bytes reales de cada casilla de {@link #datosVentana}. */
+    private int[] longitudesVentana;
+
+    // --- ACKs retrasados ---
+    private final int ackCada;
+    private final long retardoAckNanos;
+    /** Paquetes recibidos en orden desde el último ACK enviado. */
+    private int sinConfirmar = 0;
+    private Evento ackRetrasado;
+
+    // --- Estadísticas ---
+    private final MetricasReceptor metricas = new MetricasReceptor();
+    /** Paquetes adelantados que esperan en la ventana a que se cierre su hueco. */
+    private int retenidos = 0;
+
+    public ProtocoloReceptor() {
+        this(VENTANA_RECEPCION_PREDETERMINADA);
+    }
+
+    /**
+     * @param ventanaRecepcion Paquetes fuera de orden que se pueden aceptar; se redondea
+     *                         a la siguiente potencia de 2. Los que caigan más allá se descartan
+     *                         sin ACK y el Emisor los retransmitirá.
+     */
+    public ProtocoloReceptor(int ventanaRecepcion) {
+        this(ventanaRecepcion, ACK_CADA_PREDETERMINADO, RETARDO_ACK_PREDETERMINADO_NANOS);
+    }
+
+    /**
+     * @param ackCada Paquetes en orden por ACK; 1 confirma cada paquete en el acto.
+     * @param retardoAckNanos Espera máxima de un ACK retrasado.
+     */
+    public ProtocoloReceptor(int ventanaRecepcion, int ackCada, long retardoAckNanos) {
+        if (ventanaRecepcion < 1) {
+            throw new IllegalArgumentException("La ventana de recepción debe ser positiva: " + ventanaRecepcion);
+        }
+        if (ackCada < 1 || retardoAckNanos < 0) {
+            throw new IllegalArgumentException("Política de ACK inválida: cada " + ackCada + ", retardo " + retardoAckNanos);
+        }
+        this.ackCada = ackCada;
+        this.retardoAckNanos = retardoAckNanos;
+        int capacidad = Math.max(64, Integer.highestOneBit(ventanaRecepcion - 1) << 1);
+        this.recibidos = new long[capacidad >>> 6];
+        this.mascara = capacidad - 1;
+    }
+
+    public void setObservador(ObservadorReceptor observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Elige a dónde van los bytes de las tramas siguientes, p. ej. un {@link SumideroArchivo}
+     * o un {@link SumideroTexto}. Con el predeterminado ({@link SumideroMemoria}, o null) el
+     * observador recibe además el mensaje entero en {@link ObservadorReceptor#mensajeRecibido}.
+     */
+    public void setSumidero(SumideroDatos sumidero) {
+        this.sumidero = sumidero != null ? sumidero : new SumideroMemoria();
+    }
+
+    /**
+     * Se conecta a un canal, desconectándose antes del anterior.
+     */
+    public void sintonizar(Canal canal) {
+        sintonizar(canal, 0);
+    }
+
+    /**
+     * Se conecta a un flujo de un canal; ver {@link ProtocoloEmisor#sintonizar(Canal, int)}.
+     */
+    public void sintonizar(Canal canal, int flujo) {
+        if (flujo < 0 || flujo > Packet.MAXIMO_FLUJO) {
+            throw new IllegalArgumentException("Flujo fuera de rango: " + flujo);
+        }
+        if (canalActual != null) {
+            canalActual.desconectarReceptor(this);
+        }
+        this.flujo = flujo;
+        canalActual = canal;
+        canalActual.conectarReceptor(this);
+        resetear();
+    }
+
+    public Canal getCanal() {
+        return canalActual;
+    }
+
+    public int getFlujo() {
+        return flujo;
+    }
+
+    public void resetear() {
+        totalPaquetesEsperados = 0;
+        proximoPaqueteEsperado = 0;
+        tamanoPayload = 0;
+        tamanoPayloadAnunciado = 0;
+        longitudMensaje = -1;
+        mayorRecibido = -1;
+        bytesEntregados = 0;
+        retenidos = 0;
+        if (tramaAbierta) {
+            tramaAbierta = false;
+            destino.descartar();
+        }
+        Arrays.fill(recibidos, 0L);
+        cancelarAckRetrasado();
+    }
+
+    /**
+     * MÉTODO PRINCIPAL DE RECEPCIÓN
+     * Llamado por la clase Canal.
+     */
+    public void recibirPaquete(Packet paquete) {
+        if (paquete.isAck()) return;
+
+        if (paquete.isCorrupt()) {
+            Bitacora.depuracion("RECEPTOR: Paquete {} corrupto. Descartando.", paquete.getSequenceNumber());
+            metricas.registrarCorrupto();
+            return;
+        }
+
+        if (paquete.isHeader()) {
+            if (esHeaderEnCurso(paquete)) {
+                // Copia retrasada del HEADER de esta trama: reiniciar tiraría lo que el Emisor
+                // ya dio por confirmado. Basta con volver a confirmar el estado actual.
+                metricas.registrarDuplicado();
+                enviarAck();
+                return;
+            }
+            resetear();
+            tramaActual = paquete.getTrama();
+            totalPaquetesEsperados = paquete.getTotalPacketsFromHeader();
+            tamanoPayload = paquete.getTamanoPayloadFromHeader();
+            tamanoPayloadAnunciado = tamanoPayload;
+            longitudMensaje = paquete.getLongitudFromHeader();
+            destino = totalPaquetesEsperados == ColaMensajes.CONEXION_ABIERTA ? mensajes : sumidero;
+            if (tamanoPayload > 0) {
+                abrirTrama();
+            }
+            if (observador != null) observador.tramaIniciada(totalPaquetesEsperados);
+            if (tramaAbierta && totalPaquetesEsperados == 0) {
+                ensamblarMensajeFinal(); // Mensaje vacío
+            }
+            enviarAck(); // Confirma hasta -1: sólo el HEADER
+            return;
+        }
+
+        if (totalPaquetesEsperados == 0) return;
+        if (paquete.getTrama() != tramaActual) {
+            // Reenvío retrasado de otra trama: sus secuencias no son las de esta
+            Bitacora.depuracion("RECEPTOR: Paquete de la trama {} ignorado (en curso: {}).", paquete.getTrama(), tramaActual);
+            return;
+        }
+
+        int seq = paquete.getSequenceNumber();
+        if (seq >= totalPaquetesEsperados || Secuencias.distancia(proximoPaqueteEsperado, seq) > mascara) {
+            // Fuera de la ventana de recepción: sin ACK, el Emisor lo reenviará
+            return;
+        }
+
+        if (Secuencias.anterior(seq, proximoPaqueteEsperado) || estaRecibido(seq)) {
+            // Duplicado: su ACK se perdió, se vuelve a confirmar en el acto
+            metricas.registrarDuplicado();
+            enviarAck();
+            return;
+        }
+
+        if (!tramaAbierta) {
+            // HEADER sin tamaño de payload: todos los paquetes miden lo mismo (con relleno)
+            tamanoPayload = paquete.getLongitudPayload();
+            abrirTrama();
+        }
+        if (Secuencias.anterior(mayorRecibido, seq)) {
+            mayorRecibido = seq;
+        }
+
+        if (seq == proximoPaqueteEsperado) {
+            // En orden: sale directamente del buffer del paquete, sin copiarlo
+            entregar(paquete.getPayload());
+            proximoPaqueteEsperado++;
+            revisarBuffer();
+            confirmarEnOrden();
+        } else {
+            guardarEnVentana(paquete, seq);
+            // Llegó tras un hueco: el Emisor debe saberlo ya
+            enviarAck();
+        }
+        metricas.registrarRecibido(retenidos);
+
+        if (observador != null) observador.progreso(proximoPaqueteEsperado, totalPaquetesEsperados);
+    }
+
+    /**
+     * Avanza el próximo esperado sobre todas las casillas consecutivas ya recibidas y entrega
+     * cada tramo al sumidero. Las casillas contiguas de la ventana se entregan de una vez,
+     * mientras estén llenas: en una conexión cada mensaje acaba en un paquete corto.
+     */
+    private void revisarBuffer() {
+        while (proximoPaqueteEsperado < totalPaquetesEsperados && estaRecibido(proximoPaqueteEsperado)) {
+            int casillaInicial = proximoPaqueteEsperado & mascara;
+            int bytes = 0;
+            int longitud;
+            do {
+                longitud = longitudesVentana[proximoPaqueteEsperado & mascara];
+                bytes += longitud;
+                desmarcar(proximoPaqueteEsperado);
+                proximoPaqueteEsperado++;
+                retenidos--;
+            } while (longitud == tamanoPayload
+                    && proximoPaqueteEsperado < totalPaquetesEsperados
+                    && (proximoPaqueteEsperado & mascara) != 0
+                    && estaRecibido(proximoPaqueteEsperado));
+            entregar(ByteBuffer.wrap(datosVentana, casillaInicial * tamanoPayload, bytes));
+        }
+
+        if (tramaAbierta && proximoPaqueteEsperado == totalPaquetesEsperados) {
+            ensamblarMensajeFinal();
+        }
+    }
+
+    private void ensamblarMensajeFinal() {
+        tramaAbierta = false;
+        destino.completar();
+        metricas.registrarFinTrama();
+        if (observador != null) {
+            if (destino instanceof SumideroMemoria memoria) {
+                observador.mensajeRecibido(memoria.getDatos());
+            }
+            observador.tramaCompletada(bytesEntregados);
+        }
+    }
+
+    /**
+     * @return true si {@code header} es de la trama que se está recibiendo (o que se acaba de
+     *         completar): un reenvío cuyo ACK se retrasó, no una trama nueva, que tendría otro
+     *         número.
+     */
+    private boolean esHeaderEnCurso(Packet header) {
+        return totalPaquetesEsperados > 0
+                && header.getTrama() == tramaActual
+                && header.getTotalPacketsFromHeader() == totalPaquetesEsperados
+                && header.getTamanoPayloadFromHeader() == tamanoPayloadAnunciado
+                && header.getLongitudFromHeader() == longitudMensaje;
+    }
+
+    private void entregar(ByteBuffer datos) {
+        int bytes = datos.remaining();
+        destino.escribir(bytesEntregados, datos);
+        bytesEntregados += bytes;
+        metricas.registrarEntregados(bytes);
+    }
+
+    /**
+     * Copia un paquete adelantado a su casilla de la ventana hasta que se cierre el hueco.
+     */
+    private void guardarEnVentana(Packet paquete, int seq) {
+        if (datosVentana == null || datosVentana.length != (mascara + 1) * tamanoPayload) {
+            long tamano = (long) (mascara + 1) * tamanoPayload;
+            if (tamano > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Ventana de recepción demasiado grande: " + tamano + " bytes");
+            }
+            datosVentana = new byte[(int) tamano];
+            longitudesVentana = new int[mascara + 1];
+        }
+        int casilla = seq & mascara;
+        paquete.copiarPayload(datosVentana, casilla * tamanoPayload);
+        longitudesVentana[casilla] = paquete.getLongitudSinRelleno();
+        marcarRecibido(seq);
+        retenidos++;
+    }
+
+    public int getTotalPaquetesEsperados() { return totalPaquetesEsperados; }
+    public int getPaquetesRecibidos() { return proximoPaqueteEsperado; }
+    /** @return Cuántos paquetes por delante del esperado se aceptan. */
+    public int getVentanaRecepcion() { return mascara + 1; }
+    public long getAcksEnviados() { return metricas.getAcksEnviados(); }
+    /** @return Contadores e histogramas de este receptor; pueden leerse desde otro hilo. */
+    public MetricasReceptor getMetricas() { return metricas; }
+
+    private void abrirTrama() {
+        long longitud = destino == mensajes ? -1
+                : longitudMensaje >= 0 ? longitudMensaje : (long) totalPaquetesEsperados * tamanoPayload;
+        destino.iniciar(longitud);
+        tramaAbierta = true;
+    }
+
+    private void mensajeDeConexion(byte[] datos) {
+        if (observador != null) observador.mensajeRecibido(datos);
+    }
+
+    // --- Mapa de bits circular ---
+    private boolean estaRecibido(int seq) {
+        int casilla = seq & mascara;
+        return (recibidos[casilla >>> 6] & (1L << casilla)) != 0;
+    }
+
+    private void marcarRecibido(int seq) {
+        int casilla = seq & mascara;
+        recibidos[casilla >>> 6] |= 1L << casilla;
+    }
+
+    private void desmarcar(int seq) {
+        int casilla = seq & mascara;
+        recibidos[casilla >>> 6] &= ~(1L << casilla);
+    }
+
+    /**
+     * Aplica la política de ACK retrasado a un paquete que llegó en orden.
+     */
+    private void confirmarEnOrden() {
+        sinConfirmar++;
+        if (sinConfirmar >= ackCada || proximoPaqueteEsperado == totalPaquetesEsperados || canalActual == null
+                || (destino == mensajes && mensajes.isEntreMensajes())) {
+            enviarAck();
+        } else if (ackRetrasado == null) {
+            ackRetrasado = canalActual.getPlanificadorReceptor().programar(retardoAckNanos, () -> {
+                ackRetrasado = null;
+                enviarAck();
+            });
+        }
+    }
+
+    private void cancelarAckRetrasado() {
+        if (ackRetrasado != null) {
+            ackRetrasado.cancelar();
+            ackRetrasado = null;
+        }
+    }
+
+    /**
+     * Envía un ACK acumulativo hasta el último paquete en orden, con el mapa SACK de
+     * los que llegaron después del hueco. Cubre a todos los pendientes de confirmar.
+     */
+    private void enviarAck() {
+        sinConfirmar = 0;
+        cancelarAckRetrasado();
+        if (canalActual != null) {
+            metricas.registrarAck();
+            Packet ack = new Packet(proximoPaqueteEsperado - 1, true, mapaSack());
+            canalActual.enviarPaquete(ack.conEtiquetas(flujo, tramaActual));
+        }
+    }
+
+    /**
+     * @return Bit {@code i}: si llegó la secuencia {@code proximoPaqueteEsperado + 1 + i},
+     *         hasta la mayor recibida. Se lee del mapa circular de 64 en 64 bits,
+     *         aunque crucen el final del arreglo.
+     */
+    private long[] mapaSack() {
+        int bits = Secuencias.distancia(proximoPaqueteEsperado, mayorRecibido);
+        if (bits <= 0) {
+            return Packet.SIN_SACK;
+        }
+        long[] sack = new long[(bits + 63) >>> 6];
+        int casilla = (proximoPaqueteEsperado + 1) & mascara;
+        for (int i = 0; i < sack.length; i++, casilla = (casilla + 64) & mascara) {
+            int palabra = casilla >>> 6;
+            int desplazamiento = casilla & 63;
+            long valor = recibidos[palabra] >>> desplazamiento;
+            if (desplazamiento != 0) {
+                valor |= recibidos[(palabra + 1) % recibidos.length] << (64 - desplazamiento);
+            }
+            sack[i] = valor;
+        }
+        // Lo que pasa de la mayor recibida es la otra vuelta del anillo
+        int sobrantes = (sack.length << 6) - bits;
+        sack[sack.length - 1] &= -1L >>> sobrantes;
+        return sack;
+    }
+}
@@ -0,0 +1,67 @@
+package Modelo;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Publica las métricas en el MBeanServer de la plataforma, para verlas en vivo con
+ * JConsole o VisualVM bajo el dominio {@value #DOMINIO}. Publicar no cambia lo que se mide:
+ * las métricas se llenan igual aunque nadie las publique.
+ */
+public final class RegistroMetricas {
+    public static final String DOMINIO = "SimuladorTelecom";
+
+    private RegistroMetricas() {
+    }
+
+    /** Publica las métricas de un canal como {@code SimuladorTelecom:type=Canal,frecuencia=N}. */
+    public static void publicar(Canal canal) {
+        publicar(canal.getMetricas(), "type=Canal,frecuencia=" + canal.getFrecuencia());
+    }
+
+    /** Publica las métricas de un emisor como {@code SimuladorTelecom:type=Emisor,name=nombre}. */
+    public static void publicar(ProtocoloEmisor emisor, String nombre) {
+        publicar(emisor.getMetricas(), "type=Emisor,name=" + ObjectName.quote(nombre));
+    }
+
+    /** Publica las métricas de un receptor como {@code SimuladorTelecom:type=Receptor,name=nombre}. */
+    public static void publicar(ProtocoloReceptor receptor, String nombre) {
+        publicar(receptor.getMetricas(), "type=Receptor,name=" + ObjectName.quote(nombre));
+    }
+
+    /**
+     * Registra {@code mbean} con el nombre dado, sustituyendo al que lo tuviera. Un fallo de
+     * JMX no debe parar la simulación: se avisa por consola y se sigue.
+     */
+    private static void publicar(Object mbean, String propiedades) {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName nombre = new ObjectName(DOMINIO + ":" + propiedades);
+            if (servidor.isRegistered(nombre)) {
+                servidor.unregisterMBean(nombre);
+            }
+            servidor.registerMBean(mbean, nombre);
+        } catch (JMException e) {
+            Bitacora.aviso("METRICAS: No se pudo publicar {}. {}", propiedades, e.getMessage());
+        }
+    }
+
+    /** Retira todas las métricas publicadas por el simulador. */
+    public static void retirarTodas() {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (ObjectName nombre : servidor.queryNames(new ObjectName(DOMINIO + ":*"), null)) {
+                try {
+                    servidor.unregisterMBean(nombre);
+                } catch (InstanceNotFoundException e) {
+                    // Ya la retiró otro hilo
+                }
+            }
+        } catch (JMException e) {
+            Bitacora.aviso("METRICAS: No se pudieron retirar las métricas. {}", e.getMessage());
+        }
+    }
+}
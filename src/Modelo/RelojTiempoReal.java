@@ -0,0 +1,70 @@
+package Modelo;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hilo de la simulación de la GUI: avanza los relojes virtuales de los canales del
+ * {@link GestorDeCanales} al ritmo del reloj de pared y ejecuta las tareas que le pasan otros
+ * hilos. Así el protocolo corre fuera del hilo de JavaFX, que sólo dibuja, y sigue sin
+ * necesitar locks: todo lo que toca canales y protocolos pasa por aquí.
+ */
+public final class RelojTiempoReal implements AutoCloseable {
+    /** Cada cuánto se avanzan los relojes si no llegan tareas; muy por debajo de un frame. */
+    private static final long PASO_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final GestorDeCanales gestor;
+    private final ConcurrentLinkedQueue<Runnable> tareas = new ConcurrentLinkedQueue<>();
+    private final Thread hilo;
+    private volatile boolean detenido = false;
+
+    RelojTiempoReal(GestorDeCanales gestor) {
+        this.gestor = gestor;
+        this.hilo = Thread.ofPlatform().daemon().name("Simulacion").start(this::ejecutarBucle);
+    }
+
+    /**
+     * Ejecuta {@code tarea} en el hilo de la simulación, en orden con las demás.
+     * Puede llamarse desde cualquier hilo y no espera a que termine.
+     */
+    public void ejecutar(Runnable tarea) {
+        tareas.add(tarea);
+        LockSupport.unpark(hilo);
+    }
+
+    /** @return true si quien llama es el hilo de la simulación. */
+    public boolean isHiloSimulacion() {
+        return Thread.currentThread() == hilo;
+    }
+
+    private void ejecutarBucle() {
+        long inicio = System.nanoTime();
+        while (!detenido) {
+            Runnable tarea;
+            while ((tarea = tareas.poll()) != null) {
+                try {
+                    tarea.run();
+                } catch (RuntimeException e) {
+                    // Un fallo de la GUI no debe parar la simulación de los demás canales
+                    Bitacora.error("SIMULACION: Error en una tarea. {}", e);
+                }
+            }
+            try {
+                gestor.avanzarRelojes(System.nanoTime() - inicio);
+            } catch (RuntimeException e) {
+                // Un evento del protocolo que falla no debe dejar la GUI congelada: los relojes
+                // siguen desde el evento siguiente en la próxima vuelta
+                Bitacora.error("SIMULACION: Error al avanzar los relojes. {}", e);
+            }
+            LockSupport.parkNanos(PASO_NANOS);
+        }
+    }
+
+    /** Detiene el hilo; las tareas pendientes ya no se ejecutan. */
+    @Override
+    public void close() {
+        detenido = true;
+        LockSupport.unpark(hilo);
+    }
+}
@@ -0,0 +1,71 @@
+package Modelo;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Resumen de una {@link SimulacionFlujos}: el resultado de cada flujo y cómo se repartieron
+ * el enlace entre todos.
+ */
+public class ResultadoFlujos {
+    private final List<ResultadoSimulacion> flujos;
+    private final long tiempoVirtualNanos;
+
+    /**
+     * @param tiempoVirtualNanos Hasta que terminó el último flujo (o se acabaron los eventos).
+     */
+    public ResultadoFlujos(List<ResultadoSimulacion> flujos, long tiempoVirtualNanos) {
+        this.flujos = List.copyOf(flujos);
+        this.tiempoVirtualNanos = tiempoVirtualNanos;
+    }
+
+    /** @return El resultado de cada flujo, por número de flujo. */
+    public List<ResultadoSimulacion> getFlujos() { return flujos; }
+    public long getTiempoVirtualNanos() { return tiempoVirtualNanos; }
+
+    /** @return Cuántos flujos entregaron su trama completa. */
+    public int getCompletados() {
+        int completados = 0;
+        for (ResultadoSimulacion flujo : flujos) {
+            if (flujo.isCompletada()) completados++;
+        }
+        return completados;
+    }
+
+    /**
+     * @return Bytes útiles de los flujos completados por segundo de tiempo simulado, hasta el último.
+     */
+    public double getGoodputAgregadoBytesPorSegundo() {
+        if (tiempoVirtualNanos <= 0) return 0;
+        long bytes = 0;
+        for (ResultadoSimulacion flujo : flujos) {
+            if (flujo.isCompletada()) bytes += flujo.getBytesUtiles();
+        }
+        return bytes * 1e9 / tiempoVirtualNanos;
+    }
+
+    /**
+     * Índice de equidad de Jain sobre el goodput de cada flujo: {@code (Σx)² / (n·Σx²)}.
+     * @return 1 si todos obtuvieron lo mismo, {@code 1/n} si uno se lo llevó todo.
+     */
+    public double getIndiceEquidad() {
+        double suma = 0;
+        double sumaCuadrados = 0;
+        for (ResultadoSimulacion flujo : flujos) {
+            double goodput = flujo.getGoodputBytesPorSegundo();
+            suma += goodput;
+            sumaCuadrados += goodput * goodput;
+        }
+        if (sumaCuadrados == 0) return 0;
+        return suma * suma / (flujos.size() * sumaCuadrados);
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoFlujos{flujos=" + flujos.size()
+                + ", completados=" + getCompletados()
+                + ", tiempoVirtualMs=" + tiempoVirtualNanos / 1_000_000
+                + ", goodputAgregadoBps=" + Math.round(getGoodputAgregadoBytesPorSegundo())
+                + ", equidadJain=" + String.format(Locale.ROOT, "%.3f", getIndiceEquidad()) + "}";
+    }
+}
@@ -0,0 +1,76 @@
+package Modelo;
+
+import java.util.Arrays;
+
+/**
+ * Resumen de una {@link SimulacionMensajes}: cuántos mensajes llegaron intactos y cuánto tardó
+ * cada uno desde que se quiso enviar hasta que el Emisor supo que había llegado.
+ */
+public class ResultadoMensajes {
+    private final SimulacionMensajes.Modo modo;
+    private final int mensajes;
+    private final int integros;
+    /** Latencia de cada mensaje confirmado, de menor a mayor. */
+    private final long[] latenciasNanos;
+    private final long tiempoVirtualNanos;
+    private final long paquetesEnviados;
+    private final long retransmisiones;
+
+    /**
+     * @param latenciasNanos Una por mensaje confirmado, en cualquier orden; se copia.
+     */
+    public ResultadoMensajes(SimulacionMensajes.Modo modo, int mensajes, int integros, long[] latenciasNanos,
+                             long tiempoVirtualNanos, long paquetesEnviados, long retransmisiones) {
+        this.modo = modo;
+        this.mensajes = mensajes;
+        this.integros = integros;
+        this.latenciasNanos = latenciasNanos.clone();
+        Arrays.sort(this.latenciasNanos);
+        this.tiempoVirtualNanos = tiempoVirtualNanos;
+        this.paquetesEnviados = paquetesEnviados;
+        this.retransmisiones = retransmisiones;
+    }
+
+    public SimulacionMensajes.Modo getModo() { return modo; }
+    public int getMensajes() { return mensajes; }
+    /** @return Mensajes cuya confirmación recibió el Emisor. */
+    public int getConfirmados() { return latenciasNanos.length; }
+    /** @return Mensajes que el Receptor entregó idénticos al original y en su orden. */
+    public int getIntegros() { return integros; }
+    /** @return Hasta la última confirmación (o hasta que se acabaron los eventos). */
+    public long getTiempoVirtualNanos() { return tiempoVirtualNanos; }
+    public long getPaquetesEnviados() { return paquetesEnviados; }
+    public long getRetransmisiones() { return retransmisiones; }
+
+    /**
+     * @param percentil Entre 0 y 100.
+     * @return La latencia de ese percentil entre los confirmados (rango más cercano), o -1 si no hubo.
+     */
+    public long getLatenciaPercentilNanos(double percentil) {
+        if (latenciasNanos.length == 0) return -1;
+        int rango = (int) Math.ceil(percentil / 100 * latenciasNanos.length);
+        return latenciasNanos[Math.max(0, Math.min(latenciasNanos.length - 1, rango - 1))];
+    }
+
+    /** @return La latencia media de los confirmados, o -1 si no hubo. */
+    public long getLatenciaMediaNanos() {
+        if (latenciasNanos.length == 0) return -1;
+        long suma = 0;
+        for (long latencia : latenciasNanos) suma += latencia;
+        return suma / latenciasNanos.length;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoMensajes{modo=" + modo
+                + ", mensajes=" + mensajes
+                + ", confirmados=" + getConfirmados()
+                + ", integros=" + integros
+                + ", tiempoVirtualMs=" + tiempoVirtualNanos / 1_000_000
+                + ", latenciaMediaMs=" + getLatenciaMediaNanos() / 1_000_000
+                + ", latenciaP50Ms=" + getLatenciaPercentilNanos(50) / 1_000_000
+                + ", latenciaP99Ms=" + getLatenciaPercentilNanos(99) / 1_000_000
+                + ", paquetesEnviados=" + paquetesEnviados
+                + ", retransmisiones=" + retransmisiones + "}";
+    }
+}
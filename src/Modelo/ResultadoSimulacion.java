@@ -0,0 +1,122 @@
+package Modelo;
+
+/**
+ * Resumen de una {@link Simulacion} sin interfaz.
+ */
+public class ResultadoSimulacion {
+
+    /** Cómo terminó la transferencia. */
+    public enum Estado {
+        /** El Emisor recibió confirmación de toda la trama. */
+        COMPLETADA,
+        /** El Emisor la dio por fallida (p. ej. el Receptor se desconectó). */
+        ABORTADA,
+        /**
+         * Se acabaron los eventos sin completarla ni abortarla: el protocolo quedó bloqueado.
+         * Como la simulación corre hasta que no queda nada, una transferencia lenta nunca acaba así.
+         */
+        ESTANCADA
+    }
+
+    private final Estado estado;
+    private final boolean completada;
+    private final byte[] datosRecibidos;
+    private final long tiempoVirtualNanos;
+    private final long paquetesEnviados;
+    private final long retransmisiones;
+    private final long eventosEjecutados;
+    private final long bytesUtiles;
+    private final long srttNanos;
+    private final long rtoNanos;
+    /** Percentiles 50, 90 y 99 del RTT medido, o -1 si no se midió. */
+    private final long rttP50Nanos;
+    private final long rttP90Nanos;
+    private final long rttP99Nanos;
+
+    public ResultadoSimulacion(boolean completada, byte[] datosRecibidos, long tiempoVirtualNanos,
+                               long paquetesEnviados, long retransmisiones, long eventosEjecutados,
+                               long bytesUtiles, long srttNanos, long rtoNanos) {
+        this(completada, datosRecibidos, tiempoVirtualNanos, paquetesEnviados, retransmisiones,
+                eventosEjecutados, bytesUtiles, srttNanos, rtoNanos, null);
+    }
+
+    /**
+     * @param rtt Las muestras de RTT del emisor, de las que se guardan algunos percentiles;
+     *            null si no se midieron.
+     */
+    public ResultadoSimulacion(boolean completada, byte[] datosRecibidos, long tiempoVirtualNanos,
+                               long paquetesEnviados, long retransmisiones, long eventosEjecutados,
+                               long bytesUtiles, long srttNanos, long rtoNanos, Histograma rtt) {
+        this(completada ? Estado.COMPLETADA : Estado.ESTANCADA, datosRecibidos, tiempoVirtualNanos,
+                paquetesEnviados, retransmisiones, eventosEjecutados, bytesUtiles, srttNanos, rtoNanos, rtt);
+    }
+
+    /**
+     * @param estado Distingue, si no se completó, un fallo del Emisor de un bloqueo.
+     */
+    public ResultadoSimulacion(Estado estado, byte[] datosRecibidos, long tiempoVirtualNanos,
+                               long paquetesEnviados, long retransmisiones, long eventosEjecutados,
+                               long bytesUtiles, long srttNanos, long rtoNanos, Histograma rtt) {
+        this.estado = estado;
+        this.completada = estado == Estado.COMPLETADA;
+        this.datosRecibidos = datosRecibidos;
+        this.tiempoVirtualNanos = tiempoVirtualNanos;
+        this.paquetesEnviados = paquetesEnviados;
+        this.retransmisiones = retransmisiones;
+        this.eventosEjecutados = eventosEjecutados;
+        this.bytesUtiles = bytesUtiles;
+        this.srttNanos = srttNanos;
+        this.rtoNanos = rtoNanos;
+        boolean medido = rtt != null && rtt.getCuenta() > 0;
+        this.rttP50Nanos = medido ? rtt.getPercentil(50) : -1;
+        this.rttP90Nanos = medido ? rtt.getPercentil(90) : -1;
+        this.rttP99Nanos = medido ? rtt.getPercentil(99) : -1;
+    }
+
+    /** @return true si el Emisor recibió confirmación de toda la trama. */
+    public boolean isCompletada() { return completada; }
+    public Estado getEstado() { return estado; }
+    /** @return El payload que ensambló el Receptor, o null si no llegó completo o fue a otro sumidero. */
+    public byte[] getDatosRecibidos() { return datosRecibidos; }
+    /** @return Cuánto tardó la transferencia en tiempo simulado. */
+    public long getTiempoVirtualNanos() { return tiempoVirtualNanos; }
+    public long getPaquetesEnviados() { return paquetesEnviados; }
+    public long getRetransmisiones() { return retransmisiones; }
+    public long getEventosEjecutados() { return eventosEjecutados; }
+    /** @return Bytes del mensaje original (sin relleno ni cabeceras). */
+    public long getBytesUtiles() { return bytesUtiles; }
+    /** @return El RTT suavizado al terminar, o -1 si no hubo muestras (o el timeout era fijo). */
+    public long getSrttNanos() { return srttNanos; }
+    /** @return El timeout de retransmisión vigente al terminar. */
+    public long getRtoNanos() { return rtoNanos; }
+    /** @return La mediana del RTT de los paquetes (sin retransmitidos), o -1 si no hubo muestras. */
+    public long getRttP50Nanos() { return rttP50Nanos; }
+    public long getRttP90Nanos() { return rttP90Nanos; }
+    public long getRttP99Nanos() { return rttP99Nanos; }
+
+    /** @return Qué fracción de los paquetes enviados fueron retransmisiones, o 0 si no se envió ninguno. */
+    public double getRatioRetransmision() {
+        return paquetesEnviados == 0 ? 0 : (double) retransmisiones / paquetesEnviados;
+    }
+
+    /**
+     * @return Bytes útiles entregados por segundo de tiempo simulado, o 0 si no se completó.
+     */
+    public double getGoodputBytesPorSegundo() {
+        if (!completada || tiempoVirtualNanos <= 0) return 0;
+        return bytesUtiles * 1e9 / tiempoVirtualNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ResultadoSimulacion{completada=" + completada
+                + (completada ? "" : ", estado=" + estado)
+                + ", tiempoVirtualMs=" + tiempoVirtualNanos / 1_000_000
+                + ", paquetesEnviados=" + paquetesEnviados
+                + ", retransmisiones=" + retransmisiones
+                + ", eventos=" + eventosEjecutados
+                + ", goodputBps=" + Math.round(getGoodputBytesPorSegundo())
+                + ", srttMs=" + (srttNanos < 0 ? -1 : srttNanos / 1_000_000)
+                + ", rtoMs=" + rtoNanos / 1_000_000 + "}";
+    }
+}
@@ -0,0 +1,198 @@
+package Modelo;
+
+/**
+ * Rueda de temporizadores (hashed timing wheel) para los timeouts de retransmisión.
+ * <p>
+ * El tiempo se divide en ticks de {@code resolucionNanos}; cada temporizador cuelga de la
+ * ranura {@code tick & mascara} en una lista doblemente enlazada, así que armar, cancelar y
+ * vencer son O(1). Los nodos {@link Temporizador} pertenecen a quien los usa y se reutilizan:
+ * cancelar desde la ruta del ACK no crea ningún objeto.
+ * <p>
+ * La rueda sólo programa un evento en el {@link Planificador} para la siguiente ranura ocupada
+ * (un mapa de bits indica cuáles lo están), de modo que con el reloj virtual no se simulan
+ * los ticks vacíos. No es thread-safe: se usa desde el hilo del planificador.
+ */
+public class RuedaDeTemporizadores {
+
+    /** Acción a ejecutar cuando un temporizador vence. */
+    public interface AlVencer {
+        void vencio(Temporizador temporizador);
+    }
+
+    /**
+     * Nodo reutilizable de la rueda. {@code id} lo asigna el dueño (p. ej. el número de secuencia).
+     */
+    public static final class Temporizador {
+        private static final int DESARMADO = -1;
+        private static final int VENCIENDO = -2;
+
+        private int id;
+        private long tickVencimiento;
+        /** Ranura en la que está enlazado, o DESARMADO / VENCIENDO. */
+        private int ranura = DESARMADO;
+        private Temporizador anterior;
+        private Temporizador siguiente;
+        /** Enlace aparte para la lista de vencidos de un tick, que puede rearmarse mientras se avisa. */
+        private Temporizador siguienteVencido;
+
+        public int getId() { return id; }
+        public void setId(int id) { this.id = id; }
+        public boolean isArmado() { return ranura != DESARMADO; }
+    }
+
+    private final Planificador planificador;
+    private final long resolucionNanos;
+    private final AlVencer alVencer;
+
+    private final Temporizador[] ranuras;
+    /** Un bit por ranura: si tiene algún temporizador enlazado. */
+    private final long[] ocupadas;
+    private final int mascara;
+
+    /** Todos los temporizadores con vencimiento menor o igual a este tick ya vencieron. */
+    private long tickProcesado;
+    private Evento eventoTick;
+    private long tickProgramado = Long.MAX_VALUE;
+
+    /**
+     * @param resolucionNanos Duración de un tick; los vencimientos se redondean hacia arriba a ella.
+     * @param numRanuras Ranuras de la rueda (se redondea a potencia de 2). Con
+     *                   {@code numRanuras * resolucionNanos} mayor que el timeout típico,
+     *                   cada temporizador vence en la primera vuelta.
+     */
+    public RuedaDeTemporizadores(Planificador planificador, long resolucionNanos, int numRanuras, AlVencer alVencer) {
+        if (resolucionNanos <= 0 || numRanuras < 1) {
+            throw new IllegalArgumentException("Resolución y número de ranuras deben ser positivos");
+        }
+        int capacidad = Math.max(64, Integer.highestOneBit(numRanuras - 1) << 1);
+        this.planificador = planificador;
+        this.resolucionNanos = resolucionNanos;
+        this.alVencer = alVencer;
+        this.ranuras = new Temporizador[capacidad];
+        this.ocupadas = new long[capacidad >>> 6];
+        this.mascara = capacidad - 1;
+        this.tickProcesado = planificador.ahora() / resolucionNanos;
+    }
+
+    /**
+     * Arma (o rearma) un temporizador para que venza dentro de {@code retardoNanos}.
+     */
+    public void armar(Temporizador t, long retardoNanos) {
+        if (t.isArmado()) {
+            cancelar(t);
+        }
+        long vencimiento = (planificador.ahora() + Math.max(0, retardoNanos) + resolucionNanos - 1) / resolucionNanos;
+        t.tickVencimiento = Math.max(vencimiento, tickProcesado + 1);
+        enlazar(t, (int) (t.tickVencimiento & mascara));
+
+        if (t.tickVencimiento < tickProgramado) {
+            programarTick(t.tickVencimiento);
+        }
+    }
+
+    /**
+     * Cancela el temporizador si está armado. O(1) y sin asignar memoria.
+     */
+    public void cancelar(Temporizador t) {
+        if (t.ranura >= 0) {
+            desenlazar(t);
+        }
+        t.ranura = Temporizador.DESARMADO;
+    }
+
+    private void enlazar(Temporizador t, int ranura) {
+        Temporizador cabeza = ranuras[ranura];
+        t.anterior = null;
+        t.siguiente = cabeza;
+        if (cabeza != null) cabeza.anterior = t;
+        ranuras[ranura] = t;
+        t.ranura = ranura;
+        ocupadas[ranura >>> 6] |= 1L << ranura;
+    }
+
+    private void desenlazar(Temporizador t) {
+        int ranura = t.ranura;
+        if (t.anterior != null) {
+            t.anterior.siguiente = t.siguiente;
+        } else {
+            ranuras[ranura] = t.siguiente;
+        }
+        if (t.siguiente != null) t.siguiente.anterior = t.anterior;
+        t.anterior = null;
+        t.siguiente = null;
+        if (ranuras[ranura] == null) {
+            ocupadas[ranura >>> 6] &= ~(1L << ranura);
+        }
+    }
+
+    private void programarTick(long tick) {
+        if (eventoTick != null) {
+            eventoTick.cancelar();
+        }
+        tickProgramado = tick;
+        eventoTick = planificador.programar(tick * resolucionNanos - planificador.ahora(), () -> procesarTick(tick));
+    }
+
+    private void procesarTick(long tick) {
+        eventoTick = null;
+        tickProgramado = Long.MAX_VALUE;
+        tickProcesado = tick;
+
+        // 1. Se sacan de la rueda los vencidos antes de avisar a nadie:
+        //    los avisos pueden armar o cancelar otros temporizadores.
+        int ranura = (int) (tick & mascara);
+        Temporizador vencidos = null;
+        Temporizador t = ranuras[ranura];
+        while (t != null) {
+            Temporizador siguiente = t.siguiente;
+            if (t.tickVencimiento <= tick) {
+                desenlazar(t);
+                t.ranura = Temporizador.VENCIENDO;
+                t.siguienteVencido = vencidos;
+                vencidos = t;
+            }
+            t = siguiente;
+        }
+
+        // 2. Despierta en la siguiente ranura ocupada, si la hay. Se programa antes de
+        //    avisar para que lo que se arme durante los avisos sólo pueda adelantarlo.
+        int distancia = distanciaSiguienteOcupada(tick);
+        if (distancia > 0) {
+            programarTick(tick + distancia);
+        }
+
+        // 3. Avisa a los que no fueron cancelados mientras tanto
+        while (vencidos != null) {
+            Temporizador actual = vencidos;
+            vencidos = actual.siguienteVencido;
+            actual.siguienteVencido = null;
+            if (actual.ranura == Temporizador.VENCIENDO) {
+                actual.ranura = Temporizador.DESARMADO;
+                alVencer.vencio(actual);
+            }
+        }
+    }
+
+    /**
+     * @return Cuántos ticks después de {@code tick} está la siguiente ranura ocupada
+     *         (1..numRanuras), o 0 si la rueda está vacía.
+     */
+    private int distanciaSiguienteOcupada(long tick) {
+        int desde = (int) ((tick + 1) & mascara);
+        int palabras = ocupadas.length;
+        for (int i = 0; i <= palabras; i++) {
+            int indicePalabra = ((desde >>> 6) + i) % palabras;
+            long palabra = ocupadas[indicePalabra];
+            if (i == 0) {
+                palabra &= -1L << (desde & 63);
+            } else if (i == palabras) {
+                palabra &= ~(-1L << (desde & 63));
+            }
+            if (palabra != 0) {
+                int ranura = (indicePalabra << 6) + Long.numberOfTrailingZeros(palabra);
+                return ((ranura - desde) & mascara) + 1;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,25 @@
+package Modelo;
+
+/**
+ * Comparación de números de secuencia por diferencia, al estilo de RFC 1982: {@code a} va antes
+ * que {@code b} si {@code a - b < 0}. Reúne en un solo sitio las comparaciones de la ventana.
+ * <p>
+ * Los números de secuencia no dan la vuelta: cada trama empieza en 0 (el -1 es el HEADER) y
+ * {@link Trama} y {@link ColaMensajes} rechazan lo que no quepa por debajo de
+ * {@link Integer#MAX_VALUE}. El Emisor y el Receptor cuentan con ello ({@code seq >= 0},
+ * {@code seq < total}, la posición {@code seq + 1} de la trama).
+ */
+public final class Secuencias {
+
+    private Secuencias() {}
+
+    /** @return true si {@code a} va estrictamente antes que {@code b}. */
+    public static boolean anterior(int a, int b) {
+        return a - b < 0;
+    }
+
+    /** @return Cuántas posiciones hay desde {@code desde} hasta {@code hasta} (negativo si va antes). */
+    public static int distancia(int desde, int hasta) {
+        return hasta - desde;
+    }
+}
@@ -0,0 +1,164 @@
+package Modelo;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una transferencia completa Emisor → Canal → Receptor sin interfaz gráfica.
+ * El canal usa un {@link PlanificadorVirtual}, así que el tiempo salta de evento en evento:
+ * una trama que en la GUI tardaría horas se resuelve en milisegundos de CPU.
+ */
+public class Simulacion {
+    private final int frecuencia;
+    private final FuenteDatos fuente;
+    private final int tamañoPayload;
+    private final long semilla;
+    /** Crea el estimador de RTO del emisor, o null para el predeterminado. */
+    private Supplier<EstimadorRTT> fabricaEstimador;
+    /** Crea el control de congestión del emisor, o null para el predeterminado. */
+    private Supplier<ControlCongestion> fabricaControl;
+    private int umbralDuplicados = ProtocoloEmisor.UMBRAL_DUPLICADOS_PREDETERMINADO;
+    /** Crea el modelo del enlace, o null para el original. */
+    private Supplier<ModeloCanal> fabricaModelo;
+    /** Crea el sumidero del receptor, o null para ensamblar en memoria. */
+    private Supplier<SumideroDatos> fabricaSumidero;
+
+    public Simulacion(byte[] cargaUtil, int tamañoPayload) {
+        this(0, cargaUtil, tamañoPayload, new Random().nextLong());
+    }
+
+    /**
+     * @param frecuencia El canal que se simula (sólo identifica el resultado).
+     * @param semilla Semilla del azar del canal; la misma semilla da el mismo resultado.
+     */
+    public Simulacion(int frecuencia, byte[] cargaUtil, int tamañoPayload, long semilla) {
+        this(frecuencia, new FuenteMemoria(cargaUtil), tamañoPayload, semilla);
+    }
+
+    /**
+     * Simula el envío de una fuente cualquiera, p. ej. un {@link FuenteArchivo}.
+     */
+    public Simulacion(int frecuencia, FuenteDatos fuente, int tamañoPayload, long semilla) {
+        this.frecuencia = frecuencia;
+        this.fuente = fuente;
+        this.tamañoPayload = tamañoPayload;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Deriva una semilla independiente para cada frecuencia a partir de una semilla base,
+     * de modo que los canales no comparten secuencia aleatoria.
+     */
+    public static long semillaPara(long semillaBase, int frecuencia) {
+        return new SplittableRandom(semillaBase ^ (frecuencia * 0x9E3779B97F4A7C15L)).nextLong();
+    }
+
+    public int getFrecuencia() {
+        return frecuencia;
+    }
+
+    /**
+     * Elige cómo calcula el emisor su timeout de retransmisión, p. ej.
+     * {@code () -> EstimadorRTT.fijo(EstimadorRTT.RTO_INICIAL_NANOS)} para comparar
+     * el goodput contra el timeout fijo con la misma semilla.
+     * @param fabricaEstimador Crea un estimador nuevo por ejecución, o null para el predeterminado.
+     */
+    public void setFabricaEstimador(Supplier<EstimadorRTT> fabricaEstimador) {
+        this.fabricaEstimador = fabricaEstimador;
+    }
+
+    /**
+     * Elige el control de congestión del emisor, p. ej. {@code ControlCongestion::cubic}
+     * o {@code () -> ControlCongestion.fija(3)} para la ventana original.
+     * @param fabricaControl Crea un control nuevo por ejecución, o null para el predeterminado.
+     */
+    public void setFabricaControl(Supplier<ControlCongestion> fabricaControl) {
+        this.fabricaControl = fabricaControl;
+    }
+
+    /**
+     * @param umbralDuplicados Umbral de retransmisión rápida del emisor; 0 la desactiva.
+     */
+    public void setUmbralDuplicados(int umbralDuplicados) {
+        this.umbralDuplicados = umbralDuplicados;
+    }
+
+    /**
+     * Elige el comportamiento del enlace, p. ej. con un ancho de banda y una cola finitos para
+     * que el tamaño de la ventana importe: {@code () -> ModeloCanal.original().conCuelloDeBotella(...)}.
+     * @param fabricaModelo Crea un modelo nuevo por ejecución, o null para el canal original.
+     */
+    public void setFabricaModelo(Supplier<ModeloCanal> fabricaModelo) {
+        this.fabricaModelo = fabricaModelo;
+    }
+
+    /**
+     * Elige a dónde escribe el receptor lo recibido, p. ej. un {@link SumideroArchivo} para
+     * tramas que no caben en memoria. Con otro sumidero que no sea el predeterminado,
+     * {@link ResultadoSimulacion#getDatosRecibidos()} es null.
+     * @param fabricaSumidero Crea el sumidero de cada ejecución, o null para ensamblar en memoria.
+     */
+    public void setFabricaSumidero(Supplier<SumideroDatos> fabricaSumidero) {
+        this.fabricaSumidero = fabricaSumidero;
+    }
+
+    /**
+     * Corre la simulación hasta que no queden eventos pendientes.
+     * Todo el estado (reloj, canal, extremos) es local a la llamada, por lo que
+     * varias simulaciones pueden ejecutarse a la vez en hilos distintos.
+     */
+    public ResultadoSimulacion ejecutar() {
+        PlanificadorVirtual planificador = new PlanificadorVirtual();
+        Canal canal = new Canal(frecuencia, planificador, new Random(semilla),
+                fabricaModelo != null ? fabricaModelo.get() : ModeloCanal.original());
+
+        ProtocoloEmisor emisor = new ProtocoloEmisor(
+                fabricaEstimador != null ? fabricaEstimador.get() : ProtocoloEmisor.estimadorPredeterminado(),
+                fabricaControl != null ? fabricaControl.get() : ProtocoloEmisor.controlPredeterminado(),
+                umbralDuplicados);
+        ProtocoloReceptor receptor = new ProtocoloReceptor();
+        if (fabricaSumidero != null) {
+            receptor.setSumidero(fabricaSumidero.get());
+        }
+        emisor.sintonizar(canal);
+        receptor.sintonizar(canal);
+
+        final boolean[] completada = {false};
+        final boolean[] abortada = {false};
+        final long[] instanteFinal = {0};
+        final byte[][] recibido = {null};
+        emisor.setObservador(new ObservadorEmisor() {
+            @Override
+            public void transmisionCompletada() {
+                completada[0] = true;
+                instanteFinal[0] = planificador.ahora();
+            }
+
+            @Override
+            public void transmisionFallida(String titulo, String mensaje) {
+                abortada[0] = true;
+            }
+        });
+        receptor.setObservador(new ObservadorReceptor() {
+            @Override
+            public void mensajeRecibido(byte[] datos) {
+                recibido[0] = datos;
+            }
+        });
+
+        List<Packet> trama = new Trama(fuente, tamañoPayload, AlgoritmoChecksum.PREDETERMINADO).getPackets();
+        emisor.enviar(trama);
+        long eventos = planificador.ejecutarTodo();
+
+        long duracion = completada[0] ? instanteFinal[0] : planificador.ahora();
+        EstimadorRTT estimador = emisor.getEstimadorRTT();
+        ResultadoSimulacion.Estado estado = completada[0] ? ResultadoSimulacion.Estado.COMPLETADA
+                : abortada[0] ? ResultadoSimulacion.Estado.ABORTADA : ResultadoSimulacion.Estado.ESTANCADA;
+        return new ResultadoSimulacion(estado, recibido[0], duracion,
+                emisor.getPaquetesEnviados(), emisor.getRetransmisiones(), eventos,
+                fuente.getLongitud(), estimador.getSrttNanos(), estimador.getRtoNanos(),
+                emisor.getMetricas().getHistogramaRtt());
+    }
+}
@@ -0,0 +1,158 @@
+package Modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Varias transferencias a la vez por un mismo {@link Canal}, cada pareja Emisor/Receptor en su
+ * propio flujo, para medir cómo se reparten el enlace. Como {@link Simulacion}, corre sobre un
+ * {@link PlanificadorVirtual} y con la misma semilla da el mismo resultado.
+ * <pre>
+ *   java -cp target/classes Modelo.SimulacionFlujos &lt;flujos&gt; &lt;bytesPorFlujo&gt; fifo|drr [agresivos] [bitsPorSegundo]
+ * </pre>
+ * Desde la línea de comandos los flujos comparten un cuello de botella: con {@code fifo} una sola
+ * cola para todos, con {@code drr} una por flujo ({@link ColaDrr}), con el mismo espacio en total.
+ * Los primeros {@code agresivos} flujos usan una ventana fija que no cede ante las pérdidas.
+ */
+public class SimulacionFlujos {
+    private static final int TAMANO_PAYLOAD = 1400;
+    private static final long BITS_POR_SEGUNDO_PREDETERMINADOS = 2_000_000;
+    /** Cola del cuello de botella de la línea de comandos, por flujo. */
+    private static final int COLA_POR_FLUJO_BYTES = 16 * 1024;
+
+    private final int flujos;
+    private final byte[] cargaUtil;
+    private final int tamañoPayload;
+    private final long semilla;
+    /** Crea el modelo del enlace compartido, o null para el original. */
+    private Supplier<ModeloCanal> fabricaModelo;
+    /** Crea el control de congestión del emisor de cada flujo, o null para el predeterminado. */
+    private IntFunction<ControlCongestion> fabricaControl;
+
+    /**
+     * @param flujos Parejas Emisor/Receptor; cada una envía {@code cargaUtil} completa.
+     */
+    public SimulacionFlujos(int flujos, byte[] cargaUtil, int tamañoPayload, long semilla) {
+        if (flujos < 1 || flujos > Packet.MAXIMO_FLUJO + 1) {
+            throw new IllegalArgumentException("Número de flujos inválido: " + flujos);
+        }
+        this.flujos = flujos;
+        this.cargaUtil = cargaUtil;
+        this.tamañoPayload = tamañoPayload;
+        this.semilla = semilla;
+    }
+
+    /**
+     * Elige el comportamiento del enlace que comparten los flujos, p. ej. con
+     * {@link ModeloEnlace#conRepartoJusto} para repartir su capacidad por igual.
+     * @param fabricaModelo Crea un modelo nuevo por ejecución, o null para el canal original.
+     */
+    public void setFabricaModelo(Supplier<ModeloCanal> fabricaModelo) {
+        this.fabricaModelo = fabricaModelo;
+    }
+
+    /**
+     * @param fabricaControl Crea el control de congestión del flujo que recibe, o null para el predeterminado.
+     */
+    public void setFabricaControl(IntFunction<ControlCongestion> fabricaControl) {
+        this.fabricaControl = fabricaControl;
+    }
+
+    /**
+     * Corre todos los flujos a la vez, desde el instante 0, hasta que no queden eventos.
+     */
+    public ResultadoFlujos ejecutar() {
+        PlanificadorVirtual planificador = new PlanificadorVirtual();
+        Canal canal = new Canal(0, planificador, new Random(semilla),
+                fabricaModelo != null ? fabricaModelo.get() : ModeloCanal.original());
+
+        List<ProtocoloEmisor> emisores = new ArrayList<>(flujos);
+        final long[] instanteFinal = new long[flujos];
+        final boolean[] completada = new boolean[flujos];
+        final byte[][] recibido = new byte[flujos][];
+        for (int i = 0; i < flujos; i++) {
+            final int flujo = i;
+            ProtocoloEmisor emisor = new ProtocoloEmisor(ProtocoloEmisor.estimadorPredeterminado(),
+                    fabricaControl != null ? fabricaControl.apply(flujo) : ProtocoloEmisor.controlPredeterminado());
+            ProtocoloReceptor receptor = new ProtocoloReceptor();
+            emisor.sintonizar(canal, flujo);
+            receptor.sintonizar(canal, flujo);
+            emisor.setObservador(new ObservadorEmisor() {
+                @Override
+                public void transmisionCompletada() {
+                    completada[flujo] = true;
+                    instanteFinal[flujo] = planificador.ahora();
+                }
+            });
+            receptor.setObservador(new ObservadorReceptor() {
+                @Override
+                public void mensajeRecibido(byte[] datos) {
+                    recibido[flujo] = datos;
+                }
+            });
+            emisores.add(emisor);
+        }
+
+        List<Packet> trama = new Trama(new FuenteMemoria(cargaUtil), tamañoPayload, AlgoritmoChecksum.PREDETERMINADO).getPackets();
+        for (ProtocoloEmisor emisor : emisores) {
+            emisor.enviar(trama);
+        }
+        long eventos = planificador.ejecutarTodo();
+
+        List<ResultadoSimulacion> resultados = new ArrayList<>(flujos);
+        long fin = 0;
+        for (int i = 0; i < flujos; i++) {
+            ProtocoloEmisor emisor = emisores.get(i);
+            long duracion = completada[i] ? instanteFinal[i] : planificador.ahora();
+            fin = Math.max(fin, duracion);
+            EstimadorRTT estimador = emisor.getEstimadorRTT();
+            resultados.add(new ResultadoSimulacion(completada[i], recibido[i], duracion,
+                    emisor.getPaquetesEnviados(), emisor.getRetransmisiones(), eventos,
+                    cargaUtil.length, estimador.getSrttNanos(), estimador.getRtoNanos(),
+                    emisor.getMetricas().getHistogramaRtt()));
+        }
+        return new ResultadoFlujos(resultados, fin);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3 || !(args[2].equals("fifo") || args[2].equals("drr"))) {
+            System.err.println("Uso: SimulacionFlujos <flujos> <bytesPorFlujo> fifo|drr [agresivos] [bitsPorSegundo]");
+            System.exit(2);
+        }
+        int flujos = Integer.parseInt(args[0]);
+        int bytes = Integer.parseInt(args[1]);
+        boolean drr = args[2].equals("drr");
+        int agresivos = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        long bitsPorSegundo = args.length > 4 ? Long.parseLong(args[4]) : BITS_POR_SEGUNDO_PREDETERMINADOS;
+
+        byte[] datos = new byte[bytes];
+        new Random(1).nextBytes(datos);
+        SimulacionFlujos simulacion = new SimulacionFlujos(flujos, datos, TAMANO_PAYLOAD, 42);
+        // Sin pérdidas ni ruido en el enlace: sólo compiten por el cuello de botella
+        simulacion.setFabricaModelo(() -> {
+            ModeloEnlace modelo = ModeloCanal.original()
+                    .conPerdida(ModeloPerdida.ninguna())
+                    .conCorrupcion(0)
+                    .conLatencia(10, 20)
+                    .conDuracionViaje(10)
+                    .conCuelloDeBotella(bitsPorSegundo, (long) COLA_POR_FLUJO_BYTES * flujos, ColaEnlace.Descarte.COLA);
+            // Los ACKs siguen en la cola común; con drr los datos pasan a una cola por flujo
+            return drr
+                    ? modelo.conRepartoJusto(bitsPorSegundo, COLA_POR_FLUJO_BYTES, TAMANO_PAYLOAD + CodecPaquete.TAMANO_MAXIMO_CABECERA)
+                    : modelo;
+        });
+        simulacion.setFabricaControl(flujo -> flujo < agresivos
+                ? ControlCongestion.fija(ProtocoloEmisor.VENTANA_PREDETERMINADA)
+                : ProtocoloEmisor.controlPredeterminado());
+
+        ResultadoFlujos resultado = simulacion.ejecutar();
+        List<ResultadoSimulacion> porFlujo = resultado.getFlujos();
+        for (int i = 0; i < porFlujo.size(); i++) {
+            System.err.println("flujo " + i + (i < agresivos ? " (agresivo)" : "") + ": " + porFlujo.get(i));
+        }
+        System.err.println(resultado);
+    }
+}
@@ -0,0 +1,156 @@
+package Modelo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Una serie de mensajes pequeños que se quieren enviar cada cierto tiempo, como los de la GUI,
+ * para comparar una trama (con su handshake) por mensaje contra una sola conexión persistente
+ * ({@link ProtocoloEmisor#abrirConexion(int)}). Como {@link Simulacion}, corre sobre un
+ * {@link PlanificadorVirtual} y con la misma semilla da el mismo resultado.
+ * <pre>
+ *   java -cp target/classes Modelo.SimulacionMensajes &lt;mensajes&gt; &lt;bytesPorMensaje&gt; tramas|conexion [intervaloMs] [tamanoPayload]
+ * </pre>
+ * La latencia de un mensaje va desde que se quiere enviar hasta que el Emisor lo ve confirmado.
+ */
+public class SimulacionMensajes {
+    /** El de la GUI. */
+    private static final int TAMANO_PAYLOAD_PREDETERMINADO = 10;
+    private static final long INTERVALO_PREDETERMINADO_MS = 50;
+
+    public enum Modo {
+        /** Una trama por mensaje; cada una espera a que termine la anterior. */
+        TRAMAS,
+        /** Todos los mensajes por una conexión persistente. */
+        CONEXION
+    }
+
+    private final byte[][] mensajes;
+    private final long intervaloNanos;
+    private final int tamañoPayload;
+    private final long semilla;
+    /** Crea el modelo del enlace, o null para el original. */
+    private Supplier<ModeloCanal> fabricaModelo;
+
+    /**
+     * @param intervaloNanos Cada cuánto se quiere enviar el mensaje siguiente, desde el instante 0.
+     */
+    public SimulacionMensajes(int mensajes, int bytesPorMensaje, long intervaloNanos, int tamañoPayload, long semilla) {
+        if (mensajes < 1 || bytesPorMensaje < 0 || intervaloNanos < 0) {
+            throw new IllegalArgumentException("Serie de mensajes inválida: " + mensajes + " x " + bytesPorMensaje
+                    + " B cada " + intervaloNanos + " ns");
+        }
+        SplittableRandom azar = new SplittableRandom(semilla);
+        this.mensajes = new byte[mensajes][bytesPorMensaje];
+        for (byte[] mensaje : this.mensajes) {
+            azar.nextBytes(mensaje);
+        }
+        this.intervaloNanos = intervaloNanos;
+        this.tamañoPayload = tamañoPayload;
+        this.semilla = semilla;
+    }
+
+    /**
+     * @param fabricaModelo Crea un modelo nuevo por ejecución, o null para el canal original.
+     */
+    public void setFabricaModelo(Supplier<ModeloCanal> fabricaModelo) {
+        this.fabricaModelo = fabricaModelo;
+    }
+
+    /**
+     * Envía toda la serie de un modo hasta que no queden eventos. El estado es local a la llamada.
+     */
+    public ResultadoMensajes ejecutar(Modo modo) {
+        PlanificadorVirtual planificador = new PlanificadorVirtual();
+        Canal canal = new Canal(0, planificador, new Random(semilla),
+                fabricaModelo != null ? fabricaModelo.get() : ModeloCanal.original());
+        ProtocoloEmisor emisor = new ProtocoloEmisor();
+        ProtocoloReceptor receptor = new ProtocoloReceptor();
+        emisor.sintonizar(canal);
+        receptor.sintonizar(canal);
+
+        final long[] latencias = new long[mensajes.length];
+        final int[] confirmados = {0};
+        final int[] recibidos = {0};
+        final int[] integros = {0};
+        final long[] instanteFinal = {0};
+        // Sólo para TRAMAS: los que esperan a que termine la trama en curso
+        final ArrayDeque<Integer> espera = new ArrayDeque<>();
+
+        receptor.setObservador(new ObservadorReceptor() {
+            @Override
+            public void mensajeRecibido(byte[] datos) {
+                int numero = recibidos[0]++;
+                if (numero < mensajes.length && Arrays.equals(datos, mensajes[numero])) {
+                    integros[0]++;
+                }
+            }
+        });
+        emisor.setObservador(new ObservadorEmisor() {
+            private void confirmar(int numero) {
+                latencias[confirmados[0]++] = planificador.ahora() - numero * intervaloNanos;
+                instanteFinal[0] = planificador.ahora();
+            }
+
+            @Override
+            public void mensajeConfirmado(long numero) {
+                confirmar((int) numero);
+            }
+
+            @Override
+            public void transmisionCompletada() {
+                if (modo == Modo.TRAMAS) {
+                    confirmar(confirmados[0]);
+                    enviarTrama(emisor, espera);
+                }
+            }
+        });
+
+        for (int i = 0; i < mensajes.length; i++) {
+            final int numero = i;
+            planificador.programar(numero * intervaloNanos, () -> {
+                if (modo == Modo.CONEXION) {
+                    if (numero == 0) emisor.abrirConexion(tamañoPayload);
+                    emisor.encolarMensaje(mensajes[numero]);
+                    if (numero == mensajes.length - 1) emisor.cerrarConexion();
+                } else {
+                    espera.add(numero);
+                    if (!emisor.isTransmitiendo()) enviarTrama(emisor, espera);
+                }
+            });
+        }
+        long eventos = planificador.ejecutarTodo();
+        Bitacora.depuracion("SimulacionMensajes: {} eventos", eventos);
+
+        return new ResultadoMensajes(modo, mensajes.length, integros[0], Arrays.copyOf(latencias, confirmados[0]),
+                confirmados[0] == mensajes.length ? instanteFinal[0] : planificador.ahora(),
+                emisor.getPaquetesEnviados(), emisor.getRetransmisiones());
+    }
+
+    private void enviarTrama(ProtocoloEmisor emisor, ArrayDeque<Integer> espera) {
+        Integer siguiente = espera.poll();
+        if (siguiente != null) {
+            emisor.enviar(new Trama(mensajes[siguiente], tamañoPayload).getPackets());
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 3 || !(args[2].equals("tramas") || args[2].equals("conexion"))) {
+            System.err.println("Uso: SimulacionMensajes <mensajes> <bytesPorMensaje> tramas|conexion [intervaloMs] [tamanoPayload]");
+            System.exit(2);
+        }
+        int mensajes = Integer.parseInt(args[0]);
+        int bytes = Integer.parseInt(args[1]);
+        Modo modo = args[2].equals("tramas") ? Modo.TRAMAS : Modo.CONEXION;
+        long intervaloMs = args.length > 3 ? Long.parseLong(args[3]) : INTERVALO_PREDETERMINADO_MS;
+        int tamañoPayload = args.length > 4 ? Integer.parseInt(args[4]) : TAMANO_PAYLOAD_PREDETERMINADO;
+
+        SimulacionMensajes simulacion = new SimulacionMensajes(mensajes, bytes,
+                TimeUnit.MILLISECONDS.toNanos(intervaloMs), tamañoPayload, 42);
+        System.err.println(simulacion.ejecutar(modo));
+    }
+}
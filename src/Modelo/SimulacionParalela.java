@@ -0,0 +1,64 @@
+package Modelo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Ejecuta varias {@link Simulacion}es (una por frecuencia) repartidas entre los núcleos.
+ * Cada canal tiene su propio bucle de eventos, reloj y fuente de azar, y nunca comparte
+ * estado con otro: el resultado es el mismo con 1 hilo o con 64.
+ */
+public class SimulacionParalela {
+    private final List<Simulacion> simulaciones = new ArrayList<>();
+    private final int paralelismo;
+
+    public SimulacionParalela() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param paralelismo Cuántos canales pueden avanzar a la vez.
+     */
+    public SimulacionParalela(int paralelismo) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser al menos 1: " + paralelismo);
+        }
+        this.paralelismo = paralelismo;
+    }
+
+    public void agregar(Simulacion simulacion) {
+        simulaciones.add(simulacion);
+    }
+
+    /**
+     * Corre todas las simulaciones y espera a que terminen.
+     * @return Los resultados por frecuencia, en el orden en que se agregaron.
+     */
+    public Map<Integer, ResultadoSimulacion> ejecutar() {
+        ForkJoinPool pool = new ForkJoinPool(paralelismo);
+        try {
+            List<ForkJoinTask<ResultadoSimulacion>> tareas = new ArrayList<>();
+            for (Simulacion simulacion : simulaciones) {
+                tareas.add(pool.submit(simulacion::ejecutar));
+            }
+
+            Map<Integer, ResultadoSimulacion> resultados = new LinkedHashMap<>();
+            for (int i = 0; i < tareas.size(); i++) {
+                resultados.put(simulaciones.get(i).getFrecuencia(), tareas.get(i).get());
+            }
+            return resultados;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falló la simulación de un canal", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
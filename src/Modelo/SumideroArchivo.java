@@ -0,0 +1,68 @@
+package Modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sumidero que escribe cada tramo directamente en su posición del archivo
+ * ({@link FileChannel#write(ByteBuffer, long)}), sin pasar por un arreglo del tamaño del mensaje.
+ * Cada trama nueva sobrescribe el archivo desde el principio.
+ */
+public class SumideroArchivo implements SumideroDatos, Closeable {
+    private final FileChannel canal;
+    /** Si {@link #completar()} debe esperar a que los datos lleguen al disco. */
+    private final boolean sincronizar;
+
+    public SumideroArchivo(Path archivo) throws IOException {
+        this(archivo, false);
+    }
+
+    /**
+     * @param sincronizar Si al completar cada trama se fuerzan los datos al dispositivo.
+     */
+    public SumideroArchivo(Path archivo, boolean sincronizar) throws IOException {
+        this.canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.sincronizar = sincronizar;
+    }
+
+    @Override
+    public void iniciar(long longitud) {
+        try {
+            canal.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void escribir(long posicion, ByteBuffer datos) {
+        ByteBuffer vista = datos.duplicate();
+        try {
+            while (vista.hasRemaining()) {
+                posicion += canal.write(vista, posicion);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en " + posicion, e);
+        }
+    }
+
+    @Override
+    public void completar() {
+        if (!sincronizar) return;
+        try {
+            canal.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+}
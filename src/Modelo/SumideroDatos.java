@@ -0,0 +1,33 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Destino de los bytes que ensambla el {@link ProtocoloReceptor}. El receptor le entrega cada
+ * tramo en orden en cuanto avanza su próximo paquete esperado, así que no hace falta tener
+ * el mensaje entero en memoria.
+ * <p>
+ * Un mismo sumidero se reutiliza trama tras trama: cada una empieza con {@link #iniciar(long)}
+ * y termina con {@link #completar()} o, si se abandona, con {@link #descartar()}.
+ * Los errores de E/S se propagan como {@link java.io.UncheckedIOException}.
+ */
+public interface SumideroDatos {
+
+    /**
+     * Empieza una trama nueva.
+     * @param longitud Bytes que se esperan (exactos si el HEADER los anuncia).
+     */
+    void iniciar(long longitud);
+
+    /**
+     * Recibe el siguiente tramo en orden: {@code posicion} es siempre el final del anterior.
+     * @param datos Sólo es válido durante la llamada; quien quiera guardarlo debe copiarlo.
+     */
+    void escribir(long posicion, ByteBuffer datos);
+
+    /** Llegaron todos los bytes de la trama. */
+    void completar();
+
+    /** La trama se abandonó a medias (p. ej. llegó otro HEADER). */
+    default void descartar() {}
+}
@@ -0,0 +1,38 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sumidero que ensambla la trama en un arreglo, como hacía el Receptor originalmente.
+ * Es el que usa el {@link ProtocoloReceptor} si no se indica otro; sirve para mensajes
+ * que caben en memoria (menos de 2 GiB).
+ */
+public class SumideroMemoria implements SumideroDatos {
+    private byte[] datos;
+
+    @Override
+    public void iniciar(long longitud) {
+        if (longitud > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Trama demasiado grande para ensamblarse en memoria: " + longitud + " bytes");
+        }
+        datos = new byte[(int) longitud];
+    }
+
+    @Override
+    public void escribir(long posicion, ByteBuffer datos) {
+        datos.get(datos.position(), this.datos, (int) posicion, datos.remaining());
+    }
+
+    @Override
+    public void completar() {}
+
+    @Override
+    public void descartar() {
+        datos = null;
+    }
+
+    /** @return El mensaje ensamblado (el arreglo interno, sin copiar). */
+    public byte[] getDatos() {
+        return datos;
+    }
+}
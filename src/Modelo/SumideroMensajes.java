@@ -0,0 +1,81 @@
+package Modelo;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Sumidero de una conexión persistente ({@link ColaMensajes}): separa los mensajes del flujo de
+ * bytes, cada uno precedido de su longitud en {@value ColaMensajes#BYTES_LONGITUD} bytes, y
+ * entrega cada uno entero en cuanto llega su último byte. La longitud o el mensaje pueden
+ * venir partidos entre varios tramos.
+ */
+public class SumideroMensajes implements SumideroDatos {
+    private final Consumer<byte[]> alRecibir;
+    private final ByteBuffer longitud = ByteBuffer.allocate(ColaMensajes.BYTES_LONGITUD);
+    /** El mensaje que se está llenando, o null si toca leer una longitud. */
+    private byte[] mensaje;
+    private int llenos;
+    private long mensajes = 0;
+
+    /**
+     * @param alRecibir Recibe cada mensaje completo; el arreglo es suyo.
+     */
+    public SumideroMensajes(Consumer<byte[]> alRecibir) {
+        this.alRecibir = alRecibir;
+    }
+
+    @Override
+    public void iniciar(long longitud) {
+        descartar();
+        mensajes = 0;
+    }
+
+    @Override
+    public void escribir(long posicion, ByteBuffer datos) {
+        ByteBuffer entrada = datos.duplicate();
+        while (entrada.hasRemaining()) {
+            if (mensaje == null) {
+                while (longitud.hasRemaining() && entrada.hasRemaining()) {
+                    longitud.put(entrada.get());
+                }
+                if (longitud.hasRemaining()) return;
+                int bytes = longitud.flip().getInt();
+                longitud.clear();
+                if (bytes < 0) {
+                    throw new IllegalStateException("Longitud de mensaje inválida en la posición " + posicion + ": " + bytes);
+                }
+                mensaje = new byte[bytes];
+                llenos = 0;
+            }
+            int copiar = Math.min(entrada.remaining(), mensaje.length - llenos);
+            entrada.get(mensaje, llenos, copiar);
+            llenos += copiar;
+            if (llenos == mensaje.length) {
+                byte[] completo = mensaje;
+                mensaje = null;
+                mensajes++;
+                alRecibir.accept(completo);
+            }
+        }
+    }
+
+    @Override
+    public void completar() {
+        descartar();
+    }
+
+    @Override
+    public void descartar() {
+        mensaje = null;
+        llenos = 0;
+        longitud.clear();
+    }
+
+    /** @return true si no hay ningún mensaje a medias: lo recibido acaba justo en un mensaje. */
+    public boolean isEntreMensajes() {
+        return mensaje == null && longitud.position() == 0;
+    }
+
+    /** @return Mensajes entregados desde el último {@link #iniciar(long)}. */
+    public long getMensajes() { return mensajes; }
+}
@@ -0,0 +1,96 @@
+package Modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Sumidero que decodifica el texto a medida que llega, con un {@link CharsetDecoder}, y lo
+ * va añadiendo a un {@link Appendable} (un {@code StringBuilder}, un {@code Writer}...).
+ * Un carácter multibyte partido entre dos paquetes se completa con el siguiente tramo.
+ * Las secuencias inválidas se reemplazan, como hace {@code new String(bytes, charset)}.
+ */
+public class SumideroTexto implements SumideroDatos {
+    private static final int TAMANO_BUFFER_CARACTERES = 4096;
+    /** Holgura para el carácter más largo de cualquier codificación habitual. */
+    private static final int TAMANO_MAXIMO_CARACTER = 16;
+
+    private final CharsetDecoder decodificador;
+    private final Appendable destino;
+    private final CharBuffer caracteres = CharBuffer.allocate(TAMANO_BUFFER_CARACTERES);
+    /** Bytes de un carácter incompleto al final del último tramo. */
+    private final ByteBuffer pendiente;
+
+    public SumideroTexto(Charset charset, Appendable destino) {
+        this.decodificador = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.destino = destino;
+        this.pendiente = ByteBuffer.allocate(TAMANO_MAXIMO_CARACTER);
+    }
+
+    @Override
+    public void iniciar(long longitud) {
+        decodificador.reset();
+        pendiente.clear();
+        caracteres.clear();
+    }
+
+    @Override
+    public void escribir(long posicion, ByteBuffer datos) {
+        ByteBuffer entrada = datos.duplicate();
+        // Primero se completa el carácter partido, byte a byte
+        while (pendiente.position() > 0 && entrada.hasRemaining()) {
+            pendiente.put(entrada.get());
+            pendiente.flip();
+            decodificar(pendiente, false);
+            pendiente.compact();
+        }
+        decodificar(entrada, false);
+        pendiente.put(entrada); // Lo que queda es el inicio de un carácter
+        vaciar();
+    }
+
+    @Override
+    public void completar() {
+        pendiente.flip();
+        decodificar(pendiente, true);
+        pendiente.clear();
+        while (decodificador.flush(caracteres).isOverflow()) {
+            vaciar();
+        }
+        vaciar();
+    }
+
+    @Override
+    public void descartar() {
+        iniciar(-1);
+    }
+
+    private void decodificar(ByteBuffer entrada, boolean fin) {
+        while (true) {
+            CoderResult resultado = decodificador.decode(entrada, caracteres, fin);
+            if (resultado.isOverflow()) {
+                vaciar();
+            } else {
+                // Underflow: se consumió todo lo decodificable
+                return;
+            }
+        }
+    }
+
+    private void vaciar() {
+        caracteres.flip();
+        try {
+            destino.append(caracteres);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        caracteres.clear();
+    }
+}
@@ -1,36 +1,100 @@
 package Modelo;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
 import java.util.List;
-import java.util.Arrays;
+import java.util.RandomAccess;
 
+/**
+ * Segmenta un mensaje en un HEADER seguido de paquetes de datos.
+ * <p>
+ * Los paquetes no se crean de antemano: {@link #getPackets()} es una lista perezosa que arma
+ * cada paquete cuando el emisor lo pide, como vista sobre la {@link FuenteDatos}. Así, para un
+ * archivo proyectado en memoria, el heap del emisor depende de los paquetes en vuelo y no del
+ * tamaño del archivo. Segmentar no copia ningún byte.
+ * <p>
+ * El HEADER anuncia la longitud exacta en bytes, así que el último paquete no lleva relleno.
+ */
 public class Trama {
-    private final List<Packet> packets;
+    private final FuenteDatos fuente;
+    private final int tamanoPayload;
+    private final AlgoritmoChecksum algoritmo;
+    private final int numPaquetesDatos;
+    private final Packet header;
+    private final List<Packet> packets = new Paquetes();
 
+    /**
+     * @param cargaUtilTotal El mensaje. No debe modificarse mientras se transmite,
+     *                       porque los paquetes apuntan directamente a sus bytes.
+     */
     public Trama(byte[] cargaUtilTotal, int tamanoPayload) {
-        this.packets = new ArrayList<>();
-        segmentar(cargaUtilTotal, tamanoPayload);
+        this(ByteBuffer.wrap(cargaUtilTotal), tamanoPayload);
     }
 
-    private void segmentar(byte[] cargaUtilTotal, int tamanoPayload) {
-        int numPaquetesDatos = (int) Math.ceil((double) cargaUtilTotal.length / tamanoPayload);
-        Packet headerPacket = new Packet(numPaquetesDatos);
-        this.packets.add(headerPacket);
-        // ------------------------------------
+    public Trama(ByteBuffer cargaUtilTotal, int tamanoPayload) {
+        this(cargaUtilTotal, tamanoPayload, AlgoritmoChecksum.PREDETERMINADO);
+    }
 
-        int tamanoTotalConPadding = numPaquetesDatos * tamanoPayload;
-        byte[] datosConPadding = new byte[tamanoTotalConPadding];
-        System.arraycopy(cargaUtilTotal, 0, datosConPadding, 0, cargaUtilTotal.length);
+    /**
+     * @param algoritmo Checksum de todos los paquetes de la trama; se calcula
+     *                  al crear cada paquete.
+     */
+    public Trama(ByteBuffer cargaUtilTotal, int tamanoPayload, AlgoritmoChecksum algoritmo) {
+        this(new FuenteMemoria(cargaUtilTotal), tamanoPayload, algoritmo);
+    }
 
-        int sequence = 0;
-        for (int i = 0; i < datosConPadding.length; i += tamanoPayload) {
-            byte[] chunk = Arrays.copyOfRange(datosConPadding, i, i + tamanoPayload);
-            packets.add(new Packet(sequence, chunk)); // seq 0, 1, 2...
-            sequence++;
+    /**
+     * Trama sobre cualquier fuente, p. ej. un {@link FuenteArchivo} de varios gigabytes.
+     */
+    public Trama(FuenteDatos fuente, int tamanoPayload, AlgoritmoChecksum algoritmo) {
+        if (tamanoPayload <= 0) {
+            throw new IllegalArgumentException("El tamaño de payload debe ser positivo: " + tamanoPayload);
+        }
+        long paquetes = (fuente.getLongitud() + tamanoPayload - 1) / tamanoPayload;
+        if (paquetes > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Demasiados paquetes para una trama: " + paquetes
+                    + "; use un payload mayor que " + tamanoPayload);
         }
+        this.fuente = fuente;
+        this.tamanoPayload = tamanoPayload;
+        this.algoritmo = algoritmo;
+        this.numPaquetesDatos = (int) paquetes;
+        this.header = new Packet(numPaquetesDatos, tamanoPayload, fuente.getLongitud(), algoritmo);
     }
 
+    /**
+     * @return El HEADER en la posición 0 y el paquete {@code seq} en la {@code seq + 1}.
+     *         Cada {@code get} de un paquete de datos crea uno nuevo (y calcula su checksum),
+     *         así que quien lo necesite varias veces debe guardarlo.
+     */
     public List<Packet> getPackets() {
         return packets;
     }
-}
\ No newline at end of file
+
+    /** @return Bytes del mensaje, sin relleno. */
+    public long getLongitud() {
+        return fuente.getLongitud();
+    }
+
+    private Packet crearPaquete(int sequence) {
+        long inicio = (long) sequence * tamanoPayload;
+        int bytesReales = (int) Math.min(tamanoPayload, fuente.getLongitud() - inicio);
+        return new Packet(sequence, fuente.leer(inicio, bytesReales), 0, algoritmo);
+    }
+
+    /** Vista de la trama como lista, sin guardar los paquetes. */
+    private class Paquetes extends AbstractList<Packet> implements RandomAccess {
+        @Override
+        public Packet get(int indice) {
+            if (indice < 0 || indice > numPaquetesDatos) {
+                throw new IndexOutOfBoundsException("Índice " + indice + " de " + size());
+            }
+            return indice == 0 ? header : crearPaquete(indice - 1);
+        }
+
+        @Override
+        public int size() {
+            return numPaquetesDatos + 1;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package Modelo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfiere un archivo entre dos JVMs con el protocolo de siempre, por UDP ({@link CanalUdp})
+ * o por memoria compartida ({@link CanalMemoriaCompartida}). Primero se arranca el receptor:
+ * <pre>
+ *   java -cp target/classes Modelo.Transferencia udp receptor 9001 localhost:9000 salida.bin
+ *   java -cp target/classes Modelo.Transferencia udp emisor   9000 localhost:9001 entrada.bin [payload]
+ *
+ *   java -cp target/classes Modelo.Transferencia shm receptor /dev/shm/canal salida.bin
+ *   java -cp target/classes Modelo.Transferencia shm emisor   /dev/shm/canal entrada.bin [payload]
+ * </pre>
+ * Al terminar, cada extremo imprime el tiempo, el goodput y las estadísticas de su canal.
+ */
+public class Transferencia {
+    private static final int FRECUENCIA = 0;
+    private static final int TAMANO_PAYLOAD_PREDETERMINADO = 1400;
+    /** Cuánto sigue escuchando el receptor al terminar, por si el emisor no recibió el último ACK. */
+    private static final long ESPERA_CIERRE_MS = 2000;
+
+    /** Abre el canal de un extremo; lo cierra quien lo pidió. */
+    private interface AperturaCanal {
+        Canal abrir(PlanificadorTiempoReal planificador) throws IOException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean udp = args.length > 0 && args[0].equals("udp");
+        boolean shm = args.length > 0 && args[0].equals("shm");
+        int argumentosCanal = udp ? 2 : 1;
+        if (!(udp || shm) || args.length < 3 + argumentosCanal
+                || !(args[1].equals("emisor") || args[1].equals("receptor"))) {
+            System.err.println("Uso: Transferencia udp receptor <puertoLocal> <host:puertoEmisor> <archivoSalida>");
+            System.err.println("     Transferencia udp emisor <puertoLocal> <host:puertoReceptor> <archivo> [tamanoPayload]");
+            System.err.println("     Transferencia shm receptor <archivoCanal> <archivoSalida>");
+            System.err.println("     Transferencia shm emisor <archivoCanal> <archivo> [tamanoPayload]");
+            System.exit(2);
+        }
+        boolean emisor = args[1].equals("emisor");
+        String[] resto = Arrays.copyOfRange(args, 2 + argumentosCanal, args.length);
+
+        AperturaCanal apertura;
+        if (udp) {
+            InetSocketAddress local = new InetSocketAddress(Integer.parseInt(args[2]));
+            InetSocketAddress remoto = direccion(args[3]);
+            apertura = planificador -> CanalUdp.abrir(FRECUENCIA, planificador, local, remoto);
+        } else {
+            Path archivoCanal = Path.of(args[2]);
+            if (!emisor) {
+                // El receptor arranca primero: empieza con colas vacías
+                Files.deleteIfExists(archivoCanal);
+            }
+            CanalMemoriaCompartida.Extremo extremo = emisor
+                    ? CanalMemoriaCompartida.Extremo.EMISOR : CanalMemoriaCompartida.Extremo.RECEPTOR;
+            apertura = planificador -> CanalMemoriaCompartida.abrir(FRECUENCIA, planificador, archivoCanal, extremo);
+        }
+
+        Path archivo = Path.of(resto[0]);
+        if (emisor) {
+            int tamanoPayload = resto.length > 1 ? Integer.parseInt(resto[1]) : TAMANO_PAYLOAD_PREDETERMINADO;
+            emitir(apertura, archivo, tamanoPayload);
+        } else {
+            recibir(apertura, archivo);
+        }
+    }
+
+    private static void emitir(AperturaCanal apertura, Path archivo, int tamanoPayload)
+            throws IOException, InterruptedException {
+        try (PlanificadorTiempoReal planificador = new PlanificadorTiempoReal("emisor");
+             FuenteArchivo fuente = new FuenteArchivo(archivo, tamanoPayload)) {
+            Canal canal = apertura.abrir(planificador);
+            try {
+                ProtocoloEmisor emisor = new ProtocoloEmisor();
+                RegistroMetricas.publicar(emisor, "transferencia");
+                RegistroMetricas.publicar(canal);
+                CountDownLatch fin = new CountDownLatch(1);
+                boolean[] completada = {false};
+                emisor.setObservador(new ObservadorEmisor() {
+                    @Override
+                    public void transmisionCompletada() {
+                        completada[0] = true;
+                        fin.countDown();
+                    }
+
+                    @Override
+                    public void transmisionFallida(String titulo, String mensaje) {
+                        System.err.println(titulo + ": " + mensaje);
+                        fin.countDown();
+                    }
+                });
+
+                Trama trama = new Trama(fuente, tamanoPayload, AlgoritmoChecksum.PREDETERMINADO);
+                long inicio = System.nanoTime();
+                planificador.programar(0, () -> {
+                    emisor.sintonizar(canal);
+                    emisor.enviar(trama.getPackets());
+                });
+                fin.await();
+                long duracion = System.nanoTime() - inicio;
+
+                // Las estadísticas se leen en el hilo que las escribe
+                planificador.programar(0, () -> System.err.println((completada[0] ? "Completada" : "Fallida")
+                        + resumen(trama.getLongitud(), duracion)
+                        + ", paquetesEnviados=" + emisor.getPaquetesEnviados()
+                        + ", retransmisiones=" + emisor.getRetransmisiones()
+                        + ", goodputBps=" + Math.round(emisor.getMetricas().getGoodputBytesPorSegundo())
+                        + ", rttP99Ms=" + emisor.getMetricas().getRttP99Ms()
+                        + estadisticas(canal)
+                        + ", " + emisor.getEstimadorRTT()));
+                esperarEventos(planificador);
+            } finally {
+                cerrar(canal);
+            }
+        }
+    }
+
+    private static void recibir(AperturaCanal apertura, Path archivo) throws IOException, InterruptedException {
+        try (PlanificadorTiempoReal planificador = new PlanificadorTiempoReal("receptor");
+             SumideroArchivo sumidero = new SumideroArchivo(archivo)) {
+            Canal canal = apertura.abrir(planificador);
+            try {
+                ProtocoloReceptor receptor = new ProtocoloReceptor();
+                RegistroMetricas.publicar(receptor, "transferencia");
+                RegistroMetricas.publicar(canal);
+                receptor.setSumidero(sumidero);
+                CountDownLatch fin = new CountDownLatch(1);
+                long[] inicio = {0};
+                receptor.setObservador(new ObservadorReceptor() {
+                    @Override
+                    public void tramaIniciada(int totalPaquetes) {
+                        inicio[0] = System.nanoTime();
+                    }
+
+                    @Override
+                    public void tramaCompletada(long bytes) {
+                        System.err.println("Recibida" + resumen(bytes, System.nanoTime() - inicio[0])
+                                + ", acks=" + receptor.getAcksEnviados()
+                                + estadisticas(canal));
+                        fin.countDown();
+                    }
+                });
+                planificador.programar(0, () -> receptor.sintonizar(canal));
+                System.err.println("Esperando al emisor...");
+                fin.await();
+                Thread.sleep(ESPERA_CIERRE_MS);
+            } finally {
+                cerrar(canal);
+            }
+        }
+    }
+
+    private static String estadisticas(Canal canal) {
+        if (canal instanceof CanalUdp udp) {
+            return ", datagramasEnviados=" + udp.getDatagramasEnviados()
+                    + ", datagramasRecibidos=" + udp.getDatagramasRecibidos()
+                    + ", bytesEnCable=" + udp.getBytesEnviados();
+        }
+        if (canal instanceof CanalMemoriaCompartida shm) {
+            return ", paquetesRecibidos=" + shm.getPaquetesRecibidos()
+                    + ", descartadosPorColaLlena=" + shm.getPaquetesDescartados();
+        }
+        return "";
+    }
+
+    private static String resumen(long bytes, long duracionNanos) {
+        double segundos = duracionNanos / 1e9;
+        return String.format(": %d bytes en %.3f s (%.1f MB/s)", bytes, segundos, bytes / segundos / 1e6);
+    }
+
+    /** Espera a que el planificador ejecute lo que ya tiene pendiente para ahora. */
+    private static void esperarEventos(PlanificadorTiempoReal planificador) throws InterruptedException {
+        CountDownLatch listo = new CountDownLatch(1);
+        planificador.programar(0, listo::countDown);
+        listo.await(1, TimeUnit.SECONDS);
+    }
+
+    private static void cerrar(Canal canal) throws IOException {
+        if (canal instanceof Closeable cerrable) {
+            cerrable.close();
+        }
+    }
+
+    private static InetSocketAddress direccion(String hostPuerto) {
+        int separador = hostPuerto.lastIndexOf(':');
+        if (separador < 0) {
+            throw new IllegalArgumentException("Se esperaba host:puerto, no " + hostPuerto);
+        }
+        return new InetSocketAddress(hostPuerto.substring(0, separador), Integer.parseInt(hostPuerto.substring(separador + 1)));
+    }
+}
@@ -0,0 +1,35 @@
+package Modelo;
+
+/**
+ * Ventana de congestión constante: no reacciona a confirmaciones ni a pérdidas.
+ */
+public final class VentanaFija implements ControlCongestion {
+    private final int ventana;
+
+    public VentanaFija(int ventana) {
+        if (ventana < 1) {
+            throw new IllegalArgumentException("La ventana debe ser positiva: " + ventana);
+        }
+        this.ventana = ventana;
+    }
+
+    @Override
+    public int getVentana() { return ventana; }
+
+    @Override
+    public void alConfirmar(int paquetes, long ahoraNanos, long srttNanos) {}
+
+    @Override
+    public void alTimeout(int enVuelo, long ahoraNanos) {}
+
+    @Override
+    public void alPerdidaRapida(int enVuelo, long ahoraNanos) {}
+
+    @Override
+    public void reiniciar() {}
+
+    @Override
+    public String toString() {
+        return "VentanaFija{" + ventana + "}";
+    }
+}
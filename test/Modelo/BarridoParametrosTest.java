@@ -0,0 +1,61 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BarridoParametrosTest {
+
+    @Test
+    void cadaEjecucionTerminaYSuEstadoVaEnElCsv() throws IOException {
+        BarridoParametros barrido = new BarridoParametros(new byte[500], 42);
+        barrido.setControles(BarridoParametros.Control.CUBIC, BarridoParametros.Control.FIJA);
+        barrido.setVentanas(8, 64);
+        barrido.setRtosMs(0, 2500);
+        barrido.setRepeticiones(2);
+
+        List<BarridoParametros.Fila> filas = barrido.ejecutar(2);
+        assertEquals(12, filas.size());
+        for (BarridoParametros.Fila fila : filas) {
+            assertEquals(ResultadoSimulacion.Estado.COMPLETADA, fila.resultado().getEstado(), fila.escenario().toString());
+            // Con el timeout por encima del RTT siempre hay muestras
+            assertTrue(fila.resultado().getRttP50Nanos() > 0, fila.escenario().toString());
+        }
+
+        StringWriter csv = new StringWriter();
+        BarridoParametros.escribirCsv(filas, csv);
+        String[] lineas = csv.toString().split("\n");
+        assertEquals(13, lineas.length);
+        assertTrue(lineas[0].contains(",control,ventana,"));
+        assertTrue(lineas[0].contains(",completada,estado,"));
+        assertTrue(lineas[1].contains(",cubic,0,"));
+        assertTrue(lineas[5].contains(",fija,8,"));
+        assertTrue(lineas[1].contains(",true,completada,"));
+    }
+
+    @Test
+    void sinEjesUsaElControlDelProtocolo() {
+        List<BarridoParametros.Escenario> escenarios = new BarridoParametros(new byte[100], 1).getEscenarios();
+        assertEquals(1, escenarios.size());
+        assertEquals(BarridoParametros.Control.PREDETERMINADO, escenarios.get(0).control());
+        assertEquals(0, escenarios.get(0).ventana());
+        assertEquals(ProtocoloEmisor.controlPredeterminado().getClass(),
+                BarridoParametros.Control.PREDETERMINADO.crear(0).getClass());
+    }
+
+    @Test
+    void conLaMismaSemillaElBarridoNoDependeDeLosHilos() {
+        BarridoParametros barrido = new BarridoParametros(new byte[300], 7);
+        barrido.setRepeticiones(4);
+        List<BarridoParametros.Fila> uno = barrido.ejecutar(1);
+        List<BarridoParametros.Fila> cuatro = barrido.ejecutar(4);
+        for (int i = 0; i < uno.size(); i++) {
+            assertEquals(uno.get(i).resultado().toString(), cuatro.get(i).resultado().toString());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanalTest {
+    private static final long BITS_POR_SEGUNDO = 80_000;
+
+    private static ModeloEnlace enlaceConReparto() {
+        return ModeloCanal.original()
+                .conPerdida(ModeloPerdida.ninguna())
+                .conCorrupcion(0)
+                .conLatencia(10, 10)
+                .conDuracionViaje(10)
+                .conRepartoJusto(BITS_POR_SEGUNDO, 1 << 20, 1500);
+    }
+
+    @Test
+    void volverAUnRepartoNoArrancaUnSegundoTransmisor() {
+        PlanificadorVirtual planificador = new PlanificadorVirtual();
+        ModeloEnlace a = enlaceConReparto();
+        ModeloEnlace b = enlaceConReparto();
+        Canal canal = new Canal(0, planificador, new Random(1), a);
+        new ProtocoloReceptor().sintonizar(canal);
+
+        List<Long> salidasDeA = new ArrayList<>();
+        canal.agregarObservador((paquete, corrupto, duracion) -> {
+            if (paquete.getSequenceNumber() != 5) salidasDeA.add(planificador.ahora());
+        });
+
+        for (int seq = 0; seq < 5; seq++) canal.enviarPaquete(new Packet(seq, new byte[100]));
+        canal.setModelo(b);
+        canal.enviarPaquete(new Packet(5, new byte[100]));
+        canal.setModelo(a);
+        canal.enviarPaquete(new Packet(6, new byte[100]));
+        planificador.ejecutarTodo();
+
+        assertEquals(6, salidasDeA.size());
+        long serializacion = a.getRepartoDatos().serializacion(new Packet(0, new byte[100]));
+        for (int i = 1; i < salidasDeA.size(); i++) {
+            assertTrue(salidasDeA.get(i) - salidasDeA.get(i - 1) >= serializacion,
+                    "Dos paquetes de A salieron a la vez: " + salidasDeA);
+        }
+        assertFalse(a.getRepartoDatos().isOcupada());
+        assertFalse(b.getRepartoDatos().isOcupada());
+    }
+}
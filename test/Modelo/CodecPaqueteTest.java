@@ -0,0 +1,108 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecPaqueteTest {
+
+    private static Packet idaYVuelta(Packet paquete) {
+        ByteBuffer buffer = ByteBuffer.allocate(CodecPaquete.tamanoCodificado(paquete));
+        CodecPaquete.codificar(paquete, buffer);
+        assertFalse(buffer.hasRemaining(), "tamanoCodificado no coincide con lo escrito");
+        buffer.flip();
+        Packet leido = CodecPaquete.decodificar(buffer);
+        assertFalse(buffer.hasRemaining());
+        return leido;
+    }
+
+    private static byte[] payload(Packet paquete) {
+        byte[] bytes = new byte[paquete.getLongitudPayload()];
+        paquete.copiarPayload(bytes, 0);
+        return bytes;
+    }
+
+    @Test
+    void conservaLosDatosConFlujoTramaYRelleno() {
+        byte[] datos = "hola, mundo".getBytes(StandardCharsets.UTF_8);
+        for (Checksums algoritmo : Checksums.values()) {
+            Packet original = new Packet(300, ByteBuffer.wrap(datos), 5, algoritmo).conEtiquetas(7, 70000);
+            Packet leido = idaYVuelta(original);
+
+            assertEquals(300, leido.getSequenceNumber());
+            assertEquals(7, leido.getFlujo());
+            assertEquals(70000, leido.getTrama());
+            assertFalse(leido.isAck());
+            assertFalse(leido.isHeader());
+            assertSame(algoritmo, leido.getAlgoritmoChecksum());
+            assertEquals(original.getChecksum(), leido.getChecksum());
+            assertEquals(datos.length + 5, leido.getLongitudPayload());
+            assertArrayEquals(payload(original), payload(leido));
+            assertFalse(leido.isCorrupt());
+        }
+    }
+
+    @Test
+    void conservaElHeader() {
+        Packet leido = idaYVuelta(new Packet(42, 512, 21000L, Checksums.ADLER32).conTrama(3));
+        assertTrue(leido.isHeader());
+        assertEquals(-1, leido.getSequenceNumber());
+        assertEquals(3, leido.getTrama());
+        assertEquals(42, leido.getTotalPacketsFromHeader());
+        assertEquals(512, leido.getTamanoPayloadFromHeader());
+        assertEquals(21000L, leido.getLongitudFromHeader());
+        assertFalse(leido.isCorrupt());
+    }
+
+    @Test
+    void conservaElAckConSack() {
+        long[] sack = {0b1011L, Long.MIN_VALUE};
+        Packet leido = idaYVuelta(new Packet(-1, true, sack).conEtiquetas(Packet.MAXIMO_FLUJO, 1));
+        assertTrue(leido.isAck());
+        assertEquals(-1, leido.getSequenceNumber());
+        assertEquals(Packet.MAXIMO_FLUJO, leido.getFlujo());
+        assertEquals(1, leido.getTrama());
+        assertArrayEquals(sack, leido.getSack());
+        assertFalse(leido.isCorrupt());
+    }
+
+    @Test
+    void elRuidoSigueDetectandoseAlOtroLado() {
+        Packet original = new Packet(9, new byte[] {1, 2, 3, 4}).conBitInvertido(13);
+        Packet leido = idaYVuelta(original);
+        assertTrue(leido.isCorrupt());
+        assertArrayEquals(payload(original), payload(leido));
+    }
+
+    @Test
+    void variosPaquetesSeguidosEnUnBuffer() {
+        Packet[] paquetes = {new Packet(4), new Packet(0, new byte[] {5}), new Packet(0, true)};
+        int total = 0;
+        for (Packet paquete : paquetes) total += CodecPaquete.tamanoCodificado(paquete);
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (Packet paquete : paquetes) CodecPaquete.codificar(paquete, buffer);
+        buffer.flip();
+
+        assertTrue(CodecPaquete.decodificar(buffer).isHeader());
+        assertArrayEquals(new byte[] {5}, payload(CodecPaquete.decodificar(buffer)));
+        assertTrue(CodecPaquete.decodificar(buffer).isAck());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void rechazaUnPaqueteIncompleto() {
+        Packet paquete = new Packet(1, new byte[100]);
+        ByteBuffer buffer = ByteBuffer.allocate(CodecPaquete.tamanoCodificado(paquete));
+        CodecPaquete.codificar(paquete, buffer);
+        buffer.flip().limit(buffer.limit() - 1);
+        assertThrows(IllegalArgumentException.class, () -> CodecPaquete.decodificar(buffer));
+    }
+}
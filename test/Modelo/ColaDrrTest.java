@@ -0,0 +1,92 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColaDrrTest {
+
+    private static Packet paquete(int flujo, int seq, int bytes) {
+        return new Packet(seq, new byte[bytes]).conFlujo(flujo);
+    }
+
+    private static int tamano(int flujo, int bytes) {
+        return CodecPaquete.tamanoCodificado(paquete(flujo, 0, bytes));
+    }
+
+    @Test
+    void conPaquetesIgualesLosFlujosSeTurnan() {
+        // El flujo 1 lleva un byte más de cabecera: el cuanto tiene que cubrir el mayor
+        ColaDrr cola = new ColaDrr(1_000_000, 1 << 20, tamano(1, 100));
+        for (int seq = 0; seq < 3; seq++) cola.encolar(paquete(0, seq, 100));
+        for (int seq = 0; seq < 3; seq++) cola.encolar(paquete(1, seq, 100));
+
+        StringBuilder orden = new StringBuilder();
+        for (Packet p; (p = cola.siguiente()) != null; ) {
+            orden.append(p.getFlujo()).append(':').append(p.getSequenceNumber()).append(' ');
+        }
+        assertEquals("0:0 1:0 0:1 1:1 0:2 1:2 ", orden.toString());
+    }
+
+    @Test
+    void repartePorBytesYNoPorPaquetes() {
+        int cuanto = tamano(0, 1000);
+        ColaDrr cola = new ColaDrr(1_000_000, 1 << 20, cuanto);
+        // Todos con la misma secuencia, para que el tamaño codificado no varíe
+        for (int i = 0; i < 200; i++) {
+            cola.encolar(paquete(0, 0, 1000));
+            cola.encolar(paquete(1, 0, 100));
+        }
+        // Mientras los dos tienen cola (unas 20 rondas), ninguno se adelanta más de una
+        for (int i = 0; i < 150; i++) {
+            cola.siguiente();
+            long diferencia = Math.abs(cola.getBytesServidos(0) - cola.getBytesServidos(1));
+            assertTrue(diferencia <= 2L * cuanto, "diferencia de " + diferencia + " bytes");
+        }
+    }
+
+    @Test
+    void laColaLlenaDescartaSoloEnSuFlujo() {
+        ColaDrr cola = new ColaDrr(1_000_000, 2L * tamano(0, 100), tamano(0, 100));
+        assertTrue(cola.encolar(paquete(0, 0, 100)));
+        assertTrue(cola.encolar(paquete(0, 1, 100)));
+        assertFalse(cola.encolar(paquete(0, 2, 100)));
+        assertTrue(cola.encolar(paquete(1, 0, 100)));
+        assertEquals(1, cola.getDescartados(0));
+        assertEquals(0, cola.getDescartados(1));
+
+        // Una cola vacía acepta un paquete aunque sea mayor que su capacidad
+        assertTrue(cola.encolar(paquete(2, 0, 1000)));
+    }
+
+    @Test
+    void reiniciarVaciaLasColas() {
+        ColaDrr cola = new ColaDrr(1_000_000, 1 << 20, tamano(0, 100));
+        cola.encolar(paquete(0, 0, 100));
+        cola.encolar(paquete(3, 0, 100));
+        cola.reiniciar();
+        assertNull(cola.siguiente());
+        assertTrue(cola.encolar(paquete(3, 1, 100)));
+        assertEquals(1, cola.siguiente().getSequenceNumber());
+    }
+
+    @Test
+    void laSerializacionDependeDelTamanoCodificado() {
+        Packet p = paquete(0, 0, 1000);
+        ColaDrr cola = new ColaDrr(8_000_000_000L, 0, 1);
+        assertEquals(CodecPaquete.tamanoCodificado(p), cola.serializacion(p));
+    }
+
+    @Test
+    void elTransmisorSeOcupaUnaSolaVez() {
+        ColaDrr cola = new ColaDrr(1_000_000, 1 << 20, 100);
+        assertTrue(cola.ocupar());
+        assertFalse(cola.ocupar());
+        cola.liberar();
+        assertFalse(cola.isOcupada());
+        assertTrue(cola.ocupar());
+    }
+}
@@ -0,0 +1,29 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColaMensajesTest {
+
+    @Test
+    void numeraLosMensajesSeguidosYLosConfirmaPorSuUltimoPaquete() {
+        ColaMensajes cola = new ColaMensajes(4, AlgoritmoChecksum.PREDETERMINADO);
+        cola.agregar(new byte[4]); // 4 + 4 bytes: paquetes 0 y 1
+        cola.agregar(new byte[1]); // 4 + 1 bytes: paquetes 2 y 3
+        assertEquals(5, cola.size());
+        assertEquals(3, cola.get(4).getSequenceNumber());
+        assertEquals(0, cola.confirmar(1));
+        assertEquals(1, cola.confirmar(2));
+        assertEquals(1, cola.confirmar(4));
+    }
+
+    @Test
+    void rechazaLoQueNoCabeEnLaNumeracion() {
+        ColaMensajes cola = new ColaMensajes(1, AlgoritmoChecksum.PREDETERMINADO);
+        assertTrue(cola.admite(1000));
+        assertFalse(cola.admite(Integer.MAX_VALUE - ColaMensajes.BYTES_LONGITUD));
+    }
+}
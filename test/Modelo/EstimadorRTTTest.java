@@ -0,0 +1,100 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EstimadorRTTTest {
+
+    private static long ms(long milisegundos) {
+        return TimeUnit.MILLISECONDS.toNanos(milisegundos);
+    }
+
+    @Test
+    void sigueLasFormulasDeRfc6298() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1));
+        assertEquals(EstimadorRTT.RTO_INICIAL_NANOS, estimador.getRtoNanos());
+
+        // Primera muestra: SRTT = R, RTTVAR = R/2, RTO = SRTT + 4·RTTVAR
+        estimador.registrarMuestra(ms(1000));
+        assertEquals(ms(1000), estimador.getSrttNanos());
+        assertEquals(ms(500), estimador.getRttvarNanos());
+        assertEquals(ms(3000), estimador.getRtoNanos());
+
+        // RTTVAR = 3/4·RTTVAR + 1/4·|SRTT - R|, SRTT = 7/8·SRTT + 1/8·R
+        estimador.registrarMuestra(ms(600));
+        assertEquals(ms(475), estimador.getRttvarNanos());
+        assertEquals(ms(950), estimador.getSrttNanos());
+        assertEquals(ms(950 + 4 * 475), estimador.getRtoNanos());
+        assertEquals(2, estimador.getMuestras());
+    }
+
+    @Test
+    void elRtoNoBajaDelMinimoNiDeLaGranularidad() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1));
+        estimador.registrarMuestra(ms(1));
+        assertEquals(ms(200), estimador.getRtoNanos());
+
+        EstimadorRTT grueso = EstimadorRTT.adaptativo(ms(500));
+        for (int i = 0; i < 50; i++) grueso.registrarMuestra(ms(300));
+        assertEquals(ms(800), grueso.getRtoNanos());
+    }
+
+    @Test
+    void cadaTimeoutDuplicaElRtoHastaElMaximo() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1));
+        estimador.registrarMuestra(ms(1000));
+        estimador.registrarTimeout();
+        assertEquals(ms(6000), estimador.getRtoNanos());
+        estimador.registrarTimeout();
+        assertEquals(ms(12000), estimador.getRtoNanos());
+        for (int i = 0; i < 10; i++) estimador.registrarTimeout();
+        assertEquals(TimeUnit.SECONDS.toNanos(60), estimador.getRtoNanos());
+        assertEquals(12, estimador.getTimeouts());
+    }
+
+    @Test
+    void elRetrocesoSeConservaHastaLaSiguienteMuestra() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1));
+        estimador.registrarMuestra(ms(1000));
+        estimador.registrarTimeout();
+        estimador.registrarTimeout();
+        assertEquals(ms(12000), estimador.getRtoNanos());
+
+        estimador.registrarMuestra(ms(1000));
+        assertEquals(ms(1000 + 4 * 375), estimador.getRtoNanos());
+    }
+
+    @Test
+    void sinRetrocesoElTimeoutNoCambiaElRto() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1), false);
+        estimador.registrarMuestra(ms(1000));
+        estimador.registrarTimeout();
+        assertEquals(ms(3000), estimador.getRtoNanos());
+        assertEquals(1, estimador.getTimeouts());
+    }
+
+    @Test
+    void elFijoIgnoraMuestrasYTimeouts() {
+        EstimadorRTT estimador = EstimadorRTT.fijo(ms(2500));
+        estimador.registrarMuestra(ms(10));
+        estimador.registrarTimeout();
+        assertEquals(ms(2500), estimador.getRtoNanos());
+        assertEquals(-1, estimador.getSrttNanos());
+    }
+
+    @Test
+    void reiniciarVuelveAlRtoInicial() {
+        EstimadorRTT estimador = EstimadorRTT.adaptativo(ms(1));
+        estimador.registrarMuestra(ms(1000));
+        estimador.registrarTimeout();
+        estimador.reiniciar();
+        assertEquals(EstimadorRTT.RTO_INICIAL_NANOS, estimador.getRtoNanos());
+        assertEquals(-1, estimador.getSrttNanos());
+
+        estimador.registrarMuestra(ms(400));
+        assertEquals(ms(400), estimador.getSrttNanos());
+    }
+}
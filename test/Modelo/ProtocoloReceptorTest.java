@@ -0,0 +1,32 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProtocoloReceptorTest {
+
+    @Test
+    void unHeaderRetrasadoNoReiniciaLaTramaEnCurso() {
+        byte[] datos = "Hola, mundo: una trama de varios paquetes".getBytes();
+        List<Packet> paquetes = new Trama(datos, 10).getPackets();
+        ProtocoloReceptor receptor = new ProtocoloReceptor();
+        SumideroMemoria sumidero = new SumideroMemoria();
+        receptor.setSumidero(sumidero);
+
+        receptor.recibirPaquete(paquetes.get(0));
+        receptor.recibirPaquete(paquetes.get(1));
+        receptor.recibirPaquete(paquetes.get(2));
+        receptor.recibirPaquete(new Packet(paquetes.get(0))); // Copia retrasada del HEADER
+        assertEquals(2, receptor.getPaquetesRecibidos());
+
+        for (int i = 3; i < paquetes.size(); i++) {
+            receptor.recibirPaquete(paquetes.get(i));
+        }
+        assertEquals(paquetes.size() - 1, receptor.getPaquetesRecibidos());
+        assertArrayEquals(datos, sumidero.getDatos());
+    }
+}
@@ -0,0 +1,101 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RuedaDeTemporizadoresTest {
+    private static final long TICK = 10;
+
+    private final PlanificadorVirtual planificador = new PlanificadorVirtual();
+    /** "id@instante" de cada vencimiento, en orden. */
+    private final List<String> vencidos = new ArrayList<>();
+    /** Lo que además hace cada prueba cuando vence un temporizador. */
+    private RuedaDeTemporizadores.AlVencer alVencer = t -> { };
+    private final RuedaDeTemporizadores rueda = new RuedaDeTemporizadores(planificador, TICK, 64, t -> {
+        vencidos.add(t.getId() + "@" + planificador.ahora());
+        alVencer.vencio(t);
+    });
+
+    private static RuedaDeTemporizadores.Temporizador temporizador(int id) {
+        RuedaDeTemporizadores.Temporizador t = new RuedaDeTemporizadores.Temporizador();
+        t.setId(id);
+        return t;
+    }
+
+    @Test
+    void vencenEnOrdenRedondeadosAlTick() {
+        RuedaDeTemporizadores.Temporizador a = temporizador(1);
+        RuedaDeTemporizadores.Temporizador b = temporizador(2);
+        rueda.armar(a, 35);
+        rueda.armar(b, 10);
+        assertTrue(a.isArmado());
+
+        planificador.ejecutarTodo();
+
+        assertEquals(List.of("2@10", "1@40"), vencidos);
+        assertFalse(a.isArmado());
+        assertFalse(b.isArmado());
+    }
+
+    @Test
+    void rearmarReemplazaElVencimientoAnterior() {
+        RuedaDeTemporizadores.Temporizador t = temporizador(1);
+        rueda.armar(t, 100);
+        planificador.avanzarHasta(50);
+        rueda.armar(t, 100);
+        planificador.ejecutarTodo();
+        assertEquals(List.of("1@150"), vencidos);
+    }
+
+    @Test
+    void unoCanceladoNoVence() {
+        RuedaDeTemporizadores.Temporizador a = temporizador(1);
+        RuedaDeTemporizadores.Temporizador b = temporizador(2);
+        rueda.armar(a, 20);
+        rueda.armar(b, 20);
+        rueda.cancelar(a);
+        rueda.cancelar(a); // Cancelar dos veces no hace nada
+        planificador.ejecutarTodo();
+        assertEquals(List.of("2@20"), vencidos);
+    }
+
+    @Test
+    void masAllaDeUnaVueltaEsperaLasVueltasQueFalten() {
+        // 64 ranuras de 10: 1000 da más de una vuelta a la rueda
+        RuedaDeTemporizadores.Temporizador lejano = temporizador(1);
+        RuedaDeTemporizadores.Temporizador cercano = temporizador(2);
+        rueda.armar(lejano, 1000);
+        rueda.armar(cercano, 1000 - 64 * TICK);
+        planificador.ejecutarTodo();
+        assertEquals(List.of("2@360", "1@1000"), vencidos);
+    }
+
+    @Test
+    void alVencerSePuedeVolverAArmar() {
+        RuedaDeTemporizadores.Temporizador t = temporizador(1);
+        alVencer = vencido -> {
+            // Con retardo 0 vence en el tick siguiente, no en el que se está procesando
+            if (vencidos.size() < 3) rueda.armar(vencido, 0);
+        };
+        rueda.armar(t, 0);
+        planificador.ejecutarTodo();
+        assertEquals(List.of("1@10", "1@20", "1@30"), vencidos);
+    }
+
+    @Test
+    void alVencerSePuedeCancelarOtroDelMismoTick() {
+        RuedaDeTemporizadores.Temporizador a = temporizador(1);
+        RuedaDeTemporizadores.Temporizador b = temporizador(2);
+        alVencer = vencido -> rueda.cancelar(vencido == a ? b : a);
+        rueda.armar(a, 10);
+        rueda.armar(b, 10);
+        planificador.ejecutarTodo();
+        assertEquals(1, vencidos.size());
+    }
+}
@@ -0,0 +1,73 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transferencias completas sobre el canal original con muchas semillas: toda trama debe
+ * terminar y llegar idéntica, con el timeout fijo (incluso por debajo del RTT) o adaptativo.
+ * Con un RTT mayor que el RTO inicial, el adaptativo además debe llegar a medirlo.
+ */
+class SimulacionIntegridadTest {
+    private static final int SEMILLAS = 100;
+    private static final int TAMANO_PAYLOAD = 10;
+
+    private final byte[] datos = new byte[1000];
+
+    SimulacionIntegridadTest() {
+        new Random(7).nextBytes(datos);
+    }
+
+    @Test
+    void conTimeoutFijoPorEncimaDelRtt() {
+        comprobar(() -> EstimadorRTT.fijo(1_500_000_000L), null);
+    }
+
+    @Test
+    void conTimeoutFijoPorDebajoDelRtt() {
+        comprobar(() -> EstimadorRTT.fijo(500_000_000L), null);
+    }
+
+    @Test
+    void conTimeoutAdaptativo() {
+        comprobar(null, () -> ModeloCanal.original().conLatencia(100, 1500));
+    }
+
+    @Test
+    void conRttMayorQueElRtoInicial() {
+        ModeloEnlace modelo = ModeloCanal.original()
+                .conPerdida(ModeloPerdida.bernoulli(0))
+                .conCorrupcion(0)
+                .conLatencia(2000, 2000);
+        long rtt = modelo.getRttMinimoNanos();
+        assertTrue(rtt > EstimadorRTT.RTO_INICIAL_NANOS);
+
+        byte[] datos = new byte[20_000];
+        new Random(7).nextBytes(datos);
+        Simulacion simulacion = new Simulacion(0, datos, 100, 1);
+        simulacion.setFabricaModelo(() -> modelo);
+        ResultadoSimulacion resultado = simulacion.ejecutar();
+
+        assertTrue(resultado.isCompletada(), resultado.toString());
+        assertArrayEquals(datos, resultado.getDatosRecibidos());
+        // Los primeros envíos vencen antes de su ACK; con el RTO retrocedido los siguientes se miden
+        assertTrue(Math.abs(resultado.getSrttNanos() - rtt) < rtt / 10, resultado.toString());
+        assertTrue(resultado.getRatioRetransmision() < 0.1, resultado.toString());
+    }
+
+    private void comprobar(Supplier<EstimadorRTT> fabricaEstimador, Supplier<ModeloCanal> fabricaModelo) {
+        for (long semilla = 0; semilla < SEMILLAS; semilla++) {
+            Simulacion simulacion = new Simulacion(0, datos, TAMANO_PAYLOAD, semilla);
+            if (fabricaEstimador != null) simulacion.setFabricaEstimador(fabricaEstimador);
+            if (fabricaModelo != null) simulacion.setFabricaModelo(fabricaModelo);
+            ResultadoSimulacion resultado = simulacion.ejecutar();
+            assertTrue(resultado.isCompletada(), "Semilla " + semilla + ": " + resultado);
+            assertArrayEquals(datos, resultado.getDatosRecibidos(), "Semilla " + semilla);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Una serie de mensajes sobre el canal original debe llegar entera e intacta en los dos modos;
+ * con una trama por mensaje, los reenvíos retrasados de una trama no deben colarse en la siguiente.
+ */
+class SimulacionMensajesTest {
+    private static final int SEMILLAS = 10;
+    private static final int MENSAJES = 30;
+
+    @Test
+    void unaTramaPorMensaje() {
+        comprobar(SimulacionMensajes.Modo.TRAMAS);
+    }
+
+    @Test
+    void unaConexion() {
+        comprobar(SimulacionMensajes.Modo.CONEXION);
+    }
+
+    private void comprobar(SimulacionMensajes.Modo modo) {
+        for (long semilla = 0; semilla < SEMILLAS; semilla++) {
+            SimulacionMensajes simulacion = new SimulacionMensajes(MENSAJES, 40,
+                    TimeUnit.MILLISECONDS.toNanos(50), 10, semilla);
+            ResultadoMensajes resultado = simulacion.ejecutar(modo);
+            assertEquals(MENSAJES, resultado.getConfirmados(), "Semilla " + semilla + ": " + resultado);
+            assertEquals(MENSAJES, resultado.getIntegros(), "Semilla " + semilla + ": " + resultado);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SumideroTextoTest {
+    /** Caracteres de 1, 2, 3 y 4 bytes en UTF-8. */
+    private static final String TEXTO = "año €uro 𝄞 ñandú";
+
+    private static String recibir(byte[] bytes, int... cortes) {
+        StringBuilder destino = new StringBuilder();
+        SumideroTexto sumidero = new SumideroTexto(StandardCharsets.UTF_8, destino);
+        sumidero.iniciar(bytes.length);
+        int desde = 0;
+        for (int i = 0; i <= cortes.length; i++) {
+            int hasta = i < cortes.length ? cortes[i] : bytes.length;
+            sumidero.escribir(desde, ByteBuffer.wrap(bytes, desde, hasta - desde));
+            desde = hasta;
+        }
+        sumidero.completar();
+        return destino.toString();
+    }
+
+    @Test
+    void reconstruyeElTextoCortadoEnCualquierByte() {
+        byte[] bytes = TEXTO.getBytes(StandardCharsets.UTF_8);
+        for (int corte = 0; corte <= bytes.length; corte++) {
+            assertEquals(TEXTO, recibir(bytes, corte), "cortado en el byte " + corte);
+        }
+    }
+
+    @Test
+    void reconstruyeElTextoDeByteEnByte() {
+        byte[] bytes = TEXTO.getBytes(StandardCharsets.UTF_8);
+        int[] cortes = new int[bytes.length - 1];
+        for (int i = 0; i < cortes.length; i++) cortes[i] = i + 1;
+        assertEquals(TEXTO, recibir(bytes, cortes));
+    }
+
+    @Test
+    void unCaracterIncompletoAlFinalSeReemplaza() {
+        byte[] bytes = "a€".getBytes(StandardCharsets.UTF_8);
+        byte[] truncado = Arrays.copyOf(bytes, bytes.length - 1);
+        assertEquals("a�", recibir(truncado, 2));
+    }
+
+    @Test
+    void descartarOlvidaElCaracterPartido() {
+        byte[] bytes = "€".getBytes(StandardCharsets.UTF_8);
+        StringBuilder destino = new StringBuilder();
+        SumideroTexto sumidero = new SumideroTexto(StandardCharsets.UTF_8, destino);
+        sumidero.iniciar(bytes.length);
+        sumidero.escribir(0, ByteBuffer.wrap(bytes, 0, 2));
+        sumidero.descartar();
+
+        sumidero.iniciar(1);
+        sumidero.escribir(0, ByteBuffer.wrap(new byte[] {'x'}));
+        sumidero.completar();
+        assertEquals("x", destino.toString());
+    }
+}